@@ -0,0 +1,52 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.test.HardBitvectorFormulaGenerator;
+import org.sosy_lab.java_smt.test.HardIntegerFormulaGenerator;
+
+/**
+ * Workloads for the JMH benchmarks in this package.
+ *
+ * <p>The formulas are taken from {@link HardBitvectorFormulaGenerator}, or from {@link
+ * HardIntegerFormulaGenerator} for solvers without support for bitvectors. The generated formulas
+ * are unsatisfiable, their negation has a model for each assignment of the choice variables.
+ */
+final class BenchmarkWorkload {
+
+  private BenchmarkWorkload() {}
+
+  /** Generate an unsatisfiable formula with {@code 2 * pSize} choices. */
+  static BooleanFormula generate(FormulaManager pMgr, int pSize) {
+    BooleanFormulaManager bmgr = pMgr.getBooleanFormulaManager();
+    try {
+      return new HardBitvectorFormulaGenerator(pMgr.getBitvectorFormulaManager(), bmgr)
+          .generate(pSize);
+    } catch (UnsupportedOperationException e) {
+      return new HardIntegerFormulaGenerator(pMgr.getIntegerFormulaManager(), bmgr)
+          .generate(pSize);
+    }
+  }
+
+  /** Returns the boolean choice variables of a generated formula. */
+  static ImmutableList<BooleanFormula> getChoices(FormulaManager pMgr, BooleanFormula pFormula) {
+    ImmutableList.Builder<BooleanFormula> choices = ImmutableList.builder();
+    for (Formula var : pMgr.extractVariables(pFormula).values()) {
+      if (var instanceof BooleanFormula) {
+        choices.add((BooleanFormula) var);
+      }
+    }
+    return choices.build();
+  }
+}
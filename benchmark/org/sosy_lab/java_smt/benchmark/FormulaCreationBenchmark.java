@@ -0,0 +1,104 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * Measures the creation of variables and terms.
+ *
+ * <p>The allocation rate can be measured with the JMH option {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormulaCreationBenchmark {
+
+  @Param public Solvers solver;
+
+  @Param({"10", "100"})
+  public int size;
+
+  private SolverContext context;
+  private FormulaManager mgr;
+  private BooleanFormulaManager bmgr;
+  private List<BooleanFormula> operands;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    context = SolverContextFactory.createSolverContext(solver);
+    mgr = context.getFormulaManager();
+    bmgr = mgr.getBooleanFormulaManager();
+    operands = variables();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  /** Declare new variables (the names are already known to the solver after the first call). */
+  @Benchmark
+  public List<BooleanFormula> variables() {
+    List<BooleanFormula> vars = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      vars.add(bmgr.makeVariable("v" + i));
+    }
+    return vars;
+  }
+
+  /** Build n-ary conjunctions and disjunctions of existing formulas. */
+  @Benchmark
+  public BooleanFormula naryOperations() {
+    return bmgr.or(bmgr.and(operands), bmgr.and(operands.subList(1, size)), bmgr.or(operands));
+  }
+
+  /** Build an n-ary sum and a distinct constraint of integer variables. */
+  @Benchmark
+  public BooleanFormula sumAndDistinct() {
+    IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+    List<IntegerFormula> vars = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      vars.add(imgr.makeVariable("i" + i));
+    }
+    return bmgr.and(imgr.equal(imgr.sum(vars), imgr.makeNumber(size)), imgr.distinct(vars));
+  }
+
+  /** Build the complete formula of a workload, including numerals and arithmetic terms. */
+  @Benchmark
+  public BooleanFormula terms() {
+    return BenchmarkWorkload.generate(mgr, size);
+  }
+}
@@ -0,0 +1,110 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.io.CharStreams;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * Compares the solver-specific SMT-LIB dump with the solver-independent dump with sharing.
+ *
+ * <p>Besides the workload of {@link BenchmarkWorkload}, a formula is used where each level refers
+ * to the previous level twice, such that its size as tree is exponential in the depth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormulaDumpBenchmark {
+
+  @Param public Solvers solver;
+
+  @Param({"10", "20"})
+  public int size;
+
+  private SolverContext context;
+  private FormulaManager mgr;
+  private BooleanFormula formula;
+  private BooleanFormula sharedFormula;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    context = SolverContextFactory.createSolverContext(solver);
+    mgr = context.getFormulaManager();
+    formula = BenchmarkWorkload.generate(mgr, size);
+
+    BooleanFormulaManager bmgr = mgr.getBooleanFormulaManager();
+    sharedFormula = bmgr.makeVariable("x");
+    for (int i = 0; i < size; i++) {
+      BooleanFormula choice = bmgr.makeVariable("c" + i);
+      sharedFormula =
+          bmgr.and(bmgr.or(sharedFormula, choice), bmgr.or(bmgr.not(choice), sharedFormula));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void dumpFormula() throws IOException {
+    dump(formula, false);
+  }
+
+  @Benchmark
+  public void dumpFormulaWithSharing() throws IOException {
+    dump(formula, true);
+  }
+
+  @Benchmark
+  public void dumpSharedFormula() throws IOException {
+    dump(sharedFormula, false);
+  }
+
+  @Benchmark
+  public void dumpSharedFormulaWithSharing() throws IOException {
+    dump(sharedFormula, true);
+  }
+
+  /** Write the dump through a buffered writer, as it is done for files. */
+  private void dump(BooleanFormula pFormula, boolean pWithSharing) throws IOException {
+    try (Writer out = new BufferedWriter(CharStreams.nullWriter())) {
+      if (pWithSharing) {
+        mgr.dumpFormulaWithSharing(pFormula).appendTo(out);
+      } else {
+        mgr.dumpFormula(pFormula).appendTo(out);
+      }
+    }
+  }
+}
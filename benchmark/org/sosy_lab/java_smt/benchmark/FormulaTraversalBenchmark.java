@@ -0,0 +1,126 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Measures operations that traverse a complete formula: visiting, transformation, substitution,
+ * dumping and parsing, and translation into another context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormulaTraversalBenchmark {
+
+  @Param public Solvers solver;
+
+  @Param({"10", "100"})
+  public int size;
+
+  private SolverContext context;
+  private SolverContext otherContext;
+  private FormulaManager mgr;
+  private BooleanFormula formula;
+  private String dump;
+  private Map<BooleanFormula, BooleanFormula> substitution;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    context = SolverContextFactory.createSolverContext(solver);
+    otherContext = SolverContextFactory.createSolverContext(solver);
+    mgr = context.getFormulaManager();
+    formula = BenchmarkWorkload.generate(mgr, size);
+    dump = mgr.dumpFormula(formula).toString();
+
+    // negate all choice variables
+    BooleanFormulaManager bmgr = mgr.getBooleanFormulaManager();
+    ImmutableMap.Builder<BooleanFormula, BooleanFormula> builder = ImmutableMap.builder();
+    for (BooleanFormula choice : BenchmarkWorkload.getChoices(mgr, formula)) {
+      builder.put(choice, bmgr.not(choice));
+    }
+    substitution = builder.build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    otherContext.close();
+    context.close();
+  }
+
+  /** Count all nodes of the formula. */
+  @Benchmark
+  public int visitRecursively() {
+    int[] count = {0};
+    mgr.visitRecursively(
+        formula,
+        new DefaultFormulaVisitor<TraversalProcess>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            count[0]++;
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return count[0];
+  }
+
+  /** Rebuild the formula without changes. */
+  @Benchmark
+  public BooleanFormula transformRecursively() {
+    return mgr.transformRecursively(formula, new FormulaTransformationVisitor(mgr) {});
+  }
+
+  @Benchmark
+  public BooleanFormula substitute() {
+    return mgr.substitute(formula, substitution);
+  }
+
+  @Benchmark
+  public String dumpFormula() {
+    return mgr.dumpFormula(formula).toString();
+  }
+
+  @Benchmark
+  public BooleanFormula parse() {
+    return mgr.parse(dump);
+  }
+
+  @Benchmark
+  public BooleanFormula translateFrom() {
+    return otherContext.getFormulaManager().translateFrom(formula, mgr);
+  }
+}
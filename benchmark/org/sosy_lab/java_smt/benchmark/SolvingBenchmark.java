@@ -0,0 +1,139 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures solving with an incremental prover: satisfiability checks with push and pop, the
+ * enumeration of models with blocking clauses, and {@link ProverEnvironment#allSat}.
+ *
+ * <p>The satisfiable queries use the negation of the generated workload, which has a model for
+ * each of the {@code 2^size} assignments of the choice variables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolvingBenchmark {
+
+  @Param public Solvers solver;
+
+  @Param({"3", "6"})
+  public int size;
+
+  private SolverContext context;
+  private BooleanFormulaManager bmgr;
+  private ProverEnvironment prover;
+  private BooleanFormula formula;
+  private List<BooleanFormula> choices;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    context = SolverContextFactory.createSolverContext(solver);
+    FormulaManager mgr = context.getFormulaManager();
+    bmgr = mgr.getBooleanFormulaManager();
+    formula = BenchmarkWorkload.generate(mgr, size);
+    choices = BenchmarkWorkload.getChoices(mgr, formula);
+    prover =
+        context.newProverEnvironment(ProverOptions.GENERATE_MODELS, ProverOptions.GENERATE_ALL_SAT);
+  }
+
+  @TearDown
+  public void tearDown() {
+    prover.close();
+    context.close();
+  }
+
+  /** Check the (unsatisfiable) workload on top of the existing stack. */
+  @Benchmark
+  public boolean pushPopIsUnsat() throws InterruptedException, SolverException {
+    prover.push(formula);
+    try {
+      return prover.isUnsat();
+    } finally {
+      prover.pop();
+    }
+  }
+
+  /** Enumerate all models of the negated workload by blocking the values of the choices. */
+  @Benchmark
+  public int modelEnumeration() throws InterruptedException, SolverException {
+    int models = 0;
+    prover.push(bmgr.not(formula));
+    try {
+      while (!prover.isUnsat()) {
+        List<BooleanFormula> cube = new ArrayList<>(choices.size());
+        try (Model model = prover.getModel()) {
+          for (BooleanFormula choice : choices) {
+            cube.add(Boolean.TRUE.equals(model.evaluate(choice)) ? choice : bmgr.not(choice));
+          }
+        }
+        prover.addConstraint(bmgr.not(bmgr.and(cube)));
+        models++;
+      }
+    } finally {
+      prover.pop();
+    }
+    return models;
+  }
+
+  /** Enumerate all models of the negated workload, projected to the choices. */
+  @Benchmark
+  public int allSat() throws InterruptedException, SolverException {
+    prover.push(bmgr.not(formula));
+    try {
+      return prover.allSat(
+          new AllSatCallback<Integer>() {
+            private int models = 0;
+
+            @Override
+            public void apply(List<BooleanFormula> pModel) {
+              models++;
+            }
+
+            @Override
+            public Integer getResult() {
+              return models;
+            }
+          },
+          choices);
+    } finally {
+      prover.pop();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Measures the contention of read-only operations on a synchronized solver context that is shared
+ * by several threads, with and without allowing concurrent reads.
+ *
+ * <p>The number of threads can be changed with the JMH option {@code -t}, e.g., to the number of
+ * available cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SynchronizedContextBenchmark {
+
+  @Param({"SMTINTERPOL", "PRINCESS"})
+  public Solvers solver;
+
+  @Param({"true", "false"})
+  public boolean allowConcurrentReads;
+
+  @Param({"10"})
+  public int size;
+
+  private SolverContext context;
+  private FormulaManager mgr;
+  private BooleanFormula formula;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("solver.synchronize", "true")
+            .setOption(
+                "solver.synchronized.allowConcurrentReads", String.valueOf(allowConcurrentReads))
+            .build();
+    context =
+        SolverContextFactory.createSolverContext(
+            config, LogManager.createNullLogManager(), ShutdownNotifier.createDummy(), solver);
+    mgr = context.getFormulaManager();
+    formula = BenchmarkWorkload.generate(mgr, size);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  /** Count all nodes of the formula. */
+  @Benchmark
+  public int visitRecursively() {
+    int[] count = {0};
+    mgr.visitRecursively(
+        formula,
+        new DefaultFormulaVisitor<TraversalProcess>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            count[0]++;
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return count[0];
+  }
+
+  @Benchmark
+  public Map<String, Formula> extractVariables() {
+    return mgr.extractVariables(formula);
+  }
+
+  @Benchmark
+  public FormulaType<BooleanFormula> getFormulaType() {
+    return mgr.getFormulaType(formula);
+  }
+}
@@ -0,0 +1,199 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+import org.sosy_lab.java_smt.test.HardBitvectorFormulaGenerator;
+import org.sosy_lab.java_smt.test.HardIntegerFormulaGenerator;
+
+/**
+ * Compares the single-visit traversal of {@link FormulaManager#transformRecursively} with the
+ * former work-list traversal, which visits each function node twice.
+ *
+ * <p>The input is a formula from {@link HardBitvectorFormulaGenerator} (or {@link
+ * HardIntegerFormulaGenerator} for solvers without bitvectors), combined with a deep term with a
+ * lot of sharing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransformRecursivelyBenchmark {
+
+  private static final int BITVECTOR_WIDTH = 32;
+
+  @Param public Solvers solver;
+
+  @Param({"100", "1000"})
+  public int size;
+
+  private SolverContext context;
+  private FormulaManager mgr;
+  private BooleanFormula formula;
+  private FormulaTransformationVisitor identity;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    context = SolverContextFactory.createSolverContext(solver);
+    mgr = context.getFormulaManager();
+    BooleanFormulaManager bmgr = mgr.getBooleanFormulaManager();
+    try {
+      BitvectorFormulaManager bvmgr = mgr.getBitvectorFormulaManager();
+      BitvectorFormula term = bvmgr.makeVariable(BITVECTOR_WIDTH, "x");
+      for (int i = 0; i < size; i++) {
+        term =
+            bvmgr.add(bvmgr.multiply(term, bvmgr.makeVariable(BITVECTOR_WIDTH, "y" + i)), term);
+      }
+      formula =
+          bmgr.and(
+              new HardBitvectorFormulaGenerator(bvmgr, bmgr).generate(size),
+              bvmgr.equal(term, bvmgr.makeBitvector(BITVECTOR_WIDTH, 0)));
+    } catch (UnsupportedOperationException e) {
+      IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+      IntegerFormula term = imgr.makeVariable("x");
+      for (int i = 0; i < size; i++) {
+        term = imgr.add(imgr.add(term, imgr.makeVariable("y" + i)), term);
+      }
+      formula =
+          bmgr.and(
+              new HardIntegerFormulaGenerator(imgr, bmgr).generate(size),
+              imgr.equal(term, imgr.makeNumber(0)));
+    }
+    identity = new FormulaTransformationVisitor(mgr) {};
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public BooleanFormula singleVisit() {
+    return mgr.transformRecursively(formula, identity);
+  }
+
+  @Benchmark
+  public Formula workList() {
+    return transformWithWorkList(formula);
+  }
+
+  /**
+   * The former implementation of {@link FormulaManager#transformRecursively}: a function node is
+   * visited once to push its children and once more to rebuild it.
+   */
+  private Formula transformWithWorkList(Formula input) {
+    Deque<Formula> toProcess = new ArrayDeque<>();
+    Map<Formula, Formula> cache = new HashMap<>();
+    FormulaVisitor<Void> worker =
+        new FormulaVisitor<>() {
+
+          @Override
+          public Void visitFreeVariable(Formula f, String name) {
+            cache.put(f, identity.visitFreeVariable(f, name));
+            return null;
+          }
+
+          @Override
+          public Void visitBoundVariable(Formula f, int deBruijnIdx) {
+            cache.put(f, f);
+            return null;
+          }
+
+          @Override
+          public Void visitConstant(Formula f, Object value) {
+            cache.put(f, identity.visitConstant(f, value));
+            return null;
+          }
+
+          @Override
+          public Void visitFunction(
+              Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+            boolean allArgumentsTransformed = true;
+            List<Formula> newArgs = new ArrayList<>(args.size());
+            for (Formula c : args) {
+              Formula newC = cache.get(c);
+              if (newC != null) {
+                newArgs.add(newC);
+              } else {
+                toProcess.push(c);
+                allArgumentsTransformed = false;
+              }
+            }
+            if (allArgumentsTransformed) {
+              toProcess.pop();
+              cache.put(f, identity.visitFunction(f, newArgs, functionDeclaration));
+            }
+            return null;
+          }
+
+          @Override
+          public Void visitQuantifier(
+              BooleanFormula f,
+              Quantifier quantifier,
+              List<Formula> boundVariables,
+              BooleanFormula body) {
+            BooleanFormula transformedBody = (BooleanFormula) cache.get(body);
+            if (transformedBody != null) {
+              cache.put(
+                  f, identity.visitQuantifier(f, quantifier, boundVariables, transformedBody));
+            } else {
+              toProcess.push(body);
+            }
+            return null;
+          }
+        };
+
+    toProcess.push(input);
+    while (!toProcess.isEmpty()) {
+      Formula tt = toProcess.peek();
+      if (cache.containsKey(tt)) {
+        toProcess.pop();
+        continue;
+      }
+      mgr.visit(tt, worker);
+    }
+    return cache.get(input);
+  }
+}
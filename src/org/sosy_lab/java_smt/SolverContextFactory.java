@@ -20,6 +20,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -37,8 +38,10 @@ import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.basicimpl.AbstractNumeralFormulaManager.NonLinearArithmetic;
 import org.sosy_lab.java_smt.delegate.logging.LoggingSolverContext;
+import org.sosy_lab.java_smt.delegate.portfolio.PortfolioSolverContext;
 import org.sosy_lab.java_smt.delegate.statistics.StatisticsSolverContext;
 import org.sosy_lab.java_smt.delegate.synchronize.SynchronizedSolverContext;
+import org.sosy_lab.java_smt.delegate.trace.TraceSolverContext;
 import org.sosy_lab.java_smt.solvers.boolector.BoolectorSolverContext;
 import org.sosy_lab.java_smt.solvers.cvc4.CVC4SolverContext;
 import org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5SolverContext;
@@ -65,6 +68,14 @@ public class SolverContextFactory {
     YICES2
   }
 
+  /** How solver queries are exported if option {@code solver.logAllQueries} is enabled. */
+  public enum QueryLogMode {
+    /** Use the logging of the solver, e.g., Z3 dumps the whole solver stack for each query. */
+    SOLVER,
+    /** Append only the changes of the assertion stack to one SMT-LIB file per prover. */
+    STREAM
+  }
+
   @Option(secure = true, description = "Export solver queries in SmtLib format into a file.")
   private boolean logAllQueries = false;
 
@@ -78,6 +89,23 @@ public class SolverContextFactory {
       description = "If logging from the same application, avoid conflicting logfile names.")
   private boolean renameLogfileToAvoidConflicts = true;
 
+  @Option(
+      secure = true,
+      description =
+          "How to export solver queries: SOLVER uses the logging of the solver itself "
+              + "(e.g., Z3 writes the whole solver stack into a new file for each query), "
+              + "STREAM appends only the changes (push, pop, assert, check-sat) "
+              + "to one SMT-LIB file per prover and works with all solvers.")
+  private QueryLogMode logMode = QueryLogMode.SOLVER;
+
+  @Option(
+      secure = true,
+      description = "Compress the exported solver queries with gzip (only for logMode=STREAM).")
+  private boolean compressLog = false;
+
+  /** Template for the query traces, if they are written by JavaSMT instead of the solver. */
+  private @Nullable PathCounterTemplate traceLogfile = null;
+
   private static final Set<String> logfiles = new LinkedHashSet<>();
 
   @Option(secure = true, description = "Random seed for SMT solver.")
@@ -99,6 +127,13 @@ public class SolverContextFactory {
       description = "Counts all operations and interactions towards the SMT solver.")
   private boolean collectStatistics = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Solve each query in parallel with all of the given solvers and use the first answer. "
+              + "Formulas are created with the solver from option solver.solver.")
+  private List<Solvers> portfolio = ImmutableList.of();
+
   @Option(secure = true, description = "Default rounding mode for floating point operations.")
   private FloatingPointRoundingMode floatingPointRoundingMode =
       FloatingPointRoundingMode.NEAREST_TIES_TO_EVEN;
@@ -131,6 +166,11 @@ public class SolverContextFactory {
     if (logfile != null && renameLogfileToAvoidConflicts) {
       logfile = makeUniqueLogfile(logfile);
     }
+
+    if (logfile != null && logMode == QueryLogMode.STREAM) {
+      traceLogfile = logfile;
+      logfile = null;
+    }
   }
 
   /**
@@ -165,19 +205,17 @@ public class SolverContextFactory {
   @SuppressWarnings("resource") // returns unclosed context object
   public SolverContext generateContext(Solvers solverToCreate)
       throws InvalidConfigurationException {
-    SolverContext context;
-    try {
-      context = generateContext0(solverToCreate);
-    } catch (UnsatisfiedLinkError | NoClassDefFoundError e) {
-      throw new InvalidConfigurationException(
-          String.format(
-              "The SMT solver %s is not available on this machine because of missing libraries "
-                  + "(%s). "
-                  + "You may experiment with SMTInterpol by setting solver.solver=SMTInterpol.",
-              solverToCreate, e.getMessage()),
-          e);
+    SolverContext context = generateContext(solverToCreate, shutdownNotifier);
+
+    if (traceLogfile != null) {
+      context = new TraceSolverContext(logger, context, traceLogfile, compressLog);
     }
 
+    if (!portfolio.isEmpty()) {
+      context =
+          new PortfolioSolverContext(
+              logger, shutdownNotifier, context, portfolio, this::generateContext);
+    }
     if (useLogger) {
       context = new LoggingSolverContext(logger, context);
     }
@@ -191,26 +229,43 @@ public class SolverContextFactory {
     return context;
   }
 
-  private SolverContext generateContext0(Solvers solverToCreate)
+  private SolverContext generateContext(
+      Solvers solverToCreate, ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    try {
+      return generateContext0(solverToCreate, pShutdownNotifier);
+    } catch (UnsatisfiedLinkError | NoClassDefFoundError e) {
+      throw new InvalidConfigurationException(
+          String.format(
+              "The SMT solver %s is not available on this machine because of missing libraries "
+                  + "(%s). "
+                  + "You may experiment with SMTInterpol by setting solver.solver=SMTInterpol.",
+              solverToCreate, e.getMessage()),
+          e);
+    }
+  }
+
+  private SolverContext generateContext0(
+      Solvers solverToCreate, ShutdownNotifier pShutdownNotifier)
       throws InvalidConfigurationException {
     switch (solverToCreate) {
       case CVC4:
         return CVC4SolverContext.create(
             logger,
-            shutdownNotifier,
+            pShutdownNotifier,
             (int) randomSeed,
             nonLinearArithmetic,
             floatingPointRoundingMode);
 
       case SMTINTERPOL:
         return SmtInterpolSolverContext.create(
-            config, logger, shutdownNotifier, logfile, randomSeed, nonLinearArithmetic);
+            config, logger, pShutdownNotifier, logfile, randomSeed, nonLinearArithmetic);
 
       case MATHSAT5:
         return Mathsat5SolverContext.create(
             logger,
             config,
-            shutdownNotifier,
+            pShutdownNotifier,
             logfile,
             randomSeed,
             floatingPointRoundingMode,
@@ -224,7 +279,7 @@ public class SolverContextFactory {
             .generateSolverContext(
                 config,
                 logger,
-                shutdownNotifier,
+                pShutdownNotifier,
                 logfile,
                 randomSeed,
                 floatingPointRoundingMode,
@@ -232,13 +287,13 @@ public class SolverContextFactory {
 
       case PRINCESS:
         return PrincessSolverContext.create(
-            config, shutdownNotifier, logfile, (int) randomSeed, nonLinearArithmetic);
+            config, logger, pShutdownNotifier, logfile, (int) randomSeed, nonLinearArithmetic);
 
       case YICES2:
-        return Yices2SolverContext.create(nonLinearArithmetic, shutdownNotifier);
+        return Yices2SolverContext.create(nonLinearArithmetic, pShutdownNotifier);
 
       case BOOLECTOR:
-        return BoolectorSolverContext.create(config, shutdownNotifier, logfile, (int) randomSeed);
+        return BoolectorSolverContext.create(config, pShutdownNotifier, logfile, (int) randomSeed);
 
       default:
         throw new AssertionError("no solver selected");
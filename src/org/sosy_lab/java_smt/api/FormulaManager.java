@@ -8,10 +8,20 @@
 
 package org.sosy_lab.java_smt.api;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationCache;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
@@ -117,6 +127,50 @@ public interface FormulaManager {
    */
   BooleanFormula parse(String s) throws IllegalArgumentException;
 
+  /**
+   * Parse all assertions of an SMT-LIB script that is read incrementally from the given input.
+   *
+   * <p>In contrast to {@link #parse(String)}, the script may contain any number of assertions and
+   * does not need to be kept in memory as a whole. Declarations and definitions are processed when
+   * they are read, and each assertion is given to the consumer directly after it is parsed. Other
+   * commands (e.g., set-logic, push, pop, check-sat) are ignored.
+   *
+   * <p>The default implementation splits the script into single assertions and hands each of them,
+   * together with the declarations it depends on, to {@link #parse(String)}. Thus each call to the
+   * native parser of the solver only sees a small part of the script.
+   *
+   * @param pInput the SMT-LIB script, which is not closed by this method.
+   * @param pAssertions receives the assertions of the script in their order of appearance.
+   * @throws IOException If reading from the input fails.
+   * @throws IllegalArgumentException If the script cannot be parsed.
+   */
+  default void parse(Reader pInput, Consumer<BooleanFormula> pAssertions)
+      throws IOException, IllegalArgumentException {
+    checkNotNull(pAssertions);
+    SmtLibScriptReader script = new SmtLibScriptReader(pInput);
+    for (String assertion = script.nextAssertion();
+        assertion != null;
+        assertion = script.nextAssertion()) {
+      pAssertions.accept(parse(assertion));
+    }
+  }
+
+  /**
+   * Parse all assertions of an SMT-LIB file. The file is read incrementally, see {@link
+   * #parse(Reader, Consumer)}.
+   *
+   * @return The assertions of the file in their order of appearance.
+   * @throws IOException If reading the file fails.
+   * @throws IllegalArgumentException If the file cannot be parsed.
+   */
+  default List<BooleanFormula> parse(Path pFile) throws IOException, IllegalArgumentException {
+    ImmutableList.Builder<BooleanFormula> assertions = ImmutableList.builder();
+    try (Reader input = Files.newBufferedReader(pFile, StandardCharsets.UTF_8)) {
+      parse(input, assertions::add);
+    }
+    return assertions.build();
+  }
+
   /**
    * Serialize an input formula to an SMT-LIB format. Very useful when passing formulas between
    * different solvers.
@@ -128,6 +182,24 @@ public interface FormulaManager {
    */
   Appender dumpFormula(BooleanFormula pT);
 
+  /**
+   * Serialize an input formula to SMT-LIB independently of the solver, such that every solver
+   * produces the same output for the same formula structure.
+   *
+   * <p>Every compound subterm that occurs several times is defined only once with define-fun and
+   * referenced by name, thus the output is linear in the number of distinct subterms even for
+   * formulas with heavy sharing. The returned object writes directly into the target of {@link
+   * Appender#appendTo(Appendable)}, e.g., a buffered {@link java.io.Writer} for a file, without
+   * creating the complete output string first.
+   *
+   * <p>If the formula contains operators without a solver-independent representation (e.g.,
+   * quantifiers or floating-point arithmetic with rounding modes), the output of {@link
+   * #dumpFormula(BooleanFormula)} is used instead.
+   *
+   * @return SMT-LIB formula serialization.
+   */
+  Appender dumpFormulaWithSharing(BooleanFormula pT);
+
   /**
    * Apply a tactic which performs formula transformation. The available tactics depend on the used
    * solver.
@@ -172,6 +244,21 @@ public interface FormulaManager {
    */
   <T extends Formula> T transformRecursively(T f, FormulaTransformationVisitor pFormulaVisitor);
 
+  /**
+   * Visit the formula recursively with a given {@link FormulaVisitor}, like {@link
+   * #transformRecursively(Formula, FormulaTransformationVisitor)}, and reuse the results of former
+   * transformations with the same visitor instance.
+   *
+   * <p>This is useful when applying the same transformation to many formulas that share large
+   * subterms. The visitor must be deterministic, i.e., it must return equal results for equal
+   * inputs in every call.
+   *
+   * @param pFormulaVisitor Transformation described by the user.
+   * @param pCache Cache that stores results across several calls.
+   */
+  <T extends Formula> T transformRecursively(
+      T f, FormulaTransformationVisitor pFormulaVisitor, FormulaTransformationCache pCache);
+
   /**
    * Extract the names of all free variables and UFs in a formula.
    *
@@ -203,11 +290,30 @@ public interface FormulaManager {
    */
   <T extends Formula> T substitute(T f, Map<? extends Formula, ? extends Formula> fromToMapping);
 
+  /**
+   * Substitute every occurrence of any item from {@code changeFrom} in formula {@code f} to the
+   * corresponding occurrence from {@code changeTo}, like {@link #substitute(Formula, Map)}, and
+   * reuse the results of former substitutions with the same mapping instance.
+   *
+   * <p>The mapping must not be modified between calls that use the same cache.
+   *
+   * @param f Formula to change.
+   * @param fromToMapping Mapping of old and new formula parts.
+   * @param pCache Cache that stores results across several calls.
+   * @return Formula with parts replaced.
+   */
+  <T extends Formula> T substitute(
+      T f,
+      Map<? extends Formula, ? extends Formula> fromToMapping,
+      FormulaTransformationCache pCache);
+
   /**
    * Translates the formula from another context into the context represented by {@code this}.
-   * Default implementation relies on string serialization ({@link #dumpFormula(BooleanFormula)} and
-   * {@link #parse(String)}), but each solver may implement more efficient translation between its
-   * own contexts.
+   * Default implementation rebuilds the formula structurally in this context, sharing common
+   * subterms. Only if the formula contains operators without a solver-independent representation,
+   * it falls back to string serialization ({@link #dumpFormula(BooleanFormula)} and {@link
+   * #parse(String)}). Each solver may implement more efficient translation between its own
+   * contexts.
    *
    * @param formula Formula belonging to {@code otherContext}.
    * @param otherContext Formula manager belonging to the other context.
@@ -215,6 +321,20 @@ public interface FormulaManager {
    */
   BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherContext);
 
+  /**
+   * Translates a term of any type from another context into the context represented by {@code
+   * this}. Boolean formulas are translated with {@link #translateFrom(BooleanFormula,
+   * FormulaManager)}. Other terms are rebuilt structurally, there is no fallback to string
+   * serialization for them.
+   *
+   * @param formula Formula belonging to {@code otherContext}.
+   * @param otherContext Formula manager belonging to the other context.
+   * @return Formula of the same type belonging to {@code this} context.
+   * @throws IllegalArgumentException if the term contains operators without a solver-independent
+   *     representation.
+   */
+  <T extends Formula> T translateTermFrom(T formula, FormulaManager otherContext);
+
   /**
    * Check whether the given String can be used as symbol/name for variables or undefined functions.
    *
@@ -11,6 +11,7 @@ package org.sosy_lab.java_smt.api;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -42,6 +43,30 @@ public interface InterpolatingProverEnvironment<T> extends BasicProverEnvironmen
   BooleanFormula getInterpolant(Collection<T> formulasOfA)
       throws SolverException, InterruptedException;
 
+  /**
+   * Get an interpolant for each of the given groups A, each against all remaining formulas as group
+   * B. This should be called only immediately after an {@link #isUnsat()} call that returned
+   * <code>true</code>.
+   *
+   * <p>Depending on the underlying SMT-solver this method might be faster than a call to {@link
+   * #getInterpolant} for each group, because all interpolants are derived from one proof. Solvers
+   * benefit most if the groups are nested, i.e., each group contains the previous one, as for the
+   * prefixes of a path.
+   *
+   * @param groupsOfA A list of collections of values returned by {@link #push(BooleanFormula)}.
+   * @return An interpolant for each group, in the same order.
+   * @throws SolverException if interpolant cannot be computed, for example because interpolation
+   *     procedure is incomplete
+   */
+  default List<BooleanFormula> getInterpolants(List<? extends Collection<T>> groupsOfA)
+      throws SolverException, InterruptedException {
+    List<BooleanFormula> itps = new ArrayList<>(groupsOfA.size());
+    for (Collection<T> formulasOfA : groupsOfA) {
+      itps.add(getInterpolant(formulasOfA));
+    }
+    return itps;
+  }
+
   /**
    * This method returns interpolants of an 'inductive sequence'. This property must be supported by
    * the interpolation-strategy of the underlying SMT-solver! Depending on the underlying SMT-solver
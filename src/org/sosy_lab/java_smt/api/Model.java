@@ -11,10 +11,14 @@ package org.sosy_lab.java_smt.api;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
@@ -90,6 +94,25 @@ public interface Model extends Iterable<ValueAssignment>, AutoCloseable {
   @Nullable
   BigInteger evaluate(BitvectorFormula f);
 
+  /**
+   * Evaluate several formulas at once, see {@link #evaluate(Formula)}. Formulas that occur
+   * several times are evaluated only once.
+   *
+   * @param formulas Input formulas, no arrays.
+   * @return a map from each formula that has a value in the model to this value. Formulas without
+   *     evaluation are missing in the map.
+   */
+  default ImmutableMap<Formula, Object> evaluate(Collection<? extends Formula> formulas) {
+    ImmutableMap.Builder<Formula, Object> values = ImmutableMap.builder();
+    for (Formula f : new LinkedHashSet<>(formulas)) {
+      Object value = evaluate(f);
+      if (value != null) {
+        values.put(f, value);
+      }
+    }
+    return values.build();
+  }
+
   /**
    * Iterate over all values present in the model. Note that iterating multiple times may be
    * inefficient for some solvers, it is recommended to use {@link
@@ -103,6 +126,20 @@ public interface Model extends Iterable<ValueAssignment>, AutoCloseable {
   /** Build a list of assignments that stays valid after closing the model. */
   ImmutableList<ValueAssignment> asList();
 
+  /**
+   * Iterate over the assignments of all symbols whose name is accepted by the given filter, e.g.,
+   * {@code name -> name.startsWith("x@")}. For variables this is the variable name, for UFs and
+   * arrays the name of the function or array (see {@link ValueAssignment#getName()}).
+   *
+   * <p>Solvers may build the assignments lazily during iteration, and only for symbols whose name
+   * matches. This is much cheaper than {@link #asList()} if only a few symbols of a large model are
+   * of interest. The returned iterable must not be used after closing the model.
+   */
+  default Iterable<ValueAssignment> assignments(Predicate<? super String> nameFilter) {
+    Preconditions.checkNotNull(nameFilter);
+    return Iterables.filter(asList(), assignment -> nameFilter.test(assignment.getName()));
+  }
+
   /** Pretty-printing of the model values. */
   @Override
   String toString();
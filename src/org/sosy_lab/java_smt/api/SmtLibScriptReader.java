@@ -0,0 +1,289 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.api;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Reader that splits an SMT-LIB script into single assertions without loading the whole script into
+ * memory.
+ *
+ * <p>The input is consumed command by command. Declarations and definitions are recorded, and each
+ * assertion is returned as a small self-contained script that contains the assertion and only the
+ * declarations and definitions it (transitively) depends on. Thus the native parser of a solver
+ * only sees a small part of the script per call. All other commands (e.g., set-logic, push, pop,
+ * check-sat) are ignored, such that all assertions of the script are returned.
+ */
+final class SmtLibScriptReader {
+
+  private static final int EOF = -1;
+
+  /** Commands that declare or define the symbol given as their first argument. */
+  private static final ImmutableList<String> SYMBOL_DECLARATIONS =
+      ImmutableList.of(
+          "declare-fun",
+          "declare-const",
+          "define-fun",
+          "define-fun-rec",
+          "define-const",
+          "declare-sort",
+          "define-sort");
+
+  /** Commands that declare several symbols, which we do not analyze further. */
+  private static final ImmutableList<String> GLOBAL_DECLARATIONS =
+      ImmutableList.of("declare-datatype", "declare-datatypes", "define-funs-rec");
+
+  private final Reader input;
+
+  /** The latest declaration or definition of each symbol. */
+  private final Map<String, Declaration> declarations = new HashMap<>();
+
+  /** Declarations that are added to every assertion. */
+  private final List<Declaration> globalDeclarations = new ArrayList<>();
+
+  private int nextDeclarationIndex = 0;
+
+  /** A character that was read ahead, or {@link #EOF} if there is none. */
+  private int lookahead = EOF;
+
+  SmtLibScriptReader(Reader pInput) {
+    checkNotNull(pInput);
+    input = pInput instanceof BufferedReader ? pInput : new BufferedReader(pInput);
+  }
+
+  /**
+   * Read the script up to the next assertion.
+   *
+   * @return the next assertion together with its declarations, or null if the end of the input is
+   *     reached.
+   * @throws IllegalArgumentException if the input is not a well-formed SMT-LIB script.
+   */
+  @Nullable String nextAssertion() throws IOException {
+    for (Command command = readCommand(); command != null; command = readCommand()) {
+      checkArgument(!command.symbols.isEmpty(), "command without name: %s", command.text);
+      String name = command.symbols.get(0);
+      if (name.equals("assert")) {
+        return withDeclarations(command);
+      } else if (SYMBOL_DECLARATIONS.contains(name)) {
+        checkArgument(command.symbols.size() > 1, "declaration without symbol: %s", command.text);
+        List<String> dependencies = command.symbols.subList(2, command.symbols.size());
+        declarations.put(
+            command.symbols.get(1),
+            new Declaration(nextDeclarationIndex++, command.text, dependencies));
+      } else if (GLOBAL_DECLARATIONS.contains(name)) {
+        globalDeclarations.add(
+            new Declaration(nextDeclarationIndex++, command.text, ImmutableList.of()));
+      } else if (name.equals("reset")) {
+        declarations.clear();
+        globalDeclarations.clear();
+      }
+      // all other commands do not influence the assertions
+    }
+    return null;
+  }
+
+  /** Collect the declarations the assertion depends on and put them in front of the assertion. */
+  private String withDeclarations(Command pAssertion) {
+    List<Declaration> needed = new ArrayList<>(globalDeclarations);
+    Set<String> visited = new HashSet<>();
+    Deque<String> waitlist = new ArrayDeque<>(pAssertion.symbols);
+    while (!waitlist.isEmpty()) {
+      String symbol = waitlist.pop();
+      if (visited.add(symbol)) {
+        Declaration declaration = declarations.get(symbol);
+        if (declaration != null) {
+          needed.add(declaration);
+          waitlist.addAll(declaration.dependencies);
+        }
+      }
+    }
+    needed.sort(Comparator.comparingInt(d -> d.index));
+
+    StringBuilder script = new StringBuilder();
+    for (Declaration declaration : needed) {
+      script.append(declaration.text).append('\n');
+    }
+    return script.append(pAssertion.text).toString();
+  }
+
+  /**
+   * Read the next top-level command.
+   *
+   * @return the command, or null if only whitespace and comments are left in the input.
+   */
+  private @Nullable Command readCommand() throws IOException {
+    int c = skipWhitespaceAndComments();
+    if (c == EOF) {
+      return null;
+    }
+    checkArgument(c == '(', "expected '(' at the start of a command, found '%s'", (char) c);
+
+    StringBuilder text = new StringBuilder().append('(');
+    List<String> symbols = new ArrayList<>();
+    int depth = 1;
+    while (depth > 0) {
+      c = read();
+      switch (c) {
+        case EOF:
+          throw new IllegalArgumentException("unexpected end of input in command: " + text);
+        case '(':
+          depth++;
+          text.append('(');
+          break;
+        case ')':
+          depth--;
+          text.append(')');
+          break;
+        case ';':
+          skipLine();
+          text.append('\n');
+          break;
+        case '"':
+          readStringLiteral(text);
+          break;
+        case '|':
+          symbols.add(readQuotedSymbol(text));
+          break;
+        default:
+          if (Character.isWhitespace(c)) {
+            text.append((char) c);
+          } else {
+            String token = readToken(c);
+            text.append(token);
+            if (isSymbol(token)) {
+              symbols.add(token);
+            }
+          }
+      }
+    }
+    return new Command(text.toString(), symbols);
+  }
+
+  private int skipWhitespaceAndComments() throws IOException {
+    int c = read();
+    while (c != EOF) {
+      if (c == ';') {
+        skipLine();
+      } else if (!Character.isWhitespace(c)) {
+        return c;
+      }
+      c = read();
+    }
+    return EOF;
+  }
+
+  private void skipLine() throws IOException {
+    int c = read();
+    while (c != EOF && c != '\n' && c != '\r') {
+      c = read();
+    }
+  }
+
+  /** Copy a string literal, where two double quotes represent an escaped double quote. */
+  private void readStringLiteral(StringBuilder pText) throws IOException {
+    pText.append('"');
+    while (true) {
+      int c = read();
+      checkArgument(c != EOF, "unterminated string literal: %s", pText);
+      pText.append((char) c);
+      if (c == '"') {
+        int next = read();
+        if (next != '"') {
+          lookahead = next;
+          return;
+        }
+        pText.append('"');
+      }
+    }
+  }
+
+  /** Copy a symbol of the form |...| and return its name without the bars. */
+  private String readQuotedSymbol(StringBuilder pText) throws IOException {
+    StringBuilder symbol = new StringBuilder();
+    int c = read();
+    while (c != '|') {
+      checkArgument(c != EOF, "unterminated quoted symbol: |%s", symbol);
+      symbol.append((char) c);
+      c = read();
+    }
+    pText.append('|').append(symbol).append('|');
+    return symbol.toString();
+  }
+
+  /** Read a simple symbol, keyword, or literal that starts with the given character. */
+  private String readToken(int pFirst) throws IOException {
+    StringBuilder token = new StringBuilder().append((char) pFirst);
+    int c = read();
+    while (c != EOF && !isDelimiter(c)) {
+      token.append((char) c);
+      c = read();
+    }
+    lookahead = c;
+    return token.toString();
+  }
+
+  private static boolean isDelimiter(int c) {
+    return Character.isWhitespace(c) || c == '(' || c == ')' || c == ';' || c == '"' || c == '|';
+  }
+
+  /** Keywords (":named"), numerals, decimals, and bitvector literals ("#b01") are no symbols. */
+  private static boolean isSymbol(String pToken) {
+    char first = pToken.charAt(0);
+    return first != ':' && first != '#' && !Character.isDigit(first);
+  }
+
+  private int read() throws IOException {
+    if (lookahead != EOF) {
+      int c = lookahead;
+      lookahead = EOF;
+      return c;
+    }
+    return input.read();
+  }
+
+  private static final class Command {
+    private final String text;
+
+    /** All symbols that appear in the command, starting with the name of the command. */
+    private final List<String> symbols;
+
+    private Command(String pText, List<String> pSymbols) {
+      text = pText;
+      symbols = pSymbols;
+    }
+  }
+
+  private static final class Declaration {
+    private final int index;
+    private final String text;
+    private final ImmutableList<String> dependencies;
+
+    private Declaration(int pIndex, String pText, List<String> pDependencies) {
+      index = pIndex;
+      text = pText;
+      dependencies = ImmutableList.copyOf(pDependencies);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.api;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SmtLibScriptReaderTest {
+
+  private static List<String> readAssertions(String pScript) throws IOException {
+    SmtLibScriptReader reader = new SmtLibScriptReader(new StringReader(pScript));
+    List<String> assertions = new ArrayList<>();
+    for (String assertion = reader.nextAssertion();
+        assertion != null;
+        assertion = reader.nextAssertion()) {
+      assertions.add(assertion);
+    }
+    return assertions;
+  }
+
+  @Test
+  public void testOnlyNeededDeclarations() throws IOException {
+    assertThat(
+            readAssertions(
+                "(set-logic QF_LIA)\n"
+                    + "(declare-fun a () Int)\n"
+                    + "(declare-fun b () Int)\n"
+                    + "(define-fun c () Int (+ a 1))\n"
+                    + "(assert (> c 0))\n"
+                    + "(push 1)\n"
+                    + "(assert (= b 2))\n"
+                    + "(check-sat)\n"
+                    + "(exit)\n"))
+        .containsExactly(
+            "(declare-fun a () Int)\n(define-fun c () Int (+ a 1))\n(assert (> c 0))",
+            "(declare-fun b () Int)\n(assert (= b 2))")
+        .inOrder();
+  }
+
+  @Test
+  public void testCommentsStringsAndQuotedSymbols() throws IOException {
+    assertThat(
+            readAssertions(
+                "; a comment with (parentheses\n"
+                    + "(set-info :source \"text with \"\" and ) and |\")\n"
+                    + "(declare-fun |x y| () Bool)\n"
+                    + "(assert (! |x y| :named a1)) ; trailing comment\n"))
+        .containsExactly("(declare-fun |x y| () Bool)\n(assert (! |x y| :named a1))");
+  }
+
+  @Test
+  public void testRedeclaration() throws IOException {
+    assertThat(
+            readAssertions(
+                "(declare-fun a () Int)\n"
+                    + "(assert (= a 1))\n"
+                    + "(reset)\n"
+                    + "(declare-fun a () Bool)\n"
+                    + "(assert a)"))
+        .containsExactly(
+            "(declare-fun a () Int)\n(assert (= a 1))", "(declare-fun a () Bool)\n(assert a)")
+        .inOrder();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnterminatedCommand() throws IOException {
+    readAssertions("(declare-fun a () Bool)\n(assert (and a a)");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingParenthesis() throws IOException {
+    readAssertions("assert true");
+  }
+}
@@ -32,7 +32,8 @@ public enum Tactic {
    * size explosion. The resulting formula is not <i>equivalent</i> but only <i>equisatisfiable</i>
    * to the original one.
    *
-   * <p>NB: currently this tactic does not have a default implementation.
+   * <p>Solvers without a native implementation use a generic Tseitin transformation, which keeps
+   * theory atoms as they are.
    */
   TSEITIN_CNF,
 
@@ -0,0 +1,134 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.api.visitors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+
+/**
+ * Cache for the results of recursive formula transformations that is kept across several calls of
+ * {@link FormulaManager#transformRecursively(Formula, FormulaTransformationVisitor,
+ * FormulaTransformationCache)} and {@link FormulaManager#substitute(Formula, java.util.Map,
+ * FormulaTransformationCache)}.
+ *
+ * <p>Results are stored per transformation, i.e., per visitor instance for {@code
+ * transformRecursively} and per mapping instance for {@code substitute}. Transformations are
+ * identified by reference, and are only weakly referenced, such that results of unused
+ * transformations can be garbage collected. For each transformation at most a bounded number of
+ * results is stored, the least recently used results are evicted first.
+ *
+ * <p>Reusing results is only valid if the transformation is deterministic and does not depend on
+ * state that changes between the calls. A cache instance must only be used with formulas from a
+ * single {@link FormulaManager}.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class FormulaTransformationCache {
+
+  /** Default maximal number of results stored for each transformation. */
+  public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+  private final long maximumSize;
+
+  /** Transformation (by identity, weakly referenced) to the results of the transformation. */
+  private final ConcurrentMap<Object, Cache<Formula, Formula>> results =
+      CacheBuilder.newBuilder().weakKeys().<Object, Cache<Formula, Formula>>build().asMap();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public FormulaTransformationCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param pMaximumSize maximal number of results stored for each transformation.
+   */
+  public FormulaTransformationCache(long pMaximumSize) {
+    checkArgument(pMaximumSize > 0, "cache size must be positive");
+    maximumSize = pMaximumSize;
+  }
+
+  /**
+   * Get the result of a former transformation, or {@code null} if there is none.
+   *
+   * <p>This method is intended to be called by implementations of the recursive transformation.
+   *
+   * @param pTransformation the transformation, e.g., the visitor that was applied.
+   * @param pInput the untransformed formula.
+   */
+  public @Nullable Formula get(Object pTransformation, Formula pInput) {
+    Cache<Formula, Formula> cache = results.get(checkNotNull(pTransformation));
+    Formula result = cache == null ? null : cache.getIfPresent(checkNotNull(pInput));
+    if (result == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return result;
+  }
+
+  /**
+   * Store the result of a transformation.
+   *
+   * <p>This method is intended to be called by implementations of the recursive transformation.
+   *
+   * @param pTransformation the transformation, e.g., the visitor that was applied.
+   * @param pInput the untransformed formula.
+   * @param pOutput the transformed formula.
+   */
+  public void put(Object pTransformation, Formula pInput, Formula pOutput) {
+    results
+        .computeIfAbsent(
+            checkNotNull(pTransformation),
+            k -> CacheBuilder.newBuilder().maximumSize(maximumSize).build())
+        .put(checkNotNull(pInput), checkNotNull(pOutput));
+  }
+
+  /** Number of lookups that returned a stored result. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** Number of lookups that did not find a stored result. */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** Number of results that are currently stored, summed over all transformations. */
+  public long size() {
+    long size = 0;
+    for (Cache<Formula, Formula> cache : results.values()) {
+      size += cache.size();
+    }
+    return size;
+  }
+
+  /** Remove all stored results. The hit and miss counters are not reset. */
+  public void invalidateAll() {
+    results.clear();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "FormulaTransformationCache (size: %d, hits: %d, misses: %d)",
+        size(), getHitCount(), getMissCount());
+  }
+}
@@ -16,6 +16,7 @@ import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
@@ -112,37 +113,55 @@ public abstract class AbstractBooleanFormulaManager<TFormulaInfo, TType, TEnv, T
         Iterator<BooleanFormula> it = pBits.iterator();
         return and(it.next(), it.next());
       default:
-        return wrap(andImpl(Collections2.transform(pBits, this::extractInfo)));
+        return wrap(andFormulas(pBits));
     }
   }
 
+  /**
+   * Create an n-ary conjunction of formulas. The default implementation unwraps the formulas and
+   * delegates to {@link #andImpl(Collection)}. Solvers that store primitive handles in their
+   * formulas can override this method to avoid boxing each operand.
+   *
+   * @param pBits A collection of at least 3 operands.
+   */
+  protected TFormulaInfo andFormulas(Collection<BooleanFormula> pBits) {
+    return andImpl(Collections2.transform(pBits, this::extractInfo));
+  }
+
   @Override
   public BooleanFormula and(BooleanFormula... pBits) {
     return and(Arrays.asList(pBits));
   }
 
   /**
-   * Create an n-ary conjunction. The default implementation delegates to {@link #and(Object,
-   * Object)} and assumes that all simplifications are done by that method. This method can be
-   * overridden, in which case it should filter out irrelevant operands.
+   * Create an n-ary conjunction. The default implementation filters out irrelevant operands and
+   * builds a balanced tree of {@link #and(Object, Object)}, such that the depth of the term grows
+   * only logarithmically with the number of operands. This method can be overridden, e.g., for
+   * solvers with a native n-ary conjunction, and should then also filter out irrelevant operands.
    *
    * @param pParams A collection of at least 3 operands.
    * @return A term that is equivalent to a conjunction of pParams.
    */
   protected TFormulaInfo andImpl(Collection<TFormulaInfo> pParams) {
-    TFormulaInfo result = makeBooleanImpl(true);
+    List<TFormulaInfo> operands = new ArrayList<>(pParams.size());
     for (TFormulaInfo formula : pParams) {
       if (isFalse(formula)) {
         return formula;
       }
-      result = and(result, formula);
+      if (!isTrue(formula)) {
+        operands.add(formula);
+      }
+    }
+    if (operands.isEmpty()) {
+      return makeBooleanImpl(true);
     }
-    return result;
+    return BalancedReduction.reduce(operands, this::and);
   }
 
   @Override
   public Collector<BooleanFormula, ?, BooleanFormula> toConjunction() {
-    return Collectors.reducing(makeTrue(), this::and);
+    // collect all operands first, such that the result equals the one of and(Collection).
+    return Collectors.collectingAndThen(Collectors.toList(), this::and);
   }
 
   @Override
@@ -179,32 +198,44 @@ public abstract class AbstractBooleanFormulaManager<TFormulaInfo, TType, TEnv, T
         Iterator<BooleanFormula> it = pBits.iterator();
         return or(it.next(), it.next());
       default:
-        return wrap(orImpl(Collections2.transform(pBits, this::extractInfo)));
+        return wrap(orFormulas(pBits));
     }
   }
 
   /**
-   * Create an n-ary disjunction. The default implementation delegates to {@link #or(Object,
-   * Object)} and assumes that all simplifications are done by that method. This method can be
-   * overridden, in which case it should filter out irrelevant operands.
+   * Create an n-ary disjunction of formulas, analogous to {@link #andFormulas(Collection)}.
+   *
+   * @param pBits A collection of at least 3 operands.
+   */
+  protected TFormulaInfo orFormulas(Collection<BooleanFormula> pBits) {
+    return orImpl(Collections2.transform(pBits, this::extractInfo));
+  }
+
+  /**
+   * Create an n-ary disjunction, analogous to {@link #andImpl(Collection)}.
    *
    * @param pParams A collection of at least 3 operands.
    * @return A term that is equivalent to a disjunction of pParams.
    */
   protected TFormulaInfo orImpl(Collection<TFormulaInfo> pParams) {
-    TFormulaInfo result = makeBooleanImpl(false);
+    List<TFormulaInfo> operands = new ArrayList<>(pParams.size());
     for (TFormulaInfo formula : pParams) {
       if (isTrue(formula)) {
         return formula;
       }
-      result = or(result, formula);
+      if (!isFalse(formula)) {
+        operands.add(formula);
+      }
+    }
+    if (operands.isEmpty()) {
+      return makeBooleanImpl(false);
     }
-    return result;
+    return BalancedReduction.reduce(operands, this::or);
   }
 
   @Override
   public Collector<BooleanFormula, ?, BooleanFormula> toDisjunction() {
-    return Collectors.reducing(makeFalse(), this::or);
+    return Collectors.collectingAndThen(Collectors.toList(), this::or);
   }
 
   protected abstract TFormulaInfo xor(TFormulaInfo pParam1, TFormulaInfo pParam2);
@@ -17,12 +17,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Appender;
+import org.sosy_lab.common.Appenders;
 import org.sosy_lab.java_smt.api.ArrayFormulaManager;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormulaManager;
@@ -37,10 +39,13 @@ import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.RationalFormulaManager;
 import org.sosy_lab.java_smt.api.SLFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationCache;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+import org.sosy_lab.java_smt.basicimpl.tactics.LightQuantifierEliminationVisitor;
 import org.sosy_lab.java_smt.basicimpl.tactics.NNFVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.TseitinCNFConverter;
 import org.sosy_lab.java_smt.utils.SolverUtils;
 
 /**
@@ -237,6 +242,23 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return dumpFormula(formulaCreator.extractInfo(t));
   }
 
+  @Override
+  public Appender dumpFormulaWithSharing(BooleanFormula pT) {
+    checkNotNull(pT);
+    return new Appenders.AbstractAppender() {
+      @Override
+      public void appendTo(Appendable out) throws IOException {
+        try {
+          SmtLibDagPrinter.print(AbstractFormulaManager.this, pT).appendTo(out);
+        } catch (SmtLibDagPrinter.UnsupportedDumpException e) {
+          // The formula contains operators without a solver-independent representation,
+          // thus we fall back to the solver-specific serialization. Nothing was written yet.
+          dumpFormula(pT).appendTo(out);
+        }
+      }
+    };
+  }
+
   @Override
   public final <T extends Formula> FormulaType<T> getFormulaType(T formula) {
     return formulaCreator.getFormulaType(checkNotNull(formula));
@@ -285,23 +307,20 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
    * @throws InterruptedException Can be thrown by the native code.
    */
   protected BooleanFormula applyQELightImpl(BooleanFormula pF) throws InterruptedException {
-
-    // Returning the untouched formula is valid according to QE_LIGHT contract.
-    // TODO: substitution-based implementation.
-    return pF;
+    return transformRecursively(pF, new LightQuantifierEliminationVisitor(this));
   }
 
   /**
    * Apply conjunctive normal form (CNF) transformation to the given input formula.
    *
+   * <p>The default implementation is a generic Tseitin transformation with polarity reduction, see
+   * {@link TseitinCNFConverter}.
+   *
    * @param pF Input to apply the CNF transformation to.
    * @throws InterruptedException Can be thrown by the native code.
    */
   protected BooleanFormula applyCNFImpl(BooleanFormula pF) throws InterruptedException {
-
-    // TODO: generic implementation.
-    throw new UnsupportedOperationException(
-        "Currently there is no generic implementation for CNF conversion");
+    return new TseitinCNFConverter(this, true).toCNF(pF);
   }
 
   /**
@@ -345,6 +364,12 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return formulaCreator.transformRecursively(pFormulaVisitor, f);
   }
 
+  @Override
+  public <T extends Formula> T transformRecursively(
+      T f, FormulaTransformationVisitor pFormulaVisitor, FormulaTransformationCache pCache) {
+    return formulaCreator.transformRecursively(pFormulaVisitor, f, pCache, pFormulaVisitor);
+  }
+
   /**
    * Extract names of all free variables in a formula.
    *
@@ -376,7 +401,28 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     if (this == otherContext) {
       return formula; // shortcut
     }
-    return parse(otherContext.dumpFormula(formula).toString());
+    try {
+      return new FormulaTranslator(otherContext, this).translate(formula);
+    } catch (FormulaTranslator.UnsupportedTranslationException e) {
+      // The formula contains operators without a solver-independent representation,
+      // thus we fall back to the (expensive) serialization into SMT-LIB2.
+      return parse(otherContext.dumpFormula(formula).toString());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T extends Formula> T translateTermFrom(T formula, FormulaManager otherContext) {
+    if (formula instanceof BooleanFormula) {
+      return (T) translateFrom((BooleanFormula) formula, otherContext);
+    } else if (this == otherContext) {
+      return formula; // shortcut
+    }
+    try {
+      return new FormulaTranslator(otherContext, this).translate(formula);
+    } catch (FormulaTranslator.UnsupportedTranslationException e) {
+      throw new IllegalArgumentException("Cannot translate term " + formula, e);
+    }
   }
 
   @Override
@@ -425,34 +471,52 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
   @Override
   public <T extends Formula> T substitute(
       final T pF, final Map<? extends Formula, ? extends Formula> pFromToMapping) {
-    return transformRecursively(
-        pF,
-        new FormulaTransformationVisitor(this) {
-          @Override
-          public Formula visitFreeVariable(Formula f, String name) {
-            return replace(f);
-          }
+    return transformRecursively(pF, new SubstitutionVisitor(pFromToMapping));
+  }
 
-          @Override
-          public Formula visitFunction(
-              Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
-            Formula out = pFromToMapping.get(f);
-            if (out == null) {
-              return makeApplication(functionDeclaration, newArgs);
-            } else {
-              return out;
-            }
-          }
+  @Override
+  public <T extends Formula> T substitute(
+      T pF,
+      Map<? extends Formula, ? extends Formula> pFromToMapping,
+      FormulaTransformationCache pCache) {
+    // The visitor is created for each call, thus we identify the substitution by its mapping.
+    return formulaCreator.transformRecursively(
+        new SubstitutionVisitor(pFromToMapping), pF, pCache, pFromToMapping);
+  }
 
-          private Formula replace(Formula f) {
-            Formula out = pFromToMapping.get(f);
-            if (out == null) {
-              return f;
-            } else {
-              return out;
-            }
-          }
-        });
+  private final class SubstitutionVisitor extends FormulaTransformationVisitor {
+
+    private final Map<? extends Formula, ? extends Formula> fromToMapping;
+
+    private SubstitutionVisitor(Map<? extends Formula, ? extends Formula> pFromToMapping) {
+      super(AbstractFormulaManager.this);
+      fromToMapping = pFromToMapping;
+    }
+
+    @Override
+    public Formula visitFreeVariable(Formula f, String name) {
+      return replace(f);
+    }
+
+    @Override
+    public Formula visitFunction(
+        Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
+      Formula out = fromToMapping.get(f);
+      if (out == null) {
+        return makeApplication(functionDeclaration, newArgs);
+      } else {
+        return out;
+      }
+    }
+
+    private Formula replace(Formula f) {
+      Formula out = fromToMapping.get(f);
+      if (out == null) {
+        return f;
+      } else {
+        return out;
+      }
+    }
   }
 
   /**
@@ -11,7 +11,17 @@ package org.sosy_lab.java_smt.basicimpl;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -26,6 +36,17 @@ import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model {
   protected final FormulaCreator<TFormulaInfo, TType, TEnv, ?> creator;
 
+  /**
+   * Memoized results of {@link #evalImpl}, a formula without evaluation is mapped to an empty
+   * value. The model does not change, thus the cache stays valid until the model is closed. The
+   * cache owns a reference to each key and value, see {@link #retainTerm} and {@link
+   * #clearEvaluationCache}.
+   */
+  private final Map<TFormulaInfo, Optional<TFormulaInfo>> evaluationCache = new HashMap<>();
+
+  private long evaluationCacheLookups = 0;
+  private long evaluationCacheHits = 0;
+
   protected AbstractModel(FormulaCreator<TFormulaInfo, TType, TEnv, ?> creator) {
     this.creator = creator;
   }
@@ -34,8 +55,13 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
   @Nullable
   @Override
   public <T extends Formula> T eval(T f) {
-    TFormulaInfo evaluation = evalImpl(creator.extractInfo(f));
-    return evaluation == null ? null : (T) creator.encapsulateWithTypeOf(evaluation);
+    TFormulaInfo evaluation = evalCached(creator.extractInfo(f));
+    if (evaluation == null) {
+      return null;
+    }
+    // the returned formula owns a reference of its own, the cached one stays with the cache
+    retainTerm(evaluation);
+    return (T) creator.encapsulateWithTypeOf(evaluation);
   }
 
   @Nullable
@@ -71,13 +97,117 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
     return evaluateImpl(creator.extractInfo(f));
   }
 
+  @Override
+  public ImmutableMap<Formula, Object> evaluate(Collection<? extends Formula> pFormulas) {
+    // formulas are equal if their terms are equal, thus each term is evaluated only once.
+    Map<TFormulaInfo, Formula> formulas = new LinkedHashMap<>();
+    for (Formula f : pFormulas) {
+      Preconditions.checkArgument(
+          !(f instanceof ArrayFormula),
+          "cannot compute a simple constant evaluation for an array-formula");
+      formulas.putIfAbsent(creator.extractInfo(f), f);
+    }
+    evaluationCacheLookups += formulas.size();
+    List<TFormulaInfo> missing = new ArrayList<>();
+    for (TFormulaInfo term : formulas.keySet()) {
+      if (!evaluationCache.containsKey(term)) {
+        missing.add(term);
+      }
+    }
+    evaluationCacheHits += formulas.size() - missing.size();
+    List<@Nullable TFormulaInfo> evaluations = evalAllImpl(missing);
+    for (int i = 0; i < missing.size(); i++) {
+      putEvaluation(missing.get(i), evaluations.get(i));
+    }
+
+    ImmutableMap.Builder<Formula, Object> result = ImmutableMap.builder();
+    for (Map.Entry<TFormulaInfo, Formula> entry : formulas.entrySet()) {
+      TFormulaInfo evaluation = evaluationCache.get(entry.getKey()).orElse(null);
+      if (evaluation != null) {
+        result.put(entry.getValue(), creator.convertValue(entry.getKey(), evaluation));
+      }
+    }
+    return result.build();
+  }
+
+  /** Returns the memoized evaluation of the formula, see {@link #evalImpl}. */
+  @Nullable
+  private TFormulaInfo evalCached(TFormulaInfo pFormula) {
+    evaluationCacheLookups++;
+    Optional<TFormulaInfo> evaluation = evaluationCache.get(pFormula);
+    if (evaluation == null) {
+      return putEvaluation(pFormula, evalImpl(pFormula));
+    } else {
+      evaluationCacheHits++;
+    }
+    return evaluation.orElse(null);
+  }
+
+  /**
+   * Store the evaluation of the formula in the cache. The cache takes a reference to the formula,
+   * and the reference to the evaluation that {@link #evalImpl} returned.
+   */
+  @Nullable
+  private TFormulaInfo putEvaluation(TFormulaInfo pFormula, @Nullable TFormulaInfo pEvaluation) {
+    retainTerm(pFormula);
+    evaluationCache.put(pFormula, Optional.ofNullable(pEvaluation));
+    return pEvaluation;
+  }
+
+  /**
+   * Release all terms in the evaluation cache. Models of solvers that override {@link #retainTerm}
+   * need to call this method when they are closed.
+   */
+  protected final void clearEvaluationCache() {
+    for (Map.Entry<TFormulaInfo, Optional<TFormulaInfo>> entry : evaluationCache.entrySet()) {
+      releaseTerm(entry.getKey());
+      entry.getValue().ifPresent(this::releaseTerm);
+    }
+    evaluationCache.clear();
+  }
+
+  /**
+   * Take an additional reference to the term. Solvers with reference counting for terms need to
+   * override this method, such that cached terms stay alive and their handles are not reused while
+   * they are in the cache. The default implementation does nothing.
+   */
+  protected void retainTerm(@SuppressWarnings("unused") TFormulaInfo pTerm) {}
+
+  /** Release a reference taken by {@link #retainTerm} or returned by {@link #evalImpl}. */
+  protected void releaseTerm(@SuppressWarnings("unused") TFormulaInfo pTerm) {}
+
+  /** Returns the number of evaluations of this model, including cached ones. */
+  public final long getEvaluationCacheLookups() {
+    return evaluationCacheLookups;
+  }
+
+  /** Returns the number of evaluations of this model that were answered from the cache. */
+  public final long getEvaluationCacheHits() {
+    return evaluationCacheHits;
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
-   * set in the model and evaluation aborts, return <code>null</code>.
+   * set in the model and evaluation aborts, return <code>null</code>. For solvers with reference
+   * counting, the caller owns a reference to the result, which is released with {@link
+   * #releaseTerm}.
    */
   @Nullable
   protected abstract TFormulaInfo evalImpl(TFormulaInfo formula);
 
+  /**
+   * Evaluate several formulas, see {@link #evalImpl(Object)}. The result contains the evaluations
+   * in the same order as the input, and <code>null</code> for formulas without evaluation. Solvers
+   * can override this method to evaluate all formulas with a single call.
+   */
+  protected List<@Nullable TFormulaInfo> evalAllImpl(List<TFormulaInfo> formulas) {
+    List<@Nullable TFormulaInfo> result = new ArrayList<>(formulas.size());
+    for (TFormulaInfo formula : formulas) {
+      result.add(evalImpl(formula));
+    }
+    return result;
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
    * set in the model and evaluation aborts, return <code>null</code>. Afterwards convert the
@@ -85,7 +215,7 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
    */
   @Nullable
   protected Object evaluateImpl(TFormulaInfo f) {
-    TFormulaInfo evaluatedF = evalImpl(f);
+    TFormulaInfo evaluatedF = evalCached(f);
     return evaluatedF == null ? null : creator.convertValue(f, evaluatedF);
   }
 
@@ -111,7 +241,25 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv> implements Model
       return modelAssignments;
     }
 
+    @Override
+    public Iterable<ValueAssignment> assignments(Predicate<? super String> pNameFilter) {
+      Preconditions.checkNotNull(pNameFilter);
+      if (modelAssignments != null) {
+        return Iterables.filter(modelAssignments, a -> pNameFilter.test(a.getName()));
+      }
+      return lazyAssignments(pNameFilter);
+    }
+
     /** Build a list of all available assignments from the model. */
     protected abstract ImmutableList<ValueAssignment> toList();
+
+    /**
+     * Build the assignments for symbols with matching names during the iteration. Solvers can
+     * override this method to skip the conversion of other symbols. The default implementation
+     * builds and filters the list of all assignments.
+     */
+    protected Iterable<ValueAssignment> lazyAssignments(Predicate<? super String> pNameFilter) {
+      return Iterables.filter(asList(), a -> pNameFilter.test(a.getName()));
+    }
   }
 }
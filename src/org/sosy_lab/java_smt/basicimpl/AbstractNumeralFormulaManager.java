@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -115,6 +116,10 @@ public abstract class AbstractNumeralFormulaManager<
   }
 
   protected TFormulaInfo makeNumberImpl(Rational pRational) {
+    if (pRational.isIntegral()) {
+      // avoid formatting and parsing a string, backends have faster paths for integers
+      return makeNumberImpl(pRational.getNum());
+    }
     return makeNumberImpl(pRational.toString());
   }
 
@@ -200,12 +205,18 @@ public abstract class AbstractNumeralFormulaManager<
     return wrap(sumImpl(Lists.transform(operands, this::extractInfo)));
   }
 
+  /**
+   * Create a sum of the operands. The default implementation builds a balanced tree of binary
+   * additions, such that the depth of the term grows only logarithmically with the number of
+   * operands. Solvers with a native n-ary addition should override this method.
+   */
   protected TFormulaInfo sumImpl(List<TFormulaInfo> operands) {
-    TFormulaInfo result = makeNumberImpl(0);
-    for (TFormulaInfo operand : operands) {
-      result = add(result, operand);
-    }
-    return result;
+    // the leftmost summand zero determines the type of the sum, e.g., when summing up integers
+    // with the rational formula manager.
+    List<TFormulaInfo> summands = new ArrayList<>(operands.size() + 1);
+    summands.add(makeNumberImpl(0));
+    summands.addAll(operands);
+    return BalancedReduction.reduce(summands, this::add);
   }
 
   @Override
@@ -10,19 +10,32 @@ package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
 import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultBooleanFormulaVisitor;
 
 /**
  * This class is an utility-class to avoid repeated implementation of a the AllSAT computation.
  *
  * <p>If a solver does not support direct AllSAT computation, please inherit from this class.
+ *
+ * <p>Each model is reported as a cube over the important predicates and then blocked. If the
+ * solver provides an {@link #newImplicantChecker() implicant checker}, literals of boolean
+ * variables that are irrelevant for satisfying the asserted formulas are removed from the cube
+ * before it is reported and blocked, such that a single iteration covers many models.
  */
 public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
 
@@ -46,37 +59,176 @@ public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
     Preconditions.checkState(!closed);
     checkGenerateAllSat();
 
-    push();
-    while (!isUnsat()) {
-      shutdownNotifier.shutdownIfNecessary();
+    // Only literals of boolean variables can be removed from a cube, because the value of other
+    // predicates depends on the values of further symbols.
+    Set<BooleanFormula> shrinkable = new HashSet<>();
+    for (BooleanFormula formula : important) {
+      if (isVariable(formula)) {
+        shrinkable.add(formula);
+      }
+    }
+    BasicProverEnvironment<?> implicantChecker = null;
+    if (!shrinkable.isEmpty()) {
+      implicantChecker = newImplicantChecker();
+    }
 
-      List<BooleanFormula> valuesOfModel = new ArrayList<>(important.size());
-      try (Model model = getModelWithoutChecks()) {
-        for (BooleanFormula formula : important) {
-          Boolean value = model.evaluate(formula);
-          if (value == null) {
-            // This is a legal return value for evaluation.
-            // The value doesn't matter. We ignore this assignment.
-          } else if (value) {
-            valuesOfModel.add(formula);
-          } else {
-            valuesOfModel.add(bmgr.not(formula));
+    try {
+      if (implicantChecker != null) {
+        implicantChecker.push(bmgr.not(bmgr.and(getAssertedConstraints())));
+      }
+
+      push();
+      while (!isUnsat()) {
+        shutdownNotifier.shutdownIfNecessary();
+
+        List<BooleanFormula> valuesOfModel = new ArrayList<>(important.size());
+        List<BooleanFormula> valuesOfOtherSymbols = new ArrayList<>();
+        try (Model model = getModelWithoutChecks()) {
+          for (BooleanFormula formula : important) {
+            Boolean value = model.evaluate(formula);
+            if (value == null) {
+              // This is a legal return value for evaluation.
+              // The value doesn't matter. We ignore this assignment.
+            } else if (value) {
+              valuesOfModel.add(formula);
+            } else {
+              valuesOfModel.add(bmgr.not(formula));
+            }
           }
+          if (implicantChecker != null) {
+            for (ValueAssignment assignment : model) {
+              if (!shrinkable.contains(assignment.getKey())) {
+                valuesOfOtherSymbols.add(assignment.getAssignmentAsFormula());
+              }
+            }
+          }
+        }
+
+        if (implicantChecker != null) {
+          valuesOfModel =
+              shrinkCube(
+                  implicantChecker, valuesOfModel, bmgr.and(valuesOfOtherSymbols), shrinkable);
         }
+
+        callback.apply(valuesOfModel);
+        shutdownNotifier.shutdownIfNecessary();
+
+        BooleanFormula negatedModel = bmgr.not(bmgr.and(valuesOfModel));
+        addConstraint(negatedModel);
+        shutdownNotifier.shutdownIfNecessary();
       }
 
-      callback.apply(valuesOfModel);
-      shutdownNotifier.shutdownIfNecessary();
+      pop();
+    } finally {
+      if (implicantChecker != null) {
+        implicantChecker.close();
+      }
+    }
+    return callback.getResult();
+  }
 
-      BooleanFormula negatedModel = bmgr.not(bmgr.and(valuesOfModel));
-      addConstraint(negatedModel);
+  /**
+   * Remove literals of boolean variables from a cube, such that the cube still only contains
+   * models of the asserted formulas.
+   *
+   * <p>Let F be the asserted formulas. The implicant checker contains the negation of F. With all
+   * other symbols fixed to their values in the current model, a literal can be removed from the
+   * cube if the remaining cube still implies F, i.e., if it is unsatisfiable together with the
+   * negation of F. All assignments covered by the shrunk cube are thus models of F.
+   *
+   * @param implicantChecker prover with the negation of the asserted formulas on its stack.
+   * @param cube the values of the important predicates in the current model.
+   * @param valuesOfOtherSymbols the values of all symbols that may not be removed from the cube.
+   * @param shrinkable the predicates that may be removed from the cube.
+   */
+  private List<BooleanFormula> shrinkCube(
+      BasicProverEnvironment<?> implicantChecker,
+      List<BooleanFormula> cube,
+      BooleanFormula valuesOfOtherSymbols,
+      Set<BooleanFormula> shrinkable)
+      throws InterruptedException, SolverException {
+    List<BooleanFormula> shrunkCube = new ArrayList<>(cube);
+    if (!isImplicant(implicantChecker, valuesOfOtherSymbols, shrunkCube)) {
+      // The model did not assign all symbols, we can not remove any literal.
+      return cube;
+    }
+    for (BooleanFormula literal : cube) {
       shutdownNotifier.shutdownIfNecessary();
+      if (!shrinkable.contains(literal) && !shrinkable.contains(negated(literal))) {
+        continue;
+      }
+      shrunkCube.remove(literal);
+      if (!isImplicant(implicantChecker, valuesOfOtherSymbols, shrunkCube)) {
+        shrunkCube.add(literal);
+      }
     }
+    return shrunkCube;
+  }
 
-    pop();
-    return callback.getResult();
+  private boolean isImplicant(
+      BasicProverEnvironment<?> implicantChecker,
+      BooleanFormula valuesOfOtherSymbols,
+      List<BooleanFormula> cube)
+      throws InterruptedException, SolverException {
+    implicantChecker.push(bmgr.and(valuesOfOtherSymbols, bmgr.and(cube)));
+    try {
+      return implicantChecker.isUnsat();
+    } finally {
+      implicantChecker.pop();
+    }
+  }
+
+  /** Returns the operand of a negation, or the formula itself. */
+  private BooleanFormula negated(BooleanFormula literal) {
+    return bmgr.visit(
+        literal,
+        new DefaultBooleanFormulaVisitor<>() {
+          @Override
+          protected BooleanFormula visitDefault() {
+            return literal;
+          }
+
+          @Override
+          public BooleanFormula visitNot(BooleanFormula operand) {
+            return operand;
+          }
+        });
+  }
+
+  private boolean isVariable(BooleanFormula formula) {
+    return bmgr.visit(
+        formula,
+        new DefaultBooleanFormulaVisitor<Boolean>() {
+          @Override
+          protected Boolean visitDefault() {
+            return false;
+          }
+
+          @Override
+          public Boolean visitAtom(BooleanFormula atom, FunctionDeclaration<BooleanFormula> decl) {
+            return decl.getKind() == FunctionDeclarationKind.VAR;
+          }
+        });
   }
 
   /** model computation without checks for further options. */
   protected abstract Model getModelWithoutChecks();
+
+  /**
+   * Create a new prover environment in the same context as this prover, which is used to shrink
+   * the cubes that are reported by {@link #allSat}. The prover needs to be usable while this prover
+   * is in use.
+   *
+   * <p>If this method returns {@code null} (the default), cubes are not shrunk and each reported
+   * cube contains a value for each of the important predicates.
+   */
+  protected @Nullable BasicProverEnvironment<?> newImplicantChecker() {
+    return null;
+  }
+
+  /**
+   * Returns the formulas that are asserted on all levels of this prover. They are given to the
+   * {@link #newImplicantChecker implicant checker}.
+   */
+  protected abstract Collection<BooleanFormula> getAssertedConstraints();
 }
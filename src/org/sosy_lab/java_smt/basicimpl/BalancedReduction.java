@@ -0,0 +1,72 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Combine n operands with an associative binary operator into a balanced tree.
+ *
+ * <p>Solvers without a native n-ary operator would otherwise get a chain of binary operations,
+ * whose depth grows linearly with the number of operands. Such deep terms slow down every
+ * traversal and can overflow the stack of recursive algorithms in the solver. A balanced tree has
+ * logarithmic depth. The order of the operands is preserved.
+ */
+public final class BalancedReduction {
+
+  private BalancedReduction() {}
+
+  /**
+   * Combine all operands with the given operator.
+   *
+   * @param pOperands at least one operand, should provide fast random access.
+   */
+  public static <T> T reduce(List<T> pOperands, BinaryOperator<T> pOperator) {
+    checkNotNull(pOperator);
+    checkArgument(!pOperands.isEmpty(), "reduction of an empty list");
+    return reduce(pOperands, 0, pOperands.size(), pOperator);
+  }
+
+  private static <T> T reduce(List<T> pOperands, int pFrom, int pTo, BinaryOperator<T> pOperator) {
+    if (pTo - pFrom == 1) {
+      return pOperands.get(pFrom);
+    }
+    int middle = (pFrom + pTo) >>> 1;
+    return pOperator.apply(
+        reduce(pOperands, pFrom, middle, pOperator), reduce(pOperands, middle, pTo, pOperator));
+  }
+
+  /**
+   * Combine the first operands of the array with the given operator, for solvers that represent
+   * terms as primitive handles.
+   *
+   * @param pCount the number of operands to use from the start of the array, at least one.
+   */
+  public static long reduce(long[] pOperands, int pCount, LongBinaryOperator pOperator) {
+    checkNotNull(pOperator);
+    checkPositionIndex(pCount, pOperands.length);
+    checkArgument(pCount > 0, "reduction of an empty array");
+    return reduce(pOperands, 0, pCount, pOperator);
+  }
+
+  private static long reduce(long[] pOperands, int pFrom, int pTo, LongBinaryOperator pOperator) {
+    if (pTo - pFrom == 1) {
+      return pOperands[pFrom];
+    }
+    int middle = (pFrom + pTo) >>> 1;
+    return pOperator.applyAsLong(
+        reduce(pOperands, pFrom, middle, pOperator), reduce(pOperands, middle, pTo, pOperator));
+  }
+}
@@ -0,0 +1,49 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BalancedReductionTest {
+
+  @Test
+  public void testSingleOperand() {
+    assertThat(BalancedReduction.reduce(ImmutableList.of("a"), String::concat)).isEqualTo("a");
+    assertThat(BalancedReduction.reduce(new long[] {5, 6}, 1, Long::sum)).isEqualTo(5);
+  }
+
+  @Test
+  public void testOrderAndShape() {
+    List<String> operands = ImmutableList.of("a", "b", "c", "d", "e");
+    assertThat(BalancedReduction.reduce(operands, (x, y) -> "(" + x + " " + y + ")"))
+        .isEqualTo("((a b) (c (d e)))");
+  }
+
+  @Test
+  public void testLogarithmicDepth() {
+    List<Integer> operands = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      operands.add(0);
+    }
+    // each operand is a leaf of depth 0, the operator returns the depth of the new node.
+    assertThat(BalancedReduction.reduce(operands, (x, y) -> Math.max(x, y) + 1)).isEqualTo(10);
+  }
+
+  @Test
+  public void testPrimitiveArray() {
+    long[] operands = {1, 2, 3, 4, 5, 6};
+    assertThat(BalancedReduction.reduce(operands, 4, Long::sum)).isEqualTo(10);
+    assertThat(BalancedReduction.reduce(operands, 6, (x, y) -> x * 10 + y)).isEqualTo(426);
+  }
+}
@@ -12,13 +12,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Lists;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -35,6 +35,7 @@ import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationCache;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 import org.sosy_lab.java_smt.basicimpl.AbstractFormula.ArrayFormulaImpl;
@@ -63,6 +64,13 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
   private final @Nullable TType rationalType;
   protected final TEnv environment;
 
+  /** Types of solver-specific sorts, see {@link #getCachedFormulaType}. */
+  private final Map<TType, FormulaType<?>> formulaTypeCache = new ConcurrentHashMap<>();
+
+  /** Declarations of solver-specific functions, see {@link #getCachedDeclaration}. */
+  private final Map<TFuncDecl, FunctionDeclaration<?>> declarationCache =
+      new ConcurrentHashMap<>();
+
   protected FormulaCreator(
       TEnv env, TType boolType, @Nullable TType pIntegerType, @Nullable TType pRationalType) {
     this.environment = env;
@@ -103,17 +111,17 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public BooleanFormula encapsulateBoolean(TFormulaInfo pTerm) {
     assert getFormulaType(pTerm).isBooleanType();
-    return new BooleanFormulaImpl<>(pTerm);
+    return new BooleanFormulaImpl<>(intern(pTerm));
   }
 
   protected BitvectorFormula encapsulateBitvector(TFormulaInfo pTerm) {
     assert getFormulaType(pTerm).isBitvectorType();
-    return new BitvectorFormulaImpl<>(pTerm);
+    return new BitvectorFormulaImpl<>(intern(pTerm));
   }
 
   protected FloatingPointFormula encapsulateFloatingPoint(TFormulaInfo pTerm) {
     assert getFormulaType(pTerm).isFloatingPointType();
-    return new FloatingPointFormulaImpl<>(pTerm);
+    return new FloatingPointFormulaImpl<>(intern(pTerm));
   }
 
   protected <TI extends Formula, TE extends Formula> ArrayFormula<TI, TE> encapsulateArray(
@@ -124,7 +132,16 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
             + " but found: "
             + FormulaType.getArrayType(pIndexType, pElementType);
 
-    return new ArrayFormulaImpl<>(pTerm, pIndexType, pElementType);
+    return new ArrayFormulaImpl<>(intern(pTerm), pIndexType, pElementType);
+  }
+
+  /**
+   * Returns the canonical instance of the term, which is wrapped into a formula. Solvers with
+   * hash-consing in the JVM can override this method, e.g. with a {@link TermInterner}, such that
+   * structurally equal formulas share their terms.
+   */
+  protected TFormulaInfo intern(TFormulaInfo pTerm) {
+    return pTerm;
   }
 
   public Formula encapsulateWithTypeOf(TFormulaInfo pTerm) {
@@ -138,17 +155,17 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
             "Trying to encapsulate formula %s of type %s as %s",
             pTerm, getFormulaType(pTerm), pType);
     if (pType.isBooleanType()) {
-      return (T) new BooleanFormulaImpl<>(pTerm);
+      return (T) new BooleanFormulaImpl<>(intern(pTerm));
     } else if (pType.isIntegerType()) {
-      return (T) new IntegerFormulaImpl<>(pTerm);
+      return (T) new IntegerFormulaImpl<>(intern(pTerm));
     } else if (pType.isRationalType()) {
-      return (T) new RationalFormulaImpl<>(pTerm);
+      return (T) new RationalFormulaImpl<>(intern(pTerm));
     } else if (pType.isBitvectorType()) {
-      return (T) new BitvectorFormulaImpl<>(pTerm);
+      return (T) new BitvectorFormulaImpl<>(intern(pTerm));
     } else if (pType.isFloatingPointType()) {
-      return (T) new FloatingPointFormulaImpl<>(pTerm);
+      return (T) new FloatingPointFormulaImpl<>(intern(pTerm));
     } else if (pType.isFloatingPointRoundingModeType()) {
-      return (T) new FloatingPointRoundingModeFormulaImpl<>(pTerm);
+      return (T) new FloatingPointRoundingModeFormulaImpl<>(intern(pTerm));
     } else if (pType.isArrayType()) {
       ArrayFormulaType<?, ?> arrayType = (ArrayFormulaType<?, ?>) pType;
       return (T) encapsulateArray(pTerm, arrayType.getIndexType(), arrayType.getElementType());
@@ -206,6 +223,48 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public abstract FormulaType<?> getFormulaType(TFormulaInfo formula);
 
+  /**
+   * Returns the type for a sort of the solver, and computes it only if the sort was not seen
+   * before. Solvers that need several native calls to determine a type should use this method
+   * when visiting formulas, as the number of sorts is small compared to the number of terms.
+   *
+   * <p>The sort is used as key and must therefore be unique and valid for the lifetime of the
+   * context, e.g., it must not be garbage-collected by the solver.
+   *
+   * @param pComputation computes the type of an unknown sort, and may call this method
+   *     recursively.
+   */
+  protected final FormulaType<?> getCachedFormulaType(
+      TType pSort, Function<TType, FormulaType<?>> pComputation) {
+    FormulaType<?> type = formulaTypeCache.get(pSort);
+    if (type == null) {
+      // no computeIfAbsent, because the computation might be recursive for nested sorts.
+      type = pComputation.apply(pSort);
+      formulaTypeCache.putIfAbsent(pSort, type);
+    }
+    return type;
+  }
+
+  /**
+   * Returns the declaration for a function of the solver, and computes it only if the function
+   * was not seen before. The same restrictions as for {@link #getCachedFormulaType} apply.
+   *
+   * <p>The solver-specific function must determine the complete declaration, including its
+   * argument types.
+   */
+  protected final FunctionDeclaration<?> getCachedDeclaration(
+      TFuncDecl pDeclaration, Function<TFuncDecl, FunctionDeclaration<?>> pComputation) {
+    FunctionDeclaration<?> declaration = declarationCache.get(pDeclaration);
+    if (declaration == null) {
+      declaration = pComputation.apply(pDeclaration);
+      FunctionDeclaration<?> existing = declarationCache.putIfAbsent(pDeclaration, declaration);
+      if (existing != null) {
+        declaration = existing;
+      }
+    }
+    return declaration;
+  }
+
   @CanIgnoreReturnValue
   public <R> R visit(Formula input, FormulaVisitor<R> visitor) {
     return visit(visitor, input, extractInfo(input));
@@ -245,28 +304,74 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public <T extends Formula> T transformRecursively(
       FormulaVisitor<? extends Formula> pFormulaVisitor, T pF, Predicate<Object> shouldProcess) {
+    return transformRecursively(pFormulaVisitor, pF, shouldProcess, null, null);
+  }
+
+  /**
+   * Transform the formula and reuse results from former transformations stored in the given cache.
+   *
+   * @param pTransformation identifies the transformation in the cache, e.g., the visitor itself.
+   */
+  public <T extends Formula> T transformRecursively(
+      FormulaVisitor<? extends Formula> pFormulaVisitor,
+      T pF,
+      FormulaTransformationCache pPersistentCache,
+      Object pTransformation) {
+    return transformRecursively(
+        pFormulaVisitor,
+        pF,
+        t -> true,
+        checkNotNull(pPersistentCache),
+        checkNotNull(pTransformation));
+  }
+
+  private <T extends Formula> T transformRecursively(
+      FormulaVisitor<? extends Formula> pFormulaVisitor,
+      T pF,
+      Predicate<Object> shouldProcess,
+      @Nullable FormulaTransformationCache pPersistentCache,
+      @Nullable Object pTransformation) {
 
-    final Deque<Formula> toProcess = new ArrayDeque<>();
     Map<Formula, Formula> pCache = new HashMap<>();
     FormulaTransformationVisitorImpl recVisitor =
-        new FormulaTransformationVisitorImpl(pFormulaVisitor, toProcess, pCache);
-    toProcess.push(pF);
+        new FormulaTransformationVisitorImpl(pFormulaVisitor, pCache);
+    recVisitor.push(pF);
 
     // Process the work queue
-    while (!toProcess.isEmpty()) {
-      Formula tt = toProcess.peek();
+    while (!recVisitor.isEmpty()) {
+      Formula tt = recVisitor.peek();
 
       if (pCache.containsKey(tt)) {
-        toProcess.pop();
+        recVisitor.pop();
         continue;
       }
 
+      if (recVisitor.isExpanded()) {
+        // all children are transformed, no further visit of the node is needed.
+        recVisitor.rebuild();
+        continue;
+      }
+
+      if (pPersistentCache != null) {
+        Formula cached = pPersistentCache.get(pTransformation, tt);
+        if (cached != null) {
+          pCache.put(tt, cached);
+          recVisitor.pop();
+          continue;
+        }
+      }
+
       if (shouldProcess.test(tt)) {
         visit(tt, recVisitor);
       } else {
         pCache.put(tt, tt);
       }
     }
+
+    if (pPersistentCache != null) {
+      pCache.forEach((in, out) -> pPersistentCache.put(pTransformation, in, out));
+    }
+
     @SuppressWarnings("unchecked")
     T out = (T) pCache.get(pF);
     return out;
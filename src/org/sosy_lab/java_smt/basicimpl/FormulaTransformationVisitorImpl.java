@@ -9,32 +9,139 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 
-/** Internal implementation of recursive transformation. */
+/**
+ * Internal implementation of recursive transformation.
+ *
+ * <p>The transformation is done in post-order with an explicit stack of frames. Each node of the
+ * DAG is decomposed by the solver only once: the first visit stores the children and the
+ * declaration in the frame of the node, and after all children are transformed, the node is rebuilt
+ * from its frame without visiting it again.
+ *
+ * <p>The caller drives the traversal with the following loop:
+ *
+ * <pre>
+ * push(root);
+ * while (!isEmpty()) {
+ *   if (cache contains peek()) pop();
+ *   else if (isExpanded()) rebuild();
+ *   else visit(peek(), this);
+ * }
+ * </pre>
+ */
 final class FormulaTransformationVisitorImpl implements FormulaVisitor<Void> {
 
-  private final Deque<Formula> toProcess;
+  /** The transformation state of a single node. */
+  private static final class Frame {
+    private final Formula formula;
+
+    /** Children of the node, set with the first (and only) visit of the node. */
+    private @Nullable List<Formula> args = null;
+
+    private @Nullable FunctionDeclaration<?> declaration = null;
+    private @Nullable Quantifier quantifier = null;
+
+    private Frame(Formula pFormula) {
+      formula = Preconditions.checkNotNull(pFormula);
+    }
+  }
+
+  private final Deque<Frame> toProcess = new ArrayDeque<>();
   private final Map<Formula, Formula> pCache;
   private final FormulaVisitor<? extends Formula> delegate;
 
   FormulaTransformationVisitorImpl(
-      FormulaVisitor<? extends Formula> delegate,
-      Deque<Formula> toProcess,
-      Map<Formula, Formula> pCache) {
-    this.toProcess = Preconditions.checkNotNull(toProcess);
+      FormulaVisitor<? extends Formula> delegate, Map<Formula, Formula> pCache) {
     this.pCache = Preconditions.checkNotNull(pCache);
     this.delegate = Preconditions.checkNotNull(delegate);
   }
 
+  /** Schedule a formula for transformation. */
+  void push(Formula f) {
+    toProcess.push(new Frame(f));
+  }
+
+  boolean isEmpty() {
+    return toProcess.isEmpty();
+  }
+
+  /** Returns the formula of the current frame. */
+  Formula peek() {
+    return toProcess.element().formula;
+  }
+
+  /** Remove the current frame, e.g., because its formula was already transformed. */
+  void pop() {
+    toProcess.pop();
+  }
+
+  /**
+   * Returns whether the current frame was already visited. In that case all its children are
+   * transformed and the node can be rebuilt with {@link #rebuild()}.
+   */
+  boolean isExpanded() {
+    return toProcess.element().args != null;
+  }
+
+  /** Rebuild the formula of the current (expanded) frame from its transformed children. */
+  void rebuild() {
+    Frame frame = toProcess.pop();
+    Preconditions.checkState(frame.args != null, "node was not visited before");
+    Formula out;
+    if (frame.quantifier != null) {
+      BooleanFormula transformedBody = (BooleanFormula) pCache.get(frame.args.get(0));
+      assert transformedBody != null;
+      out =
+          delegate.visitQuantifier(
+              (BooleanFormula) frame.formula,
+              frame.quantifier,
+              frame.args.subList(1, frame.args.size()),
+              transformedBody);
+    } else {
+      // Construct a new argument list for the function application.
+      List<Formula> newArgs = new ArrayList<>(frame.args.size());
+      for (Formula c : frame.args) {
+        Formula newC = pCache.get(c);
+        assert newC != null : "child was not transformed: " + c;
+        newArgs.add(newC);
+      }
+      out = delegate.visitFunction(frame.formula, newArgs, frame.declaration);
+    }
+    Formula prev = pCache.put(frame.formula, out);
+    assert prev == null;
+  }
+
+  /**
+   * Store the children of the current node and schedule all children that are not yet
+   * transformed. If there are none, the node is rebuilt directly.
+   */
+  private void expand(Formula f, List<Formula> args) {
+    Frame frame = toProcess.element();
+    assert frame.formula.equals(f) : "visited formula does not match current frame";
+    frame.args = args;
+    boolean allArgumentsTransformed = true;
+    for (Formula c : args) {
+      if (!pCache.containsKey(c)) {
+        push(c);
+        allArgumentsTransformed = false;
+      }
+    }
+    if (allArgumentsTransformed) {
+      rebuild();
+    }
+  }
+
   @Override
   public Void visitFreeVariable(Formula f, String name) {
     pCache.put(f, delegate.visitFreeVariable(f, name));
@@ -61,36 +168,10 @@ final class FormulaTransformationVisitorImpl implements FormulaVisitor<Void> {
   public Void visitFunction(
       Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
     Preconditions.checkNotNull(f);
-
-    boolean allArgumentsTransformed = true;
-
-    // Construct a new argument list for the function application.
-    List<Formula> newArgs = new ArrayList<>(args.size());
-
-    for (Formula c : args) {
-      Formula newC = pCache.get(c);
-
-      if (newC != null) {
-        newArgs.add(newC);
-      } else {
-        toProcess.push(c);
-        allArgumentsTransformed = false;
-      }
-    }
-
-    // The Flag childrenDone indicates whether all arguments
-    // of the function were already processed.
-    if (allArgumentsTransformed) {
-
-      // Create an processed version of the
-      // function application.
-      if (!toProcess.isEmpty()) {
-        toProcess.pop();
-      }
-      Formula out = delegate.visitFunction(f, newArgs, functionDeclaration);
-      Formula prev = pCache.put(f, out);
-      assert prev == null;
-    }
+    Preconditions.checkNotNull(args);
+    Preconditions.checkNotNull(functionDeclaration);
+    toProcess.element().declaration = functionDeclaration;
+    expand(f, args);
     return null;
   }
 
@@ -102,15 +183,18 @@ final class FormulaTransformationVisitorImpl implements FormulaVisitor<Void> {
     Preconditions.checkNotNull(boundVariables);
     Preconditions.checkNotNull(body);
 
-    BooleanFormula transformedBody = (BooleanFormula) pCache.get(body);
-
-    if (transformedBody != null) {
-      BooleanFormula newTt =
-          (BooleanFormula) delegate.visitQuantifier(f, quantifier, boundVariables, transformedBody);
-      pCache.put(f, newTt);
+    // Only the body is transformed, the bound variables are stored behind it.
+    List<Formula> children = new ArrayList<>(boundVariables.size() + 1);
+    children.add(body);
+    children.addAll(boundVariables);
 
+    Frame frame = toProcess.element();
+    frame.quantifier = quantifier;
+    frame.args = children;
+    if (pCache.containsKey(body)) {
+      rebuild();
     } else {
-      toProcess.push(body);
+      push(body);
     }
     return null;
   }
@@ -0,0 +1,447 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.ArrayFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FloatingPointFormula;
+import org.sosy_lab.java_smt.api.FloatingPointFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.NumeralFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormulaManager;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Structural translation of formulas from one {@link FormulaManager} into another one.
+ *
+ * <p>The source formula is traversed iteratively with the visitor of the source context and every
+ * node is rebuilt directly with the theory managers of the target context. Shared subterms are
+ * translated only once. Operators without a solver-independent counterpart (e.g., quantifiers,
+ * bitvector extraction, floating-point operations with rounding mode) are not supported, and the
+ * caller is expected to fall back to string serialization in that case.
+ */
+final class FormulaTranslator implements FormulaVisitor<Formula> {
+
+  /** Signals that the formula contains an operator that can not be translated structurally. */
+  static final class UnsupportedTranslationException extends RuntimeException {
+
+    private static final long serialVersionUID = 7196342591053823710L;
+
+    UnsupportedTranslationException(String msg) {
+      super(msg);
+    }
+  }
+
+  private final FormulaManager source;
+  private final FormulaManager target;
+  private final BooleanFormulaManager bmgr;
+
+  FormulaTranslator(FormulaManager pSource, FormulaManager pTarget) {
+    source = checkNotNull(pSource);
+    target = checkNotNull(pTarget);
+    bmgr = target.getBooleanFormulaManager();
+  }
+
+  /**
+   * Translate the given formula from the source context into the target context.
+   *
+   * @throws UnsupportedTranslationException if the formula contains an unsupported operator.
+   */
+  @SuppressWarnings("unchecked")
+  <T extends Formula> T translate(T pFormula) {
+    final Map<Formula, Formula> cache = new HashMap<>();
+    final FormulaTransformationVisitorImpl recVisitor =
+        new FormulaTransformationVisitorImpl(this, cache);
+    recVisitor.push(pFormula);
+
+    while (!recVisitor.isEmpty()) {
+      Formula tt = recVisitor.peek();
+      if (cache.containsKey(tt)) {
+        recVisitor.pop();
+      } else if (recVisitor.isExpanded()) {
+        recVisitor.rebuild();
+      } else {
+        source.visit(tt, recVisitor);
+      }
+    }
+    return (T) cache.get(pFormula);
+  }
+
+  @Override
+  public Formula visitFreeVariable(Formula f, String name) {
+    checkNotNull(f);
+    checkNotNull(name);
+    return target.makeVariable(source.getFormulaType(f), name);
+  }
+
+  @Override
+  public Formula visitBoundVariable(Formula f, int deBruijnIdx) {
+    checkNotNull(f);
+    throw new UnsupportedTranslationException("bound variable " + f);
+  }
+
+  @Override
+  public Formula visitConstant(Formula f, Object value) {
+    checkNotNull(f);
+    checkNotNull(value);
+    FormulaType<?> type = source.getFormulaType(f);
+    if (type.isBooleanType() && value instanceof Boolean) {
+      return bmgr.makeBoolean((Boolean) value);
+    } else if (type.isIntegerType() && value instanceof BigInteger) {
+      return target.getIntegerFormulaManager().makeNumber((BigInteger) value);
+    } else if (type.isRationalType() && value instanceof BigInteger) {
+      return target.getRationalFormulaManager().makeNumber((BigInteger) value);
+    } else if (type.isRationalType() && value instanceof Rational) {
+      return target.getRationalFormulaManager().makeNumber((Rational) value);
+    } else if (type.isBitvectorType() && value instanceof BigInteger) {
+      return target
+          .getBitvectorFormulaManager()
+          .makeBitvector(((BitvectorType) type).getSize(), (BigInteger) value);
+    }
+    throw new UnsupportedTranslationException("constant " + value + " of type " + type);
+  }
+
+  @Override
+  public Formula visitQuantifier(
+      BooleanFormula f, Quantifier quantifier, List<Formula> boundVariables, BooleanFormula body) {
+    checkNotNull(f);
+    checkNotNull(quantifier);
+    checkNotNull(boundVariables);
+    checkNotNull(body);
+    throw new UnsupportedTranslationException("quantified formula " + f);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Formula visitFunction(
+      Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+    checkNotNull(f);
+    checkNotNull(args);
+    switch (functionDeclaration.getKind()) {
+      case AND:
+        return bmgr.and((List<BooleanFormula>) (List<?>) args);
+      case OR:
+        return bmgr.or((List<BooleanFormula>) (List<?>) args);
+      case NOT:
+        return bmgr.not((BooleanFormula) args.get(0));
+      case IFF:
+        return bmgr.equivalence((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+      case XOR:
+        return bmgr.xor((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+      case IMPLIES:
+        return bmgr.implication((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+      case ITE:
+        return bmgr.ifThenElse((BooleanFormula) args.get(0), args.get(1), args.get(2));
+      case EQ:
+      case BV_EQ:
+        return makeEqual(args);
+      case DISTINCT:
+        return makeDistinct(args);
+      case UF:
+        return target
+            .getUFManager()
+            .declareAndCallUF(functionDeclaration.getName(), source.getFormulaType(f), args);
+      case SELECT:
+        return target
+            .getArrayFormulaManager()
+            .select((ArrayFormula<Formula, Formula>) args.get(0), args.get(1));
+      case STORE:
+        return target
+            .getArrayFormulaManager()
+            .store((ArrayFormula<Formula, Formula>) args.get(0), args.get(1), args.get(2));
+      case VAR:
+      case OTHER:
+        throw new UnsupportedTranslationException(
+            "operator " + functionDeclaration + " in formula " + f);
+      default:
+        // continue with theory-specific operators below
+    }
+
+    if (args.isEmpty()) {
+      // e.g., rounding modes or solver-specific constants
+      throw new UnsupportedTranslationException(
+          "operator " + functionDeclaration + " in formula " + f);
+    }
+    if (functionDeclaration.getKind().name().startsWith("BV_")) {
+      return visitBitvectorFunction(f, args, functionDeclaration);
+    } else if (functionDeclaration.getKind().name().startsWith("FP_")) {
+      return visitFloatingPointFunction(args, functionDeclaration);
+    } else {
+      return visitNumeralFunction(f, args, functionDeclaration);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Formula makeEqual(List<Formula> args) {
+    if (args.size() != 2) {
+      throw new UnsupportedTranslationException("equality with " + args.size() + " arguments");
+    }
+    Formula a = args.get(0);
+    Formula b = args.get(1);
+    FormulaType<?> type = target.getFormulaType(a);
+    if (type.isBooleanType()) {
+      return bmgr.equivalence((BooleanFormula) a, (BooleanFormula) b);
+    } else if (type.isBitvectorType()) {
+      return target.getBitvectorFormulaManager().equal((BitvectorFormula) a, (BitvectorFormula) b);
+    } else if (type.isFloatingPointType()) {
+      return target
+          .getFloatingPointFormulaManager()
+          .assignment((FloatingPointFormula) a, (FloatingPointFormula) b);
+    } else if (type.isArrayType()) {
+      return target
+          .getArrayFormulaManager()
+          .equivalence((ArrayFormula<Formula, Formula>) a, (ArrayFormula<Formula, Formula>) b);
+    } else {
+      return getNumeralManager(args).equal((NumeralFormula) a, (NumeralFormula) b);
+    }
+  }
+
+  /** Distinct is dispatched by the type of its arguments, like equality. */
+  private Formula makeDistinct(List<Formula> args) {
+    FormulaType<?> type = target.getFormulaType(args.get(0));
+    if (type.isIntegerType() || type.isRationalType()) {
+      @SuppressWarnings("unchecked")
+      List<NumeralFormula> numeralArgs = (List<NumeralFormula>) (List<?>) args;
+      return getNumeralManager(args).distinct(numeralArgs);
+    }
+    // all other types have no distinct operator, thus all pairs are compared
+    List<BooleanFormula> inequalities = new ArrayList<>();
+    for (int i = 0; i < args.size(); i++) {
+      for (int j = i + 1; j < args.size(); j++) {
+        inequalities.add(
+            bmgr.not((BooleanFormula) makeEqual(ImmutableList.of(args.get(i), args.get(j)))));
+      }
+    }
+    return bmgr.and(inequalities);
+  }
+
+  /** Integer operations are translated with the integer manager, mixed ones as rationals. */
+  @SuppressWarnings("unchecked")
+  private NumeralFormulaManager<NumeralFormula, ?> getNumeralManager(List<Formula> args) {
+    for (Formula arg : args) {
+      if (!target.getFormulaType(arg).isIntegerType()) {
+        return (NumeralFormulaManager<NumeralFormula, ?>)
+            (NumeralFormulaManager<?, ?>) target.getRationalFormulaManager();
+      }
+    }
+    return (NumeralFormulaManager<NumeralFormula, ?>)
+        (NumeralFormulaManager<?, ?>) target.getIntegerFormulaManager();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Formula visitNumeralFunction(
+      Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+    NumeralFormulaManager<NumeralFormula, ?> nmgr = getNumeralManager(args);
+    List<NumeralFormula> nargs = (List<NumeralFormula>) (List<?>) args;
+    switch (functionDeclaration.getKind()) {
+      case ADD:
+        return nmgr.sum(nargs);
+      case SUB:
+        if (nargs.size() == 1) {
+          return nmgr.negate(nargs.get(0));
+        }
+        NumeralFormula difference = nargs.get(0);
+        for (NumeralFormula arg : nargs.subList(1, nargs.size())) {
+          difference = nmgr.subtract(difference, arg);
+        }
+        return difference;
+      case MUL:
+        NumeralFormula product = nargs.get(0);
+        for (NumeralFormula arg : nargs.subList(1, nargs.size())) {
+          product = nmgr.multiply(product, arg);
+        }
+        return product;
+      case DIV:
+        // the type of the division decides between integer and rational division,
+        // the arguments of a rational division can be integers.
+        if (source.getFormulaType(f).isRationalType()) {
+          return target.getRationalFormulaManager().divide(nargs.get(0), nargs.get(1));
+        }
+        return nmgr.divide(nargs.get(0), nargs.get(1));
+      case MODULO:
+        return target
+            .getIntegerFormulaManager()
+            .modulo((IntegerFormula) args.get(0), (IntegerFormula) args.get(1));
+      case UMINUS:
+        return nmgr.negate(nargs.get(0));
+      case LT:
+        return nmgr.lessThan(nargs.get(0), nargs.get(1));
+      case LTE:
+        return nmgr.lessOrEquals(nargs.get(0), nargs.get(1));
+      case GT:
+        return nmgr.greaterThan(nargs.get(0), nargs.get(1));
+      case GTE:
+        return nmgr.greaterOrEquals(nargs.get(0), nargs.get(1));
+      case EQ_ZERO:
+        return nmgr.equal(nargs.get(0), nmgr.makeNumber(0));
+      case GTE_ZERO:
+        return nmgr.greaterOrEquals(nargs.get(0), nmgr.makeNumber(0));
+      case FLOOR:
+        return target.getRationalFormulaManager().floor(nargs.get(0));
+      default:
+        throw new UnsupportedTranslationException(
+            "operator " + functionDeclaration + " in formula " + f);
+    }
+  }
+
+  private Formula visitBitvectorFunction(
+      Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+    BitvectorFormulaManager bvmgr = target.getBitvectorFormulaManager();
+    BitvectorFormula first = (BitvectorFormula) args.get(0);
+    BitvectorFormula second = args.size() > 1 ? (BitvectorFormula) args.get(1) : null;
+    switch (functionDeclaration.getKind()) {
+      case BV_NOT:
+        return bvmgr.not(first);
+      case BV_NEG:
+        return bvmgr.negate(first);
+      case BV_SIGN_EXTENSION:
+      case BV_ZERO_EXTENSION:
+        int extensionBits =
+            source.getBitvectorFormulaManager().getLength((BitvectorFormula) f)
+                - bvmgr.getLength(first);
+        return bvmgr.extend(
+            first,
+            extensionBits,
+            functionDeclaration.getKind() == FunctionDeclarationKind.BV_SIGN_EXTENSION);
+      case BV_OR:
+      case BV_AND:
+      case BV_XOR:
+      case BV_ADD:
+      case BV_MUL:
+      case BV_CONCAT:
+        // these operators are associative, some solvers provide them with more than two arguments
+        BitvectorFormula result = first;
+        for (Formula arg : args.subList(1, args.size())) {
+          result =
+              applyBitvectorOperator(bvmgr, functionDeclaration, result, (BitvectorFormula) arg);
+        }
+        return result;
+      case BV_SUB:
+        return bvmgr.subtract(first, second);
+      case BV_SDIV:
+        return bvmgr.divide(first, second, true);
+      case BV_UDIV:
+        return bvmgr.divide(first, second, false);
+      case BV_SREM:
+        return bvmgr.modulo(first, second, true);
+      case BV_UREM:
+        return bvmgr.modulo(first, second, false);
+      case BV_ULT:
+        return bvmgr.lessThan(first, second, false);
+      case BV_SLT:
+        return bvmgr.lessThan(first, second, true);
+      case BV_ULE:
+        return bvmgr.lessOrEquals(first, second, false);
+      case BV_SLE:
+        return bvmgr.lessOrEquals(first, second, true);
+      case BV_UGT:
+        return bvmgr.greaterThan(first, second, false);
+      case BV_SGT:
+        return bvmgr.greaterThan(first, second, true);
+      case BV_UGE:
+        return bvmgr.greaterOrEquals(first, second, false);
+      case BV_SGE:
+        return bvmgr.greaterOrEquals(first, second, true);
+      case BV_SHL:
+        return bvmgr.shiftLeft(first, second);
+      case BV_LSHR:
+        return bvmgr.shiftRight(first, second, false);
+      case BV_ASHR:
+        return bvmgr.shiftRight(first, second, true);
+      default:
+        // BV_EXTRACT needs the indices, casts to FP need the rounding mode.
+        throw new UnsupportedTranslationException(
+            "operator " + functionDeclaration + " in formula " + f);
+    }
+  }
+
+  private static BitvectorFormula applyBitvectorOperator(
+      BitvectorFormulaManager bvmgr,
+      FunctionDeclaration<?> functionDeclaration,
+      BitvectorFormula a,
+      BitvectorFormula b) {
+    switch (functionDeclaration.getKind()) {
+      case BV_OR:
+        return bvmgr.or(a, b);
+      case BV_AND:
+        return bvmgr.and(a, b);
+      case BV_XOR:
+        return bvmgr.xor(a, b);
+      case BV_ADD:
+        return bvmgr.add(a, b);
+      case BV_MUL:
+        return bvmgr.multiply(a, b);
+      case BV_CONCAT:
+        return bvmgr.concat(a, b);
+      default:
+        throw new AssertionError("unexpected operator " + functionDeclaration);
+    }
+  }
+
+  private Formula visitFloatingPointFunction(
+      List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+    FloatingPointFormulaManager fpmgr = target.getFloatingPointFormulaManager();
+    FloatingPointFormula first = (FloatingPointFormula) args.get(0);
+    switch (functionDeclaration.getKind()) {
+      case FP_NEG:
+        return fpmgr.negate(first);
+      case FP_ABS:
+        return fpmgr.abs(first);
+      case FP_MAX:
+        return fpmgr.max(first, (FloatingPointFormula) args.get(1));
+      case FP_MIN:
+        return fpmgr.min(first, (FloatingPointFormula) args.get(1));
+      case FP_LT:
+        return fpmgr.lessThan(first, (FloatingPointFormula) args.get(1));
+      case FP_LE:
+        return fpmgr.lessOrEquals(first, (FloatingPointFormula) args.get(1));
+      case FP_GE:
+        return fpmgr.greaterOrEquals(first, (FloatingPointFormula) args.get(1));
+      case FP_GT:
+        return fpmgr.greaterThan(first, (FloatingPointFormula) args.get(1));
+      case FP_EQ:
+        return fpmgr.equalWithFPSemantics(first, (FloatingPointFormula) args.get(1));
+      case FP_IS_NAN:
+        return fpmgr.isNaN(first);
+      case FP_IS_INF:
+        return fpmgr.isInfinity(first);
+      case FP_IS_ZERO:
+        return fpmgr.isZero(first);
+      case FP_IS_NEGATIVE:
+        return fpmgr.isNegative(first);
+      case FP_IS_SUBNORMAL:
+        return fpmgr.isSubnormal(first);
+      case FP_IS_NORMAL:
+        return fpmgr.isNormal(first);
+      default:
+        // Arithmetic operators and casts depend on a rounding mode,
+        // which is not available in a solver-independent form.
+        throw new UnsupportedTranslationException("operator " + functionDeclaration);
+    }
+  }
+}
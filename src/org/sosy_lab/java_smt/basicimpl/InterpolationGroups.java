@@ -0,0 +1,61 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Helper for solvers that compute a batch of interpolants from one proof.
+ *
+ * <p>An interpolant for a group A against all other formulas is part of an inductive sequence, if
+ * the groups are nested. Thus a solver with native sequence interpolation can answer all queries
+ * with a single call.
+ */
+public final class InterpolationGroups {
+
+  private InterpolationGroups() {}
+
+  /**
+   * Split nested groups of formulas into the partitions of an inductive sequence.
+   *
+   * @param pGroupsOfA groups of formulas such that each group contains the previous one.
+   * @param pAllFormulas all formulas on the prover stack, which are not part of any group form the
+   *     last partition.
+   * @return N+1 non-empty partitions for N groups, such that the i-th interpolant of the sequence
+   *     is the interpolant for the i-th group. An empty result is returned if the groups are not
+   *     nested or a partition would be empty, then the groups need to be handled separately.
+   */
+  public static <T> Optional<List<Set<T>>> toSequence(
+      List<? extends Collection<T>> pGroupsOfA, Collection<T> pAllFormulas) {
+    checkNotNull(pAllFormulas);
+    ImmutableList.Builder<Set<T>> partitions = ImmutableList.builder();
+    Set<T> previous = ImmutableSet.of();
+    for (Collection<T> group : pGroupsOfA) {
+      Set<T> current = ImmutableSet.copyOf(group);
+      if (current.size() <= previous.size() || !current.containsAll(previous)) {
+        return Optional.empty();
+      }
+      partitions.add(Sets.difference(current, previous).immutableCopy());
+      previous = current;
+    }
+    Set<T> rest = Sets.difference(ImmutableSet.copyOf(pAllFormulas), previous).immutableCopy();
+    if (rest.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(partitions.add(rest).build());
+  }
+}
@@ -0,0 +1,57 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class InterpolationGroupsTest {
+
+  private static final ImmutableSet<Integer> ALL = ImmutableSet.of(1, 2, 3, 4, 5);
+
+  @Test
+  public void testNestedGroups() {
+    List<Set<Integer>> partitions =
+        InterpolationGroups.toSequence(
+                ImmutableList.of(
+                    ImmutableSet.of(1), ImmutableSet.of(2, 1), ImmutableSet.of(1, 2, 4)),
+                ALL)
+            .get();
+    assertThat(partitions)
+        .containsExactly(
+            ImmutableSet.of(1), ImmutableSet.of(2), ImmutableSet.of(4), ImmutableSet.of(3, 5))
+        .inOrder();
+  }
+
+  @Test
+  public void testGroupsNotNested() {
+    assertThat(
+            InterpolationGroups.toSequence(
+                ImmutableList.of(ImmutableSet.of(1, 2), ImmutableSet.of(2, 3)), ALL))
+        .isEmpty();
+    assertThat(
+            InterpolationGroups.toSequence(
+                ImmutableList.of(ImmutableSet.of(1), ImmutableSet.of(1)), ALL))
+        .isEmpty();
+  }
+
+  @Test
+  public void testEmptyPartitions() {
+    assertThat(
+            InterpolationGroups.toSequence(ImmutableList.of(ImmutableSet.<Integer>of()), ALL))
+        .isEmpty();
+    assertThat(InterpolationGroups.toSequence(ImmutableList.of(ALL), ALL)).isEmpty();
+  }
+}
@@ -0,0 +1,536 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Solver-independent serialization of a formula into SMT-LIB.
+ *
+ * <p>The formula is traversed once with the visitor of its context and stored as a DAG. Every
+ * compound subterm that is used more than once is written only once as a definition (define-fun)
+ * and referenced by name afterwards, such that the output is linear in the size of the DAG. The
+ * output is appended piecewise to the given {@link Appendable} without building the complete
+ * string in memory.
+ *
+ * <p>Operators without a solver-independent counterpart (e.g., quantifiers, bitvector extraction,
+ * floating-point operations with rounding mode) are not supported, and the caller is expected to
+ * fall back to the solver-specific serialization in that case.
+ */
+final class SmtLibDagPrinter {
+
+  /** Signals that the formula contains an operator that can not be printed generically. */
+  static final class UnsupportedDumpException extends RuntimeException {
+
+    private static final long serialVersionUID = -2740113861497651028L;
+
+    UnsupportedDumpException(String msg) {
+      super(msg);
+    }
+  }
+
+  /**
+   * Prefix for the names of shared subterms. Symbols starting with "." or "@" are reserved for
+   * solver-internal names, and names that are already used in the formula are skipped.
+   */
+  private static final String DEFINITION_PREFIX = "__def_";
+
+  private static final CharMatcher SIMPLE_SYMBOL_CHARS =
+      CharMatcher.inRange('a', 'z')
+          .or(CharMatcher.inRange('A', 'Z'))
+          .or(CharMatcher.inRange('0', '9'))
+          .or(CharMatcher.anyOf("~!@$%^&*_-+=<>.?/"))
+          .precomputed();
+
+  private final FormulaManager fmgr;
+  private final Formula root;
+
+  /** All nodes of the DAG in post-order, i.e., each node after all of its children. */
+  private final Map<Formula, Node> nodes = new LinkedHashMap<>();
+
+  /** Declarations of variables and UFs, sorted by name for a stable output. */
+  private final Map<String, String> declarations = new TreeMap<>();
+
+  private final Set<String> declaredNames = new HashSet<>();
+
+  private SmtLibDagPrinter(FormulaManager pFmgr, BooleanFormula pFormula) {
+    fmgr = checkNotNull(pFmgr);
+    root = checkNotNull(pFormula);
+  }
+
+  /** Create a printer for the given formula, the formula is traversed only when it is printed. */
+  static SmtLibDagPrinter print(FormulaManager pFmgr, BooleanFormula pFormula) {
+    return new SmtLibDagPrinter(pFmgr, pFormula);
+  }
+
+  private void collectNodes() {
+    NodeBuilder builder = new NodeBuilder();
+    Map<Formula, Node> expanded = new HashMap<>();
+    Deque<Formula> waitlist = new ArrayDeque<>();
+    waitlist.push(root);
+    while (!waitlist.isEmpty()) {
+      Formula f = waitlist.peek();
+      if (nodes.containsKey(f)) {
+        waitlist.pop();
+        continue;
+      }
+      Node node = expanded.get(f);
+      if (node == null) {
+        node = fmgr.visit(f, builder);
+        expanded.put(f, node);
+        for (Formula child : node.children) {
+          if (!nodes.containsKey(child)) {
+            waitlist.push(child);
+          }
+        }
+      } else {
+        // all children are finished
+        waitlist.pop();
+        expanded.remove(f);
+        nodes.put(f, node);
+      }
+    }
+  }
+
+  /** Compound nodes with several parents get a definition. */
+  private void nameSharedNodes() {
+    for (Node node : nodes.values()) {
+      for (Formula child : node.children) {
+        nodes.get(child).references++;
+      }
+    }
+    int nextDefinition = 0;
+    for (Node node : nodes.values()) {
+      if (node.references > 1 && !node.children.isEmpty()) {
+        String name;
+        do {
+          name = DEFINITION_PREFIX + nextDefinition++;
+        } while (declaredNames.contains(name));
+        node.name = name;
+        node.sort = toSort(node.type);
+      }
+    }
+  }
+
+  /**
+   * Write the formula as SMT-LIB script. The complete formula is traversed before anything is
+   * written, thus nothing is written if the formula can not be printed.
+   *
+   * @throws UnsupportedDumpException if the formula contains an unsupported operator.
+   */
+  void appendTo(Appendable out) throws IOException {
+    checkNotNull(out);
+    if (nodes.isEmpty()) {
+      collectNodes();
+      nameSharedNodes();
+    }
+    for (String declaration : declarations.values()) {
+      out.append(declaration).append('\n');
+    }
+    for (Node node : nodes.values()) {
+      if (node.name != null) {
+        out.append("(define-fun ").append(node.name).append(" () ").append(node.sort).append(' ');
+        appendTerm(node, out);
+        out.append(")\n");
+      }
+    }
+    out.append("(assert ");
+    appendTerm(nodes.get(root), out);
+    out.append(')');
+  }
+
+  /** Write the term of the node, where all shared subterms are referenced by their name. */
+  private void appendTerm(Node pNode, Appendable out) throws IOException {
+    // contains nodes and strings to be written
+    Deque<Object> waitlist = new ArrayDeque<>();
+    waitlist.push(pNode);
+    while (!waitlist.isEmpty()) {
+      Object next = waitlist.pop();
+      if (next instanceof String) {
+        out.append((String) next);
+        continue;
+      }
+      Node node = (Node) next;
+      if (node.name != null && node != pNode) {
+        out.append(node.name);
+      } else if (node.children.isEmpty()) {
+        out.append(node.operator);
+      } else {
+        out.append('(').append(node.operator);
+        waitlist.push(node.suffix + ")");
+        for (Formula child : Lists.reverse(node.children)) {
+          waitlist.push(nodes.get(child));
+          waitlist.push(" ");
+        }
+      }
+    }
+  }
+
+  private void declare(String pName, List<FormulaType<?>> pArgTypes, FormulaType<?> pType) {
+    List<String> argSorts = new ArrayList<>(pArgTypes.size());
+    for (FormulaType<?> argType : pArgTypes) {
+      argSorts.add(toSort(argType));
+    }
+    String symbol = quote(pName);
+    declaredNames.add(pName);
+    declarations.put(
+        symbol,
+        "(declare-fun "
+            + symbol
+            + " ("
+            + Joiner.on(' ').join(argSorts)
+            + ") "
+            + toSort(pType)
+            + ")");
+  }
+
+  /**
+   * Quote symbols if required.
+   *
+   * <p>See http://smtlib.cs.uiowa.edu/papers/smt-lib-reference-v2.6-r2017-07-18.pdf, Section 3.1.
+   * "Symbols"
+   */
+  private static String quote(String pName) {
+    if (Strings.isNullOrEmpty(pName) || CharMatcher.anyOf("|\\").matchesAnyOf(pName)) {
+      throw new UnsupportedDumpException("symbol " + pName);
+    }
+    if (SIMPLE_SYMBOL_CHARS.matchesAllOf(pName)
+        && !CharMatcher.inRange('0', '9').matches(pName.charAt(0))
+        && !AbstractFormulaManager.SMTLIB2_KEYWORDS.contains(pName)) {
+      return pName;
+    }
+    return "|" + pName + "|";
+  }
+
+  private static String toSort(FormulaType<?> pType) {
+    if (pType.isBooleanType()) {
+      return "Bool";
+    } else if (pType.isIntegerType()) {
+      return "Int";
+    } else if (pType.isRationalType()) {
+      return "Real";
+    } else if (pType.isBitvectorType()) {
+      return "(_ BitVec " + ((BitvectorType) pType).getSize() + ")";
+    } else if (pType.isFloatingPointType()) {
+      FloatingPointType fpType = (FloatingPointType) pType;
+      // SMT-LIB counts the hidden bit of the significand
+      return "(_ FloatingPoint "
+          + fpType.getExponentSize()
+          + " "
+          + (fpType.getMantissaSize() + 1)
+          + ")";
+    } else if (pType.isFloatingPointRoundingModeType()) {
+      return "RoundingMode";
+    } else if (pType.isArrayType()) {
+      ArrayFormulaType<?, ?> arrayType = (ArrayFormulaType<?, ?>) pType;
+      return "(Array "
+          + toSort(arrayType.getIndexType())
+          + " "
+          + toSort(arrayType.getElementType())
+          + ")";
+    }
+    throw new UnsupportedDumpException("sort " + pType);
+  }
+
+  private static String toConstant(FormulaType<?> pType, Object pValue) {
+    if (pType.isBooleanType() && pValue instanceof Boolean) {
+      return pValue.toString();
+    } else if (pType.isIntegerType() && pValue instanceof BigInteger) {
+      return toNumeral((BigInteger) pValue, false);
+    } else if (pType.isRationalType() && pValue instanceof BigInteger) {
+      return toNumeral((BigInteger) pValue, true);
+    } else if (pType.isRationalType() && pValue instanceof Rational) {
+      Rational value = (Rational) pValue;
+      if (value.getDen().equals(BigInteger.ONE)) {
+        return toNumeral(value.getNum(), true);
+      }
+      return "(/ " + toNumeral(value.getNum(), true) + " " + toNumeral(value.getDen(), true) + ")";
+    } else if (pType.isRationalType() && pValue instanceof BigDecimal) {
+      BigDecimal value = (BigDecimal) pValue;
+      String decimal = value.abs().toPlainString();
+      if (decimal.indexOf('.') < 0) {
+        decimal += ".0";
+      }
+      return value.signum() < 0 ? "(- " + decimal + ")" : decimal;
+    } else if (pType.isBitvectorType() && pValue instanceof BigInteger) {
+      int size = ((BitvectorType) pType).getSize();
+      BigInteger value = ((BigInteger) pValue).mod(BigInteger.ONE.shiftLeft(size));
+      return "#b" + Strings.padStart(value.toString(2), size, '0');
+    }
+    throw new UnsupportedDumpException("constant " + pValue + " of type " + pType);
+  }
+
+  private static String toNumeral(BigInteger pValue, boolean pIsReal) {
+    String numeral = pValue.abs().toString() + (pIsReal ? ".0" : "");
+    return pValue.signum() < 0 ? "(- " + numeral + ")" : numeral;
+  }
+
+  private static final class Node {
+    /** The operator of a function application, or the complete term of a leaf. */
+    private final String operator;
+
+    private final ImmutableList<Formula> children;
+
+    /** Additional arguments that are written after the children. */
+    private final String suffix;
+
+    private final FormulaType<?> type;
+
+    private int references = 0;
+
+    /** The name of the definition, if the node is shared. */
+    private @Nullable String name = null;
+
+    private @Nullable String sort = null;
+
+    private Node(String pOperator, List<Formula> pChildren, String pSuffix, FormulaType<?> pType) {
+      operator = pOperator;
+      children = ImmutableList.copyOf(pChildren);
+      suffix = pSuffix;
+      type = pType;
+    }
+
+    private Node(String pTerm, FormulaType<?> pType) {
+      this(pTerm, ImmutableList.of(), "", pType);
+    }
+  }
+
+  /** Creates a node for a single formula, without visiting the children. */
+  private final class NodeBuilder implements FormulaVisitor<Node> {
+
+    @Override
+    public Node visitFreeVariable(Formula f, String name) {
+      FormulaType<?> type = fmgr.getFormulaType(f);
+      declare(name, ImmutableList.of(), type);
+      return new Node(quote(name), type);
+    }
+
+    @Override
+    public Node visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedDumpException("bound variable " + f);
+    }
+
+    @Override
+    public Node visitConstant(Formula f, Object value) {
+      FormulaType<?> type = fmgr.getFormulaType(f);
+      return new Node(toConstant(type, value), type);
+    }
+
+    @Override
+    public Node visitQuantifier(
+        BooleanFormula f,
+        Quantifier quantifier,
+        List<Formula> boundVariables,
+        BooleanFormula body) {
+      throw new UnsupportedDumpException("quantified formula " + f);
+    }
+
+    @Override
+    public Node visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      FormulaType<?> type = fmgr.getFormulaType(f);
+      switch (functionDeclaration.getKind()) {
+        case UF:
+          declare(functionDeclaration.getName(), functionDeclaration.getArgumentTypes(), type);
+          return new Node(quote(functionDeclaration.getName()), args, "", type);
+        case VAR:
+          if (args.isEmpty()) {
+            return visitFreeVariable(f, functionDeclaration.getName());
+          }
+          break;
+        case EQ_ZERO:
+          return new Node("=", args, zeroOf(args.get(0)), type);
+        case GTE_ZERO:
+          return new Node(">=", args, zeroOf(args.get(0)), type);
+        case BV_SIGN_EXTENSION:
+        case BV_ZERO_EXTENSION:
+          FormulaType<?> argType = fmgr.getFormulaType(args.get(0));
+          int extensionBits =
+              ((BitvectorType) type).getSize() - ((BitvectorType) argType).getSize();
+          String extension =
+              functionDeclaration.getKind() == FunctionDeclarationKind.BV_SIGN_EXTENSION
+                  ? "sign_extend"
+                  : "zero_extend";
+          return new Node("(_ " + extension + " " + extensionBits + ")", args, "", type);
+        case DIV:
+          return new Node(type.isIntegerType() ? "div" : "/", args, "", type);
+        default:
+          String operator = getOperator(functionDeclaration.getKind());
+          if (operator != null && !args.isEmpty()) {
+            return new Node(operator, args, "", type);
+          }
+      }
+      throw new UnsupportedDumpException("operator " + functionDeclaration + " in formula " + f);
+    }
+
+    private String zeroOf(Formula pFormula) {
+      return fmgr.getFormulaType(pFormula).isIntegerType() ? " 0" : " 0.0";
+    }
+  }
+
+  /** Returns the SMT-LIB operator for kinds that are printed with their arguments unchanged. */
+  private static @Nullable String getOperator(FunctionDeclarationKind pKind) {
+    switch (pKind) {
+      case AND:
+        return "and";
+      case OR:
+        return "or";
+      case NOT:
+        return "not";
+      case IFF:
+      case EQ:
+      case BV_EQ:
+        return "=";
+      case XOR:
+        return "xor";
+      case IMPLIES:
+        return "=>";
+      case ITE:
+        return "ite";
+      case DISTINCT:
+        return "distinct";
+      case SELECT:
+        return "select";
+      case STORE:
+        return "store";
+      case UMINUS:
+      case SUB:
+        return "-";
+      case ADD:
+        return "+";
+      case MUL:
+        return "*";
+      case MODULO:
+        return "mod";
+      case LT:
+        return "<";
+      case LTE:
+        return "<=";
+      case GT:
+        return ">";
+      case GTE:
+        return ">=";
+      case FLOOR:
+        return "to_int";
+      case BV_CONCAT:
+        return "concat";
+      case BV_NOT:
+        return "bvnot";
+      case BV_NEG:
+        return "bvneg";
+      case BV_OR:
+        return "bvor";
+      case BV_AND:
+        return "bvand";
+      case BV_XOR:
+        return "bvxor";
+      case BV_SUB:
+        return "bvsub";
+      case BV_ADD:
+        return "bvadd";
+      case BV_MUL:
+        return "bvmul";
+      case BV_SDIV:
+        return "bvsdiv";
+      case BV_UDIV:
+        return "bvudiv";
+      case BV_SREM:
+        return "bvsrem";
+      case BV_UREM:
+        return "bvurem";
+      case BV_ULT:
+        return "bvult";
+      case BV_SLT:
+        return "bvslt";
+      case BV_ULE:
+        return "bvule";
+      case BV_SLE:
+        return "bvsle";
+      case BV_UGT:
+        return "bvugt";
+      case BV_SGT:
+        return "bvsgt";
+      case BV_UGE:
+        return "bvuge";
+      case BV_SGE:
+        return "bvsge";
+      case BV_SHL:
+        return "bvshl";
+      case BV_LSHR:
+        return "bvlshr";
+      case BV_ASHR:
+        return "bvashr";
+      case FP_NEG:
+        return "fp.neg";
+      case FP_ABS:
+        return "fp.abs";
+      case FP_MAX:
+        return "fp.max";
+      case FP_MIN:
+        return "fp.min";
+      case FP_LT:
+        return "fp.lt";
+      case FP_LE:
+        return "fp.leq";
+      case FP_GE:
+        return "fp.geq";
+      case FP_GT:
+        return "fp.gt";
+      case FP_EQ:
+        return "fp.eq";
+      case FP_IS_NAN:
+        return "fp.isNaN";
+      case FP_IS_INF:
+        return "fp.isInfinite";
+      case FP_IS_ZERO:
+        return "fp.isZero";
+      case FP_IS_NEGATIVE:
+        return "fp.isNegative";
+      case FP_IS_SUBNORMAL:
+        return "fp.isSubnormal";
+      case FP_IS_NORMAL:
+        return "fp.isNormal";
+      default:
+        // BV_EXTRACT needs the indices, casts and FP arithmetic need the rounding mode.
+        return null;
+    }
+  }
+}
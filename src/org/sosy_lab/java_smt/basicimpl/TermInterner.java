@@ -0,0 +1,67 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hash-consing of solver terms that are plain Java objects with structural {@link Object#equals}.
+ *
+ * <p>After interning, structurally equal terms are reference-equal. This reduces the memory for
+ * repeatedly built terms and makes caches based on {@link Object#equals} and {@link
+ * Object#hashCode} cheaper, because most comparisons succeed on the reference already. The table
+ * holds its terms weakly, thus terms that are no longer referenced can be garbage collected.
+ *
+ * <p>The interner counts how often a term was already contained in the table. Each such hit is a
+ * duplicate term object that is released directly after its creation.
+ */
+public final class TermInterner<T> {
+
+  private final Interner<T> interner = Interners.newWeakInterner();
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+
+  /** Returns the canonical instance that is structurally equal to the given term. */
+  public T intern(T pTerm) {
+    checkNotNull(pTerm);
+    T canonical = interner.intern(pTerm);
+    lookups.increment();
+    if (canonical != pTerm) {
+      hits.increment();
+    }
+    return canonical;
+  }
+
+  /** Returns the number of interned terms. */
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  /** Returns the number of terms that were replaced by an existing equal term. */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** Returns the fraction of interned terms that were replaced by an existing equal term. */
+  public double getSharingRatio() {
+    long total = getLookups();
+    return total == 0 ? 0 : (double) getHits() / total;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d terms interned, %d duplicates released (sharing ratio %.1f%%)",
+        getLookups(), getHits(), 100 * getSharingRatio());
+  }
+}
@@ -0,0 +1,38 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+
+public class TermInternerTest {
+
+  @Test
+  public void testSharing() {
+    TermInterner<List<String>> interner = new TermInterner<>();
+    List<String> first = interner.intern(ImmutableList.of("a", "b"));
+    List<String> second = interner.intern(ImmutableList.of("a", "b"));
+    List<String> other = interner.intern(ImmutableList.of("b", "a"));
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(other).isNotSameInstanceAs(first);
+    assertThat(interner.getLookups()).isEqualTo(3);
+    assertThat(interner.getHits()).isEqualTo(1);
+    assertThat(interner.getSharingRatio()).isWithin(1e-9).of(1.0 / 3);
+  }
+
+  @Test
+  public void testEmpty() {
+    TermInterner<String> interner = new TermInterner<>();
+    assertThat(interner.getSharingRatio()).isEqualTo(0.0);
+  }
+}
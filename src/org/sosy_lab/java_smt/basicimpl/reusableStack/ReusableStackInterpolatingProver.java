@@ -28,6 +28,12 @@ public class ReusableStackInterpolatingProver<T>
     return delegate.getInterpolant(pFormulasOfA);
   }
 
+  @Override
+  public List<BooleanFormula> getInterpolants(List<? extends Collection<T>> pGroupsOfA)
+      throws SolverException, InterruptedException {
+    return delegate.getInterpolants(pGroupsOfA);
+  }
+
   @Override
   public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> pPartitionedFormulas)
       throws SolverException, InterruptedException {
@@ -0,0 +1,343 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Best-effort quantifier elimination by substitution of definitional equalities.
+ *
+ * <p>A quantifier {@code exists x . (x = t && phi)} is rewritten to {@code phi[x := t]}, and dually
+ * {@code forall x . (x != t || phi)} to {@code phi[x := t]}, if {@code t} does not contain {@code
+ * x}. A quantifier whose body does not contain any bound variable any more is dropped.
+ *
+ * <p>The bodies reported by the visitor refer to bound variables by their de Bruijn index, where
+ * the indices from zero up to the number of variables bound by the quantifier refer to this
+ * quantifier. A quantifier without metadata about its bound variables binds a single variable, as
+ * in {@link org.sosy_lab.java_smt.api.QuantifiedFormulaManager#mkQuantifier} with an empty list.
+ * Directly nested quantifiers of the same kind are handled as one block, and the block must have a
+ * quantifier-free body. As the transformation proceeds bottom-up, inner quantifiers are eliminated
+ * first, which might enable the elimination of outer ones. The bound variables of a quantifier that
+ * is kept are not changed, because this would require re-indexing the body.
+ */
+public class LightQuantifierEliminationVisitor extends FormulaTransformationVisitor {
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+
+  public LightQuantifierEliminationVisitor(FormulaManager pFmgr) {
+    super(pFmgr);
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+  }
+
+  @Override
+  public BooleanFormula visitQuantifier(
+      BooleanFormula f,
+      Quantifier quantifier,
+      List<Formula> boundVariables,
+      BooleanFormula transformedBody) {
+    // Nested quantifiers of the same kind are handled as one block, because the variables of an
+    // outer quantifier can only be eliminated together with the inner ones.
+    int ownBound = countBoundVariables(boundVariables);
+    int numBound = ownBound;
+    BooleanFormula body = transformedBody;
+    NestedQuantifier nested;
+    while ((nested = fmgr.visit(body, NESTED_QUANTIFIER)) != null
+        && nested.quantifier == quantifier) {
+      numBound += countBoundVariables(nested.boundVariables);
+      body = nested.body;
+    }
+    BodyInfo info = analyze(body);
+    if (info.containsQuantifier) {
+      return super.visitQuantifier(f, quantifier, boundVariables, transformedBody);
+    }
+    boolean exists = quantifier == Quantifier.EXISTS;
+
+    // For EXISTS, the definitions are conjuncts of the body, for FORALL negated disjuncts.
+    List<BooleanFormula> parts =
+        new ArrayList<>(
+            exists ? bfmgr.toConjunctionArgs(body, true) : bfmgr.toDisjunctionArgs(body, true));
+    boolean changed = false;
+    Definition definition;
+    while ((definition = findDefinition(parts, numBound, exists)) != null) {
+      parts.remove(definition.position);
+      BoundVariableSubstitution substitution =
+          new BoundVariableSubstitution(definition.variable, definition.value);
+      for (int i = 0; i < parts.size(); i++) {
+        parts.set(i, fmgr.transformRecursively(parts.get(i), substitution));
+      }
+      changed = true;
+    }
+    if (changed) {
+      body = exists ? bfmgr.and(parts) : bfmgr.or(parts);
+      info = analyze(body);
+    }
+
+    if (!info.containsBoundVariable) {
+      // the quantifiers do not bind anything, and no indices need to be shifted.
+      return body;
+    } else if (changed && numBound == ownBound) {
+      // unused bound variables are kept, removing them would require re-indexing the body.
+      return super.visitQuantifier(f, quantifier, boundVariables, body);
+    } else {
+      return super.visitQuantifier(f, quantifier, boundVariables, transformedBody);
+    }
+  }
+
+  /** Without metadata, a quantifier binds a single variable, as with {@code mkQuantifier}. */
+  private static int countBoundVariables(List<Formula> pBoundVariables) {
+    return pBoundVariables.isEmpty() ? 1 : pBoundVariables.size();
+  }
+
+  private static final class NestedQuantifier {
+    private final Quantifier quantifier;
+    private final List<Formula> boundVariables;
+    private final BooleanFormula body;
+
+    private NestedQuantifier(
+        Quantifier pQuantifier, List<Formula> pBoundVariables, BooleanFormula pBody) {
+      quantifier = pQuantifier;
+      boundVariables = pBoundVariables;
+      body = pBody;
+    }
+  }
+
+  private static final DefaultFormulaVisitor<@Nullable NestedQuantifier> NESTED_QUANTIFIER =
+      new DefaultFormulaVisitor<@Nullable NestedQuantifier>() {
+        @Override
+        protected @Nullable NestedQuantifier visitDefault(Formula pF) {
+          return null;
+        }
+
+        @Override
+        public NestedQuantifier visitQuantifier(
+            BooleanFormula pF,
+            Quantifier pQuantifier,
+            List<Formula> pBoundVariables,
+            BooleanFormula pBody) {
+          return new NestedQuantifier(pQuantifier, pBoundVariables, pBody);
+        }
+      };
+
+  /** A definition "variable = value" at the given position of the conjuncts or disjuncts. */
+  private static final class Definition {
+    private final int position;
+    private final Formula variable;
+    private final Formula value;
+
+    private Definition(int pPosition, Formula pVariable, Formula pValue) {
+      position = pPosition;
+      variable = pVariable;
+      value = pValue;
+    }
+  }
+
+  private @Nullable Definition findDefinition(
+      List<BooleanFormula> pParts, int pNumBound, boolean pExists) {
+    for (int i = 0; i < pParts.size(); i++) {
+      List<Formula> equation = fmgr.visit(pParts.get(i), new EquationExtractor(!pExists));
+      for (int j = 0; j + 1 < equation.size(); j += 2) {
+        Formula variable = equation.get(j);
+        Formula value = equation.get(j + 1);
+        int index = fmgr.visit(variable, BOUND_VARIABLE_INDEX);
+        if (0 <= index && index < pNumBound && !contains(value, variable)) {
+          return new Definition(i, variable, value);
+        }
+      }
+    }
+    return null;
+  }
+
+  private boolean contains(Formula pFormula, Formula pBoundVariable) {
+    boolean[] found = {false};
+    fmgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<TraversalProcess>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitBoundVariable(Formula pF, int pDeBruijnIdx) {
+            if (pF.equals(pBoundVariable)) {
+              found[0] = true;
+              return TraversalProcess.ABORT;
+            }
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return found[0];
+  }
+
+  private static final class BodyInfo {
+    private boolean containsQuantifier = false;
+    private boolean containsBoundVariable = false;
+  }
+
+  private BodyInfo analyze(BooleanFormula pBody) {
+    BodyInfo info = new BodyInfo();
+    fmgr.visitRecursively(
+        pBody,
+        new DefaultFormulaVisitor<TraversalProcess>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitBoundVariable(Formula pF, int pDeBruijnIdx) {
+            info.containsBoundVariable = true;
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitQuantifier(
+              BooleanFormula pF,
+              Quantifier pQuantifier,
+              List<Formula> pBoundVariables,
+              BooleanFormula pBody) {
+            info.containsQuantifier = true;
+            return TraversalProcess.ABORT;
+          }
+        });
+    return info;
+  }
+
+  private static final DefaultFormulaVisitor<Integer> BOUND_VARIABLE_INDEX =
+      new DefaultFormulaVisitor<Integer>() {
+        @Override
+        protected Integer visitDefault(Formula pF) {
+          return -1;
+        }
+
+        @Override
+        public Integer visitBoundVariable(Formula pF, int pDeBruijnIdx) {
+          return pDeBruijnIdx;
+        }
+      };
+
+  /**
+   * Returns the possible orientations "variable, value" of an equation, as flat list of pairs, or
+   * an empty list if the formula is not an equation.
+   */
+  private final class EquationExtractor extends DefaultFormulaVisitor<List<Formula>> {
+
+    private final boolean negated;
+
+    private EquationExtractor(boolean pNegated) {
+      negated = pNegated;
+    }
+
+    @Override
+    protected List<Formula> visitDefault(Formula pF) {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public List<Formula> visitFunction(
+        Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+      switch (pFunctionDeclaration.getKind()) {
+        case NOT:
+          if (!negated) {
+            return visitDefault(pF);
+          }
+          return fmgr.visit(pArgs.get(0), new EquationExtractor(false));
+        case EQ:
+        case IFF:
+          if (negated || pArgs.size() != 2) {
+            return visitDefault(pF);
+          }
+          List<Formula> orientations = new ArrayList<>(4);
+          orientations.add(pArgs.get(0));
+          orientations.add(pArgs.get(1));
+          orientations.add(pArgs.get(1));
+          orientations.add(pArgs.get(0));
+          return orientations;
+        case EQ_ZERO:
+          // some solvers represent "a = b" as "a + (-b) = 0".
+          if (negated || pArgs.size() != 1) {
+            return visitDefault(pF);
+          }
+          return fmgr.visit(pArgs.get(0), new SummandExtractor());
+        default:
+          return visitDefault(pF);
+      }
+    }
+  }
+
+  /** Returns the orientations of the equation "summand1 + summand2 = 0" or "variable = 0". */
+  private final class SummandExtractor extends DefaultFormulaVisitor<List<Formula>> {
+
+    @Override
+    protected List<Formula> visitDefault(Formula pF) {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public List<Formula> visitBoundVariable(Formula pF, int pDeBruijnIdx) {
+      List<Formula> orientations = new ArrayList<>(2);
+      if (pF instanceof IntegerFormula) {
+        orientations.add(pF);
+        orientations.add(fmgr.getIntegerFormulaManager().makeNumber(0));
+      }
+      return orientations;
+    }
+
+    @Override
+    public List<Formula> visitFunction(
+        Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+      List<Formula> orientations = new ArrayList<>(4);
+      if (pFunctionDeclaration.getKind() == FunctionDeclarationKind.ADD
+          && pArgs.size() == 2
+          && pArgs.get(0) instanceof IntegerFormula
+          && pArgs.get(1) instanceof IntegerFormula) {
+        IntegerFormula a = (IntegerFormula) pArgs.get(0);
+        IntegerFormula b = (IntegerFormula) pArgs.get(1);
+        orientations.add(a);
+        orientations.add(fmgr.getIntegerFormulaManager().negate(b));
+        orientations.add(b);
+        orientations.add(fmgr.getIntegerFormulaManager().negate(a));
+      }
+      return orientations;
+    }
+  }
+
+  /** Replaces one bound variable in a quantifier-free formula. */
+  private final class BoundVariableSubstitution extends FormulaTransformationVisitor {
+
+    private final Formula variable;
+    private final Formula value;
+
+    private BoundVariableSubstitution(Formula pVariable, Formula pValue) {
+      super(fmgr);
+      variable = pVariable;
+      value = pValue;
+    }
+
+    @Override
+    public Formula visitBoundVariable(Formula f, int deBruijnIdx) {
+      return f.equals(variable) ? value : f;
+    }
+  }
+}
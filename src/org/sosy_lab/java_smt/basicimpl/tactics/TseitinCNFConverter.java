@@ -0,0 +1,466 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Generic Tseitin transformation of a formula into an equisatisfiable formula in CNF.
+ *
+ * <p>The Boolean structure of the formula is collected with {@link
+ * FormulaManager#visitRecursively}, thus the transformation does not use Java recursion and visits
+ * shared subterms only once. Each shared connective is defined by a single auxiliary variable.
+ * Theory atoms, quantified formulas, and uninterpreted predicates are kept as they are.
+ *
+ * <p>With polarity reduction (Plaisted-Greenbaum), a connective that occurs only positively (or
+ * only negatively) is defined by one direction of the equivalence with its auxiliary variable,
+ * which roughly halves the number of clauses.
+ *
+ * <p>The clauses are given to a consumer one by one, thus the CNF of a huge formula never needs to
+ * be materialized as a single term.
+ */
+public final class TseitinCNFConverter {
+
+  /** Prefix for the names of the auxiliary variables. */
+  public static final String AUX_VARIABLE_PREFIX = "__tseitin_";
+
+  /**
+   * Auxiliary variables must be fresh across all conversions with the same formula manager, as
+   * their definitions differ. The formula managers are compared by identity and not kept alive.
+   */
+  private static final ConcurrentMap<FormulaManager, UniqueIdGenerator> auxVariableIds =
+      new MapMaker().weakKeys().makeMap();
+
+  private static final int POSITIVE = 1;
+  private static final int NEGATIVE = 2;
+  private static final int BOTH = POSITIVE | NEGATIVE;
+
+  private enum GateKind {
+    AND,
+    OR,
+    IFF,
+    ITE,
+  }
+
+  /** A formula or its negation. */
+  private static final class Literal {
+    private final BooleanFormula formula;
+    private final boolean negated;
+
+    private Literal(BooleanFormula pFormula, boolean pNegated) {
+      formula = pFormula;
+      negated = pNegated;
+    }
+
+    private Literal negate() {
+      return new Literal(formula, !negated);
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof Literal)) {
+        return false;
+      }
+      Literal other = (Literal) pOther;
+      return negated == other.negated && formula.equals(other.formula);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(formula, negated);
+    }
+  }
+
+  /** A Boolean connective, its children are not yet resolved through negations. */
+  private static final class Gate {
+    private final GateKind kind;
+    private final List<Literal> children;
+
+    private Gate(GateKind pKind, List<Literal> pChildren) {
+      kind = pKind;
+      children = pChildren;
+    }
+  }
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+  private final boolean polarityReduction;
+  private final UniqueIdGenerator auxVariableIdGenerator;
+
+  /**
+   * Create a converter.
+   *
+   * @param pFmgr the formula manager of the formulas to convert.
+   * @param pPolarityReduction whether to define connectives only in the direction in which they
+   *     are used (Plaisted-Greenbaum), instead of with a full equivalence.
+   */
+  public TseitinCNFConverter(FormulaManager pFmgr, boolean pPolarityReduction) {
+    fmgr = checkNotNull(pFmgr);
+    bfmgr = pFmgr.getBooleanFormulaManager();
+    polarityReduction = pPolarityReduction;
+    auxVariableIdGenerator = auxVariableIds.computeIfAbsent(pFmgr, m -> new UniqueIdGenerator());
+  }
+
+  /**
+   * Convert the formula and return the conjunction of all clauses.
+   *
+   * <p>The result is equisatisfiable to the input, and every model of the result is a model of the
+   * input.
+   */
+  public BooleanFormula toCNF(BooleanFormula pFormula) {
+    List<BooleanFormula> clauses = new ArrayList<>();
+    convert(pFormula, clause -> clauses.add(bfmgr.or(clause)));
+    return bfmgr.and(clauses);
+  }
+
+  /**
+   * Convert the formula and give each clause to the consumer. A clause is the list of its literals,
+   * i.e., of atoms and negated atoms. The empty clause denotes {@code false}.
+   */
+  public void convert(BooleanFormula pFormula, Consumer<List<BooleanFormula>> pClauseConsumer) {
+    checkNotNull(pClauseConsumer);
+    new Conversion(pClauseConsumer).run(pFormula);
+  }
+
+  /** The state of a single conversion. */
+  private final class Conversion {
+
+    private final Consumer<List<BooleanFormula>> clauseConsumer;
+
+    /** Negations by their operand. */
+    private final Map<BooleanFormula, BooleanFormula> negations = new HashMap<>();
+
+    private final Map<BooleanFormula, Gate> gates = new HashMap<>();
+
+    /** The polarity of all connectives that need a definition, in the order of discovery. */
+    private final Map<BooleanFormula, Integer> polarities = new LinkedHashMap<>();
+
+    private final Map<BooleanFormula, BooleanFormula> auxVariables = new HashMap<>();
+
+    /** Names of the symbols in the input, the auxiliary variables must not use them. */
+    private Set<String> usedNames = ImmutableSet.of();
+
+    private Conversion(Consumer<List<BooleanFormula>> pClauseConsumer) {
+      clauseConsumer = pClauseConsumer;
+    }
+
+    private void run(BooleanFormula pFormula) {
+      usedNames = fmgr.extractVariablesAndUFs(pFormula).keySet();
+      fmgr.visitRecursively(pFormula, new StructureCollector());
+      Deque<BooleanFormula> worklist = new ArrayDeque<>();
+      emitTopLevelClauses(resolve(new Literal(pFormula, false)), worklist);
+      propagatePolarities(worklist);
+      for (Map.Entry<BooleanFormula, Integer> entry : polarities.entrySet()) {
+        emitDefinition(entry.getKey(), entry.getValue());
+      }
+    }
+
+    /**
+     * Top-level conjunctions are split into separate clauses and top-level disjunctions are clauses
+     * by themselves, such that they need no auxiliary variable.
+     */
+    private void emitTopLevelClauses(Literal pRoot, Deque<BooleanFormula> pWorklist) {
+      Deque<Literal> waitlist = new ArrayDeque<>();
+      Set<Literal> seen = new HashSet<>();
+      waitlist.push(pRoot);
+      while (!waitlist.isEmpty()) {
+        Literal literal = waitlist.pop();
+        if (!seen.add(literal)) {
+          continue;
+        }
+        Gate gate = gates.get(literal.formula);
+        if (gate != null && isConjunction(gate, literal.negated)) {
+          for (Literal child : gate.children) {
+            waitlist.push(resolve(literal.negated ? child.negate() : child));
+          }
+        } else if (gate != null && isConjunction(gate, !literal.negated)) {
+          List<Literal> clause = new ArrayList<>();
+          for (Literal child : gate.children) {
+            clause.add(resolve(literal.negated ? child.negate() : child));
+          }
+          emitTopLevelClause(clause, pWorklist);
+        } else if (!isConstant(literal, true)) {
+          emitTopLevelClause(ImmutableList.of(literal), pWorklist);
+        }
+      }
+    }
+
+    private boolean isConjunction(Gate pGate, boolean pNegated) {
+      return pGate.kind == (pNegated ? GateKind.OR : GateKind.AND);
+    }
+
+    private boolean isConstant(Literal pLiteral, boolean pValue) {
+      return pValue != pLiteral.negated
+          ? bfmgr.isTrue(pLiteral.formula)
+          : bfmgr.isFalse(pLiteral.formula);
+    }
+
+    private void emitTopLevelClause(List<Literal> pClause, Deque<BooleanFormula> pWorklist) {
+      List<BooleanFormula> clause = new ArrayList<>(pClause.size());
+      for (Literal literal : pClause) {
+        if (isConstant(literal, true)) {
+          return;
+        } else if (!isConstant(literal, false)) {
+          addPolarity(literal, POSITIVE, pWorklist);
+          clause.add(toFormula(literal));
+        }
+      }
+      clauseConsumer.accept(clause);
+    }
+
+    /**
+     * Compute which directions of the definitions are needed. A connective is added to the worklist
+     * whenever its polarity grows, which happens at most twice.
+     */
+    private void propagatePolarities(Deque<BooleanFormula> pWorklist) {
+      while (!pWorklist.isEmpty()) {
+        BooleanFormula formula = pWorklist.pop();
+        int polarity = polarities.get(formula);
+        Gate gate = gates.get(formula);
+        for (int i = 0; i < gate.children.size(); i++) {
+          boolean bothPolarities =
+              gate.kind == GateKind.IFF || (gate.kind == GateKind.ITE && i == 0);
+          addPolarity(
+              resolve(gate.children.get(i)), bothPolarities ? BOTH : polarity, pWorklist);
+        }
+      }
+    }
+
+    private void addPolarity(Literal pLiteral, int pPolarity, Deque<BooleanFormula> pWorklist) {
+      if (!gates.containsKey(pLiteral.formula)) {
+        return;
+      }
+      int polarity = polarityReduction ? pPolarity : BOTH;
+      if (pLiteral.negated && polarity != BOTH) {
+        polarity = BOTH ^ polarity;
+      }
+      int oldPolarity = polarities.getOrDefault(pLiteral.formula, 0);
+      if ((oldPolarity | polarity) != oldPolarity) {
+        polarities.put(pLiteral.formula, oldPolarity | polarity);
+        pWorklist.push(pLiteral.formula);
+      }
+    }
+
+    /** Emit the clauses for the needed directions of "aux variable &lt;=&gt; connective". */
+    private void emitDefinition(BooleanFormula pFormula, int pPolarity) {
+      Gate gate = gates.get(pFormula);
+      Literal aux = new Literal(pFormula, false);
+      List<Literal> children = new ArrayList<>(gate.children.size());
+      for (Literal child : gate.children) {
+        children.add(resolve(child));
+      }
+      boolean positive = (pPolarity & POSITIVE) != 0;
+      boolean negative = (pPolarity & NEGATIVE) != 0;
+      switch (gate.kind) {
+        case AND:
+          if (positive) {
+            for (Literal child : children) {
+              emit(aux.negate(), child);
+            }
+          }
+          if (negative) {
+            emitWithNegatedChildren(aux, children);
+          }
+          break;
+        case OR:
+          if (positive) {
+            List<Literal> clause = new ArrayList<>(children.size() + 1);
+            clause.add(aux.negate());
+            clause.addAll(children);
+            emit(clause);
+          }
+          if (negative) {
+            for (Literal child : children) {
+              emit(aux, child.negate());
+            }
+          }
+          break;
+        case IFF:
+          {
+            Literal a = children.get(0);
+            Literal b = children.get(1);
+            if (positive) {
+              emit(aux.negate(), a.negate(), b);
+              emit(aux.negate(), a, b.negate());
+            }
+            if (negative) {
+              emit(aux, a, b);
+              emit(aux, a.negate(), b.negate());
+            }
+            break;
+          }
+        case ITE:
+          {
+            Literal c = children.get(0);
+            Literal t = children.get(1);
+            Literal e = children.get(2);
+            if (positive) {
+              emit(aux.negate(), c.negate(), t);
+              emit(aux.negate(), c, e);
+            }
+            if (negative) {
+              emit(aux, c.negate(), t.negate());
+              emit(aux, c, e.negate());
+            }
+            break;
+          }
+        default:
+          throw new AssertionError("unexpected connective " + gate.kind);
+      }
+    }
+
+    private void emitWithNegatedChildren(Literal pFirst, List<Literal> pChildren) {
+      List<Literal> clause = new ArrayList<>(pChildren.size() + 1);
+      clause.add(pFirst);
+      for (Literal child : pChildren) {
+        clause.add(child.negate());
+      }
+      emit(clause);
+    }
+
+    private void emit(Literal... pLiterals) {
+      emit(ImmutableList.copyOf(pLiterals));
+    }
+
+    private void emit(List<Literal> pLiterals) {
+      List<BooleanFormula> clause = new ArrayList<>(pLiterals.size());
+      for (Literal literal : pLiterals) {
+        clause.add(toFormula(literal));
+      }
+      clauseConsumer.accept(clause);
+    }
+
+    /** Strip all negations from the formula of the literal. */
+    private Literal resolve(Literal pLiteral) {
+      BooleanFormula formula = pLiteral.formula;
+      boolean negated = pLiteral.negated;
+      BooleanFormula operand;
+      while ((operand = negations.get(formula)) != null) {
+        formula = operand;
+        negated = !negated;
+      }
+      return new Literal(formula, negated);
+    }
+
+    /** Connectives are represented by their auxiliary variable, other formulas by themselves. */
+    private BooleanFormula toFormula(Literal pLiteral) {
+      BooleanFormula formula = pLiteral.formula;
+      if (gates.containsKey(formula)) {
+        formula = auxVariables.computeIfAbsent(formula, f -> makeAuxVariable());
+      }
+      return pLiteral.negated ? bfmgr.not(formula) : formula;
+    }
+
+    private BooleanFormula makeAuxVariable() {
+      String name;
+      do {
+        name = AUX_VARIABLE_PREFIX + auxVariableIdGenerator.getFreshId();
+      } while (usedNames.contains(name));
+      return bfmgr.makeVariable(name);
+    }
+
+    /** Collects the Boolean connectives of the formula, atoms are not traversed. */
+    private final class StructureCollector extends DefaultFormulaVisitor<TraversalProcess> {
+
+      @Override
+      protected TraversalProcess visitDefault(Formula pF) {
+        return TraversalProcess.SKIP;
+      }
+
+      @Override
+      public TraversalProcess visitFunction(
+          Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+        if (!(pF instanceof BooleanFormula)) {
+          return TraversalProcess.SKIP;
+        }
+        BooleanFormula formula = (BooleanFormula) pF;
+        List<Literal> children = new ArrayList<>(pArgs.size());
+        for (Formula arg : pArgs) {
+          if (!(arg instanceof BooleanFormula)) {
+            // e.g., an equality of numbers or an ITE over terms with a Boolean condition.
+            return TraversalProcess.SKIP;
+          }
+          children.add(new Literal((BooleanFormula) arg, false));
+        }
+        GateKind kind = null;
+        switch (pFunctionDeclaration.getKind()) {
+          case NOT:
+            if (children.size() == 1) {
+              negations.put(formula, children.get(0).formula);
+              return TraversalProcess.CONTINUE;
+            }
+            break;
+          case AND:
+            kind = GateKind.AND;
+            break;
+          case OR:
+            kind = GateKind.OR;
+            break;
+          case IMPLIES:
+            if (children.size() == 2) {
+              kind = GateKind.OR;
+              children.set(0, children.get(0).negate());
+            }
+            break;
+          case XOR:
+            if (children.size() == 2) {
+              kind = GateKind.IFF;
+              children.set(1, children.get(1).negate());
+            }
+            break;
+          case IFF:
+          case EQ:
+            if (children.size() == 2) {
+              kind = GateKind.IFF;
+            }
+            break;
+          case ITE:
+            if (children.size() == 3) {
+              kind = GateKind.ITE;
+            }
+            break;
+          default:
+            break;
+        }
+        if (kind == null) {
+          return TraversalProcess.SKIP;
+        }
+        gates.put(formula, new Gate(kind, children));
+        return TraversalProcess.CONTINUE;
+      }
+    }
+  }
+}
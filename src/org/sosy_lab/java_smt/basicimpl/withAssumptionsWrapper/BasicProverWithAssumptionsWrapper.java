@@ -9,6 +9,7 @@
 package org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -29,10 +30,19 @@ public class BasicProverWithAssumptionsWrapper<T, P extends BasicProverEnvironme
   }
 
   protected void clearAssumptions() {
-    for (int i = 0; i < solverAssumptionsAsFormula.size(); i++) {
+    popAssumptions(0);
+  }
+
+  /**
+   * Pop all assumptions from the solver's stack except the first ones.
+   *
+   * @param pRemaining the number of assumptions that stay on the stack.
+   */
+  protected void popAssumptions(int pRemaining) {
+    for (int i = solverAssumptionsAsFormula.size(); i > pRemaining; i--) {
       delegate.pop();
     }
-    solverAssumptionsAsFormula.clear();
+    solverAssumptionsAsFormula.subList(pRemaining, solverAssumptionsAsFormula.size()).clear();
   }
 
   @Override
@@ -59,13 +69,27 @@ public class BasicProverWithAssumptionsWrapper<T, P extends BasicProverEnvironme
     return delegate.isUnsat();
   }
 
+  /**
+   * Check the assumptions by pushing them onto the solver's stack. Assumptions from the previous
+   * query stay on the stack as long as they are a common prefix with the current ones, such that
+   * the solver can reuse its state for them.
+   */
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
       throws SolverException, InterruptedException {
-    clearAssumptions();
-    solverAssumptionsAsFormula.addAll(assumptions);
+    int commonPrefix = 0;
     for (BooleanFormula formula : assumptions) {
-      registerPushedFormula(delegate.push(formula));
+      if (commonPrefix == solverAssumptionsAsFormula.size()
+          || !formula.equals(solverAssumptionsAsFormula.get(commonPrefix))) {
+        break;
+      }
+      commonPrefix++;
+    }
+    popAssumptions(commonPrefix);
+    for (BooleanFormula formula : Iterables.skip(assumptions, commonPrefix)) {
+      T id = delegate.push(formula);
+      solverAssumptionsAsFormula.add(formula);
+      registerPushedFormula(id);
     }
     return delegate.isUnsat();
   }
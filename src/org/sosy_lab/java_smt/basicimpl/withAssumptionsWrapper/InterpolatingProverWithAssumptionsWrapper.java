@@ -81,9 +81,9 @@ public class InterpolatingProverWithAssumptionsWrapper<T>
   }
 
   @Override
-  protected void clearAssumptions() {
-    super.clearAssumptions();
-    solverAssumptionsFromPush.clear();
+  protected void popAssumptions(int pRemaining) {
+    super.popAssumptions(pRemaining);
+    solverAssumptionsFromPush.subList(pRemaining, solverAssumptionsFromPush.size()).clear();
   }
 
   class RemoveAssumptionsFromFormulaVisitor extends BooleanFormulaTransformationVisitor {
@@ -37,6 +37,15 @@ class LoggingInterpolatingProverEnvironment<T> extends LoggingBasicProverEnviron
     return bf;
   }
 
+  @Override
+  public List<BooleanFormula> getInterpolants(List<? extends Collection<T>> groupsOfA)
+      throws SolverException, InterruptedException {
+    logger.log(Level.FINE, "groupsOfA:", groupsOfA);
+    List<BooleanFormula> bf = wrapped.getInterpolants(groupsOfA);
+    logger.log(Level.FINE, "interpolants:", bf);
+    return bf;
+  }
+
   @Override
   public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> partitionedFormulas)
       throws SolverException, InterruptedException {
@@ -0,0 +1,102 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+
+/**
+ * Model of a solver of the portfolio. Formulas are translated from the primary context into the
+ * context of the solver, and the values are translated back into the primary context.
+ */
+class PortfolioModel implements Model {
+
+  private final Model delegate;
+  private final FormulaManager manager;
+  private final FormulaManager otherManager;
+
+  PortfolioModel(Model pDelegate, FormulaManager pManager, FormulaManager pOtherManager) {
+    delegate = checkNotNull(pDelegate);
+    manager = checkNotNull(pManager);
+    otherManager = checkNotNull(pOtherManager);
+  }
+
+  /** Translate a formula of the primary context into the context of the solver. */
+  private <T extends Formula> T toSolver(T pFormula) {
+    return otherManager.translateTermFrom(pFormula, manager);
+  }
+
+  /** Translate a formula of the solver into the primary context. */
+  private <T extends Formula> T fromSolver(T pFormula) {
+    return manager.translateTermFrom(pFormula, otherManager);
+  }
+
+  @Override
+  public <T extends Formula> @Nullable T eval(T pFormula) {
+    T value = delegate.eval(toSolver(pFormula));
+    return value == null ? null : fromSolver(value);
+  }
+
+  @Override
+  public @Nullable Object evaluate(Formula pF) {
+    return delegate.evaluate(toSolver(pF));
+  }
+
+  @Override
+  public @Nullable BigInteger evaluate(IntegerFormula pF) {
+    return delegate.evaluate(toSolver(pF));
+  }
+
+  @Override
+  public @Nullable Rational evaluate(RationalFormula pF) {
+    return delegate.evaluate(toSolver(pF));
+  }
+
+  @Override
+  public @Nullable Boolean evaluate(BooleanFormula pF) {
+    return delegate.evaluate(toSolver(pF));
+  }
+
+  @Override
+  public @Nullable BigInteger evaluate(BitvectorFormula pF) {
+    return delegate.evaluate(toSolver(pF));
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList() {
+    ImmutableList.Builder<ValueAssignment> result = ImmutableList.builder();
+    for (ValueAssignment assignment : delegate.asList()) {
+      result.add(
+          new ValueAssignment(
+              fromSolver(assignment.getKey()),
+              fromSolver(assignment.getValueAsFormula()),
+              fromSolver(assignment.getAssignmentAsFormula()),
+              assignment.getName(),
+              assignment.getValue(),
+              assignment.getArgumentsInterpretation()));
+    }
+    return result.build();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
@@ -0,0 +1,522 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Prover that mirrors its assertion stack into one prover for each solver of the portfolio.
+ *
+ * <p>Each solver of the portfolio uses its own context. A solver that did not answer a query in
+ * time is not stopped, because a request on the shutdown notifier of its context would make the
+ * context unusable, and creating a new context and replaying the assertion stack is expensive.
+ * Instead, the check of the losing solver continues in the background, and the solver skips all
+ * queries until the check is finished. Afterwards its stack is synchronized again, and the solver
+ * takes part in the next query. Running checks are only stopped when the prover is closed.
+ *
+ * <p>Operations on the assertion stack are recorded, and each prover of the portfolio is
+ * synchronized with the recorded stack before a query, such that only the changes since its last
+ * query are replayed. Only a newly created prover has to replay the whole stack.
+ *
+ * <p>All formulas of the primary context are translated in the thread of the caller, the threads
+ * of the portfolio only access their own context.
+ */
+class PortfolioProverEnvironment implements ProverEnvironment {
+
+  /** A solver of the portfolio with its own context and prover. */
+  private static final class SolverInstance {
+
+    private final Solvers solver;
+    private final ShutdownManager shutdownManager;
+    private final SolverContext context;
+    private final FormulaManager manager;
+    private final ProverEnvironment prover;
+
+    /** The levels of the assertion stack that are mirrored in this prover, bottom first. */
+    private final List<MirroredLevel> levels = new ArrayList<>();
+
+    // guarded by this
+    private boolean running = false;
+    private boolean failed = false;
+    private boolean closeRequested = false;
+    private boolean closed = false;
+
+    private SolverInstance(
+        Solvers pSolver,
+        ShutdownManager pShutdownManager,
+        SolverContext pContext,
+        ProverEnvironment pProver) {
+      solver = pSolver;
+      shutdownManager = pShutdownManager;
+      context = pContext;
+      manager = pContext.getFormulaManager();
+      prover = pProver;
+    }
+
+    /**
+     * Submit a query of this prover to the executor. The prover counts as running from now on, such
+     * that its stack is not changed before the query is finished.
+     */
+    private <R> Future<R> submit(CompletionService<R> executor, Callable<R> query) {
+      synchronized (this) {
+        running = true;
+      }
+      return executor.submit(() -> run(query));
+    }
+
+    /** Execute a query of this prover, this is called from a thread of the portfolio. */
+    private <R> R run(Callable<R> query) throws Exception {
+      boolean success = false;
+      try {
+        synchronized (this) {
+          if (closeRequested) {
+            throw new InterruptedException();
+          }
+        }
+        R result = query.call();
+        success = true;
+        return result;
+      } finally {
+        synchronized (this) {
+          running = false;
+          // the prover is in an unknown state after a failure
+          failed |= !success;
+          if (closeRequested) {
+            closeNow();
+          }
+          notifyAll();
+        }
+      }
+    }
+
+    /** Whether the prover is still busy with a query that another solver answered first. */
+    private synchronized boolean isRunning() {
+      return running;
+    }
+
+    private synchronized boolean hasFailed() {
+      return failed;
+    }
+
+    private synchronized void awaitIdle() throws InterruptedException {
+      while (running) {
+        wait();
+      }
+    }
+
+    /** Close the prover and its context, a running query is stopped first. */
+    private synchronized void close(String reason) {
+      if (running) {
+        // the query notices the shutdown request and the thread of the query closes the context.
+        closeRequested = true;
+        shutdownManager.requestShutdown(reason);
+      } else {
+        closeNow();
+      }
+    }
+
+    private synchronized void closeNow() {
+      if (!closed) {
+        closed = true;
+        prover.close();
+        context.close();
+      }
+    }
+  }
+
+  /** A level of the assertion stack of the primary context as it is mirrored in a prover. */
+  private static final class MirroredLevel {
+
+    /** The level of the primary stack, compared by identity. */
+    private final List<BooleanFormula> source;
+
+    /** Maps the asserted formulas of this level to the formulas of the primary context. */
+    private final Map<BooleanFormula, BooleanFormula> assertedFormulas = new HashMap<>();
+
+    /** The number of formulas of the level of the primary stack that are asserted. */
+    private int size = 0;
+
+    private MirroredLevel(List<BooleanFormula> pSource) {
+      source = pSource;
+    }
+  }
+
+  private final PortfolioSolverContext portfolio;
+  private final FormulaManager manager;
+  private final ProverOptions[] options;
+
+  /** All asserted formulas of the primary context, one list for each level of the stack. */
+  private final Deque<List<BooleanFormula>> stack = new ArrayDeque<>();
+
+  /** Usable provers, a missing solver is created when it is needed. */
+  private final Map<Solvers, SolverInstance> instances = new EnumMap<>(Solvers.class);
+
+  /** Solvers that failed to create a prover or to handle the asserted formulas. */
+  private final Set<Solvers> disabledSolvers = EnumSet.noneOf(Solvers.class);
+
+  /** The solver that answered the last query, used for models and unsat cores. */
+  private @Nullable SolverInstance lastWinner = null;
+
+  private boolean closed = false;
+
+  PortfolioProverEnvironment(PortfolioSolverContext pPortfolio, ProverOptions... pOptions) {
+    portfolio = checkNotNull(pPortfolio);
+    manager = portfolio.getFormulaManager();
+    options = pOptions.clone();
+    stack.push(new ArrayList<>()); // initial level
+  }
+
+  @Override
+  public void push() {
+    Preconditions.checkState(!closed);
+    lastWinner = null;
+    stack.push(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    Preconditions.checkState(!closed);
+    Preconditions.checkState(stack.size() > 1, "initial level can not be popped");
+    lastWinner = null;
+    stack.pop();
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    Preconditions.checkState(!closed);
+    lastWinner = null;
+    stack.element().add(pConstraint);
+    return null;
+  }
+
+  /**
+   * Bring the assertion stack of a solver of the portfolio in line with the stack of the primary
+   * context. Levels that were popped are removed, and only formulas and levels that were added
+   * since the last synchronization are asserted. If a formula can not be handled, the solver is
+   * closed and not used anymore.
+   */
+  private boolean synchronize(SolverInstance instance) throws InterruptedException {
+    List<List<BooleanFormula>> levels = Lists.reverse(ImmutableList.copyOf(stack));
+    int common = 0;
+    while (common < instance.levels.size()
+        && common < levels.size()
+        && instance.levels.get(common).source == levels.get(common)) {
+      common++;
+    }
+    // the initial level is never popped, thus it is always shared
+    assert common > 0;
+    while (instance.levels.size() > common) {
+      instance.levels.remove(instance.levels.size() - 1);
+      instance.prover.pop();
+    }
+
+    for (int i = common - 1; i < levels.size(); i++) {
+      if (i == instance.levels.size()) {
+        instance.prover.push();
+        instance.levels.add(new MirroredLevel(levels.get(i)));
+      }
+      MirroredLevel level = instance.levels.get(i);
+      while (level.size < level.source.size()) {
+        BooleanFormula original = level.source.get(level.size);
+        BooleanFormula constraint;
+        try {
+          constraint = instance.manager.translateFrom(original, manager);
+          instance.prover.addConstraint(constraint);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+          disable(instance.solver, e);
+          instance.close("solver was removed from portfolio");
+          return false;
+        }
+        level.assertedFormulas.put(constraint, original);
+        level.size++;
+      }
+    }
+    return true;
+  }
+
+  private void disable(Solvers solver, Exception e) {
+    portfolio
+        .getLogger()
+        .logfUserException(Level.INFO, e, "Solver %s is removed from the portfolio", solver);
+    disabledSolvers.add(solver);
+  }
+
+  /**
+   * Returns the provers of all usable solvers, synchronized with the current assertion stack.
+   * Missing provers are created. Provers that are still busy with an earlier query are skipped,
+   * unless no other prover is available.
+   */
+  private List<SolverInstance> getInstances() throws InterruptedException {
+    List<SolverInstance> result = new ArrayList<>();
+    List<SolverInstance> busy = new ArrayList<>();
+    for (Solvers solver : portfolio.getSolvers()) {
+      if (disabledSolvers.contains(solver)) {
+        continue;
+      }
+      SolverInstance instance = instances.get(solver);
+      if (instance != null && instance.isRunning()) {
+        busy.add(instance);
+        continue;
+      }
+      if (instance != null && instance.hasFailed()) {
+        // a query that was answered by another solver failed later on this prover
+        instances.remove(solver);
+        instance.close("solver failed");
+        instance = null;
+      }
+      if (instance == null) {
+        instance = createInstance(solver);
+      }
+      if (instance == null) {
+        continue;
+      }
+      if (synchronize(instance)) {
+        instances.put(solver, instance);
+        result.add(instance);
+      } else {
+        instances.remove(solver);
+      }
+    }
+    if (result.isEmpty() && !busy.isEmpty()) {
+      SolverInstance instance = busy.get(0);
+      instance.awaitIdle();
+      if (!instance.hasFailed() && synchronize(instance)) {
+        result.add(instance);
+      } else {
+        instances.remove(instance.solver);
+        instance.close("solver failed");
+        return getInstances();
+      }
+    }
+    return result;
+  }
+
+  /** Create a new context and prover for a solver, its assertion stack is still empty. */
+  @SuppressWarnings("resource")
+  private @Nullable SolverInstance createInstance(Solvers solver) throws InterruptedException {
+    ShutdownManager shutdownManager =
+        ShutdownManager.createWithParent(portfolio.getShutdownNotifier());
+    SolverContext context;
+    ProverEnvironment prover;
+    try {
+      context = portfolio.getContextCreator().create(solver, shutdownManager.getNotifier());
+    } catch (InvalidConfigurationException e) {
+      disable(solver, e);
+      return null;
+    }
+    try {
+      prover = context.newProverEnvironment(options);
+    } catch (UnsupportedOperationException e) {
+      disable(solver, e);
+      context.close();
+      return null;
+    }
+
+    SolverInstance instance = new SolverInstance(solver, shutdownManager, context, prover);
+    instance.levels.add(new MirroredLevel(stack.getLast()));
+    return instance;
+  }
+
+  /** Prepares a query for a solver of the portfolio, called in the thread of the caller. */
+  @FunctionalInterface
+  private interface QueryFactory<R> {
+    Callable<R> prepare(SolverInstance instance) throws InterruptedException;
+  }
+
+  /**
+   * Run a query on all solvers of the portfolio concurrently and return the first answer. The other
+   * solvers are not stopped, their provers are reused as soon as their queries are finished.
+   */
+  private <R> R race(QueryFactory<R> queryFactory) throws SolverException, InterruptedException {
+    Preconditions.checkState(!closed);
+    lastWinner = null;
+    List<SolverInstance> participants = getInstances();
+    if (participants.isEmpty()) {
+      throw new SolverException(
+          "None of the solvers " + portfolio.getSolvers() + " can handle the asserted formulas");
+    }
+
+    CompletionService<R> completionService =
+        new ExecutorCompletionService<>(portfolio.getExecutor());
+    Map<Future<R>, SolverInstance> running = new LinkedHashMap<>();
+    for (SolverInstance instance : participants) {
+      Callable<R> query = queryFactory.prepare(instance);
+      running.put(instance.submit(completionService, query), instance);
+    }
+
+    @Nullable SolverException failure = null;
+    while (!running.isEmpty()) {
+      Future<R> future = completionService.take();
+      SolverInstance instance = running.remove(future);
+      try {
+        R result = future.get();
+        lastWinner = instance;
+        portfolio.addWin(instance.solver);
+        return result;
+      } catch (ExecutionException e) {
+        // The prover is in an unknown state, it is created again for the next query.
+        instances.remove(instance.solver);
+        instance.close("solver failed");
+        Throwable cause = e.getCause();
+        if (cause instanceof SolverException) {
+          if (failure == null) {
+            failure = (SolverException) cause;
+          }
+        } else if (!(cause instanceof InterruptedException)) {
+          disable(instance.solver, e);
+        }
+      }
+    }
+
+    portfolio.getShutdownNotifier().shutdownIfNecessary();
+    if (failure != null) {
+      throw failure;
+    }
+    throw new SolverException("All solvers of the portfolio " + portfolio.getSolvers() + " failed");
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return race(instance -> instance.prover::isUnsat);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return race(
+        instance -> {
+          List<BooleanFormula> assumptions = translate(pAssumptions, manager, instance.manager);
+          return () -> instance.prover.isUnsatWithAssumptions(assumptions);
+        });
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public Model getModel() throws SolverException {
+    Preconditions.checkState(!closed);
+    Preconditions.checkState(lastWinner != null, "no model available for the current stack");
+    return new PortfolioModel(lastWinner.prover.getModel(), manager, lastWinner.manager);
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    Preconditions.checkState(!closed);
+    Preconditions.checkState(lastWinner != null, "no unsat core available for the current stack");
+    ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+    for (BooleanFormula f : lastWinner.prover.getUnsatCore()) {
+      BooleanFormula original = null;
+      for (MirroredLevel level : lastWinner.levels) {
+        original = level.assertedFormulas.get(f);
+        if (original != null) {
+          break;
+        }
+      }
+      result.add(original != null ? original : manager.translateFrom(f, lastWinner.manager));
+    }
+    return result.build();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    Optional<List<BooleanFormula>> core =
+        race(
+            instance -> {
+              List<BooleanFormula> assumptions = translate(pAssumptions, manager, instance.manager);
+              return () -> instance.prover.unsatCoreOverAssumptions(assumptions);
+            });
+    if (core.isPresent()) {
+      SolverInstance winner = checkNotNull(lastWinner);
+      return Optional.of(translate(core.orElseThrow(), winner.manager, manager));
+    } else {
+      return Optional.empty();
+    }
+  }
+
+  /** AllSAT is not parallelized, it is computed by the first usable solver of the portfolio. */
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    Preconditions.checkState(!closed);
+    lastWinner = null;
+    List<SolverInstance> participants = getInstances();
+    if (participants.isEmpty()) {
+      throw new SolverException(
+          "None of the solvers " + portfolio.getSolvers() + " can handle the asserted formulas");
+    }
+    SolverInstance instance = participants.get(0);
+    return instance.prover.allSat(
+        new AllSatCallback<R>() {
+          @Override
+          public void apply(List<BooleanFormula> pModel) {
+            pCallback.apply(translate(pModel, instance.manager, manager));
+          }
+
+          @Override
+          public R getResult() throws InterruptedException {
+            return pCallback.getResult();
+          }
+        },
+        translate(pImportant, manager, instance.manager));
+  }
+
+  private static List<BooleanFormula> translate(
+      Collection<BooleanFormula> fs, FormulaManager from, FormulaManager to) {
+    ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+    for (BooleanFormula f : fs) {
+      result.add(to.translateFrom(f, from));
+    }
+    return result.build();
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      lastWinner = null;
+      for (SolverInstance instance : instances.values()) {
+        instance.close("prover was closed");
+      }
+      instances.clear();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * A solver context that solves each query with a portfolio of solvers.
+ *
+ * <p>Formulas are created with the formula manager of the primary context. A prover of this
+ * context mirrors its assertion stack into provers of several other contexts, one context for each
+ * solver of the portfolio. Satisfiability checks are run on all of them concurrently, the first
+ * answer is returned and the remaining checks continue in the background, such that their contexts
+ * can be reused afterwards. Models and unsat cores are translated back into the primary context.
+ *
+ * <p>Only {@link #newProverEnvironment} is supported, interpolation and optimization are not.
+ */
+public final class PortfolioSolverContext implements SolverContext {
+
+  /** Creates the contexts for the solvers of the portfolio. */
+  @FunctionalInterface
+  public interface SolverContextCreator {
+
+    /**
+     * Create a new context for the given solver.
+     *
+     * @param solver the solver to use.
+     * @param shutdownNotifier the notifier that is used to cancel queries of the new context.
+     */
+    SolverContext create(Solvers solver, ShutdownNotifier shutdownNotifier)
+        throws InvalidConfigurationException;
+  }
+
+  private final SolverContext delegate;
+  private final ImmutableList<Solvers> solvers;
+  private final SolverContextCreator contextCreator;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ExecutorService executor;
+
+  /** Number of queries answered first by each solver. */
+  private final Multiset<Solvers> wins = ConcurrentHashMultiset.create();
+
+  /**
+   * Create a new portfolio context.
+   *
+   * @param pLogger used to report failing solvers.
+   * @param pShutdownNotifier stops all solvers of the portfolio.
+   * @param pDelegate the primary context, its formula manager is used to create formulas.
+   * @param pSolvers the solvers of the portfolio, in order of preference.
+   * @param pContextCreator creates a new context for each prover and solver of the portfolio.
+   */
+  public PortfolioSolverContext(
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      SolverContext pDelegate,
+      List<Solvers> pSolvers,
+      SolverContextCreator pContextCreator) {
+    checkArgument(!pSolvers.isEmpty(), "portfolio needs at least one solver");
+    logger = checkNotNull(pLogger);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    delegate = checkNotNull(pDelegate);
+    solvers = ImmutableList.copyOf(pSolvers);
+    contextCreator = checkNotNull(pContextCreator);
+    executor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setNameFormat("portfolio-solver-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return new PortfolioProverEnvironment(this, pOptions);
+  }
+
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    throw new UnsupportedOperationException("interpolation is not supported with a portfolio");
+  }
+
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    throw new UnsupportedOperationException("optimization is not supported with a portfolio");
+  }
+
+  @Override
+  public String getVersion() {
+    return String.format("Portfolio %s of %s", solvers, delegate.getVersion());
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  /** Returns how many queries were answered first by each solver of the portfolio. */
+  public ImmutableMultiset<Solvers> getWins() {
+    return ImmutableMultiset.copyOf(wins);
+  }
+
+  ImmutableList<Solvers> getSolvers() {
+    return solvers;
+  }
+
+  SolverContextCreator getContextCreator() {
+    return contextCreator;
+  }
+
+  LogManager getLogger() {
+    return logger;
+  }
+
+  ShutdownNotifier getShutdownNotifier() {
+    return shutdownNotifier;
+  }
+
+  ExecutorService getExecutor() {
+    return executor;
+  }
+
+  void addWin(Solvers pSolver) {
+    wins.add(pSolver);
+  }
+
+  @Override
+  public void close() {
+    logger.log(Level.FINE, "Queries answered per solver of the portfolio:", wins);
+    executor.shutdownNow();
+    delegate.close();
+  }
+}
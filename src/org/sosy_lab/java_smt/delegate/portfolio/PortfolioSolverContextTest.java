@@ -0,0 +1,213 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+public class PortfolioSolverContextTest {
+
+  private PortfolioSolverContext context;
+  private BooleanFormulaManager bmgr;
+  private IntegerFormulaManager imgr;
+
+  @Before
+  public void init() throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder().setOption("solver.portfolio", "SMTINTERPOL, PRINCESS").build();
+    SolverContext solverContext =
+        SolverContextFactory.createSolverContext(
+            config, LogManager.createTestLogManager(), ShutdownNotifier.createDummy());
+    assertThat(solverContext).isInstanceOf(PortfolioSolverContext.class);
+    context = (PortfolioSolverContext) solverContext;
+    bmgr = context.getFormulaManager().getBooleanFormulaManager();
+    imgr = context.getFormulaManager().getIntegerFormulaManager();
+  }
+
+  @After
+  public void close() {
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  @Test
+  public void testStack() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(imgr.greaterThan(x, imgr.makeNumber(5)));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.push(imgr.lessThan(x, imgr.makeNumber(3)));
+      assertThat(prover.isUnsat()).isTrue();
+      prover.pop();
+      assertThat(prover.isUnsat()).isFalse();
+    }
+    assertThat(context.getWins()).hasSize(3);
+  }
+
+  @Test
+  public void testStackChangesBetweenQueries() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(imgr.greaterThan(x, imgr.makeNumber(5)));
+      prover.push(imgr.lessThan(x, imgr.makeNumber(3)));
+      assertThat(prover.isUnsat()).isTrue();
+      prover.pop();
+      prover.pop();
+      prover.push(imgr.lessThan(x, imgr.makeNumber(3)));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.addConstraint(imgr.greaterThan(x, imgr.makeNumber(2)));
+      assertThat(prover.isUnsat()).isTrue();
+      prover.pop();
+      assertThat(prover.isUnsat()).isFalse();
+    }
+  }
+
+  @Test
+  public void testSolversAreReused()
+      throws SolverException, InterruptedException, InvalidConfigurationException {
+    LogManager logger = LogManager.createTestLogManager();
+    SolverContextFactory factory =
+        new SolverContextFactory(
+            Configuration.defaultConfiguration(), logger, ShutdownNotifier.createDummy());
+    Multiset<Solvers> createdContexts = ConcurrentHashMultiset.create();
+    try (PortfolioSolverContext portfolio =
+            new PortfolioSolverContext(
+                logger,
+                ShutdownNotifier.createDummy(),
+                factory.generateContext(Solvers.SMTINTERPOL),
+                ImmutableList.of(Solvers.SMTINTERPOL, Solvers.PRINCESS),
+                (solver, notifier) -> {
+                  createdContexts.add(solver);
+                  return new SolverContextFactory(
+                          Configuration.defaultConfiguration(), logger, notifier)
+                      .generateContext(solver);
+                });
+        ProverEnvironment prover = portfolio.newProverEnvironment()) {
+      BooleanFormulaManager pbmgr = portfolio.getFormulaManager().getBooleanFormulaManager();
+      BooleanFormula pa = pbmgr.makeVariable("a");
+      BooleanFormula pb = pbmgr.makeVariable("b");
+      prover.push(pbmgr.or(pa, pb));
+      for (int i = 0; i < 5; i++) {
+        assertThat(prover.isUnsat()).isFalse();
+        prover.push(pbmgr.and(pbmgr.not(pa), pbmgr.not(pb)));
+        assertThat(prover.isUnsat()).isTrue();
+        prover.pop();
+      }
+    }
+    // the losing solvers are not stopped, thus their contexts are never created again
+    assertThat(createdContexts.count(Solvers.SMTINTERPOL)).isEqualTo(1);
+    assertThat(createdContexts.count(Solvers.PRINCESS)).isAtMost(1);
+  }
+
+  @Test
+  public void testModel() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(a, bmgr.not(b)));
+      assertThat(prover.isUnsat()).isFalse();
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(a)).isTrue();
+        assertThat(model.evaluate(b)).isFalse();
+      }
+    }
+  }
+
+  @Test
+  public void testModelWithIntegers() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(imgr.equal(x, imgr.makeNumber(7)));
+      prover.push(imgr.equal(y, imgr.add(x, imgr.makeNumber(1))));
+      assertThat(prover.isUnsat()).isFalse();
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(7));
+        assertThat(model.evaluate(imgr.add(x, y))).isEqualTo(BigInteger.valueOf(15));
+        assertThat(model.eval(y)).isEqualTo(imgr.makeNumber(8));
+
+        Map<Formula, Object> values = new HashMap<>();
+        for (ValueAssignment assignment : model.asList()) {
+          values.put(assignment.getKey(), assignment.getValue());
+        }
+        assertThat(values).containsEntry(x, BigInteger.valueOf(7));
+        assertThat(values).containsEntry(y, BigInteger.valueOf(8));
+      }
+    }
+  }
+
+  @Test
+  public void testUnsatCore() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula positive = imgr.greaterThan(x, imgr.makeNumber(0));
+    BooleanFormula negative = imgr.lessThan(x, imgr.makeNumber(0));
+    BooleanFormula other = bmgr.makeVariable("c");
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE)) {
+      prover.push(positive);
+      prover.push(other);
+      prover.push(negative);
+      assertThat(prover.isUnsat()).isTrue();
+      assertThat(prover.getUnsatCore()).containsAtLeast(positive, negative);
+    }
+  }
+
+  @Test
+  public void testAllSat() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.xor(a, b));
+      ImmutableList.Builder<ImmutableList<BooleanFormula>> models = ImmutableList.builder();
+      prover.allSat(
+          new ProverEnvironment.AllSatCallback<Void>() {
+            @Override
+            public void apply(List<BooleanFormula> pModel) {
+              models.add(ImmutableList.copyOf(pModel));
+            }
+
+            @Override
+            public Void getResult() {
+              return null;
+            }
+          },
+          ImmutableList.of(a, b));
+      assertThat(models.build())
+          .containsExactly(ImmutableList.of(a, bmgr.not(b)), ImmutableList.of(bmgr.not(a), b));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * Publishes the last exported statistics as MXBean in the platform MBean server, such that they
+ * can be inspected with tools like JConsole.
+ *
+ * <p>Latencies are published in nanoseconds with keys like {@code isUnsat.p99}.
+ */
+public final class JmxStatisticsSink implements StatisticsSink, AutoCloseable {
+
+  /** The management interface of the published statistics. */
+  public interface StatisticsMXBean {
+
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getLatencies();
+  }
+
+  private final MBeanServer server;
+  private final ObjectName name;
+  private volatile StatisticsSnapshot last =
+      StatisticsSnapshot.create(ImmutableMap.of(), ImmutableMap.of());
+
+  /**
+   * Register a new MXBean.
+   *
+   * @param pName the object name of the bean, e.g., {@code "org.sosy_lab.java_smt:type=Solver"}.
+   */
+  public JmxStatisticsSink(String pName) throws JMException {
+    server = ManagementFactory.getPlatformMBeanServer();
+    name = new ObjectName(pName);
+    server.registerMBean(
+        new StandardMBean(
+            new StatisticsMXBean() {
+              @Override
+              public Map<String, Long> getCounters() {
+                return last.getCounters();
+              }
+
+              @Override
+              public Map<String, Long> getLatencies() {
+                return flatten(last.getLatencies());
+              }
+            },
+            StatisticsMXBean.class,
+            true),
+        name);
+  }
+
+  private static ImmutableMap<String, Long> flatten(Map<String, LatencySummary> pLatencies) {
+    ImmutableMap.Builder<String, Long> result = ImmutableMap.builder();
+    pLatencies.forEach(
+        (operation, latency) -> {
+          result.put(operation + ".count", latency.getCount());
+          result.put(operation + ".sum", toNanos(latency.getSum()));
+          result.put(operation + ".p50", toNanos(latency.getMedian()));
+          result.put(operation + ".p99", toNanos(latency.get99thPercentile()));
+          result.put(operation + ".max", toNanos(latency.getMax()));
+        });
+    return result.build();
+  }
+
+  private static long toNanos(TimeSpan pTime) {
+    return pTime.getSaturated(TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void export(StatisticsSnapshot pSnapshot) {
+    last = checkNotNull(pSnapshot);
+  }
+
+  /** Unregister the MXBean. */
+  @Override
+  public void close() throws JMException {
+    server.unregisterMBean(name);
+  }
+}
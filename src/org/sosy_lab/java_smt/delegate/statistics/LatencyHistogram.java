@@ -0,0 +1,125 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds.
+ *
+ * <p>The buckets grow exponentially: each power of two is split into {@value #SUB_BUCKETS}
+ * buckets of equal width. Thus percentiles are exact for small values and have a relative error
+ * of at most 1/{@value #SUB_BUCKETS} otherwise. The sum and the maximum are exact.
+ *
+ * <p>Recording is cheap and scales with the number of threads. Reading and resetting is not atomic
+ * with respect to concurrent recordings, i.e., a recording in parallel might be partially missing.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /** Record one interval with the given length in nanoseconds. */
+  void record(long pNanos) {
+    long value = Math.max(0, pNanos);
+    buckets.incrementAndGet(indexOf(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  static int indexOf(long pValue) {
+    if (pValue < SUB_BUCKETS) {
+      return (int) pValue;
+    }
+    int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(pValue) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((pValue >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /** Returns the largest value that is stored in the bucket with the given index. */
+  static long upperBoundOf(int pIndex) {
+    if (pIndex < SUB_BUCKETS) {
+      return pIndex;
+    }
+    int shift = pIndex / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + pIndex % SUB_BUCKETS) << shift;
+    return lowerBound + ((1L << shift) - 1);
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  long getSum() {
+    return sum.sum();
+  }
+
+  long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns an upper bound for the given percentile of all recorded values, or 0 if nothing was
+   * recorded.
+   *
+   * @param pPercentile a value in the interval (0, 100].
+   */
+  long getPercentile(double pPercentile) {
+    checkArgument(0 < pPercentile && pPercentile <= 100, "invalid percentile %s", pPercentile);
+    long[] values = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      values[i] = buckets.get(i);
+      total += values[i];
+    }
+    long rank = (long) Math.ceil(pPercentile / 100 * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += values[i];
+      if (seen >= rank && values[i] > 0) {
+        return Math.min(upperBoundOf(i), getMax());
+      }
+    }
+    return 0;
+  }
+
+  LatencySummary summarize() {
+    return LatencySummary.create(
+        getCount(),
+        toTimeSpan(getSum()),
+        toTimeSpan(getPercentile(50)),
+        toTimeSpan(getPercentile(99)),
+        toTimeSpan(getMax()));
+  }
+
+  void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    max.reset();
+  }
+
+  static TimeSpan toTimeSpan(long pNanos) {
+    return TimeSpan.of(pNanos, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,70 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testBucketBounds() {
+    for (long value : new long[] {0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+      int index = LatencyHistogram.indexOf(value);
+      assertThat(LatencyHistogram.upperBoundOf(index)).isAtLeast(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.upperBoundOf(index - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    assertThat(histogram.getCount()).isEqualTo(100);
+    assertThat(histogram.getSum()).isEqualTo(5_050_000);
+    assertThat(histogram.getMax()).isEqualTo(100_000);
+    assertThat(histogram.getPercentile(50)).isIn(Range.closed(50_000L, 56_250L));
+    assertThat(histogram.getPercentile(99)).isIn(Range.closed(99_000L, 100_000L));
+    assertThat(histogram.getPercentile(100)).isEqualTo(100_000);
+  }
+
+  @Test
+  public void testReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(42);
+    histogram.reset();
+
+    assertThat(histogram.getCount()).isEqualTo(0);
+    assertThat(histogram.getMax()).isEqualTo(0);
+    assertThat(histogram.getPercentile(50)).isEqualTo(0);
+  }
+
+  @Test
+  public void testSnapshot() {
+    SolverStatistics stats = new SolverStatistics();
+    stats.push.increment();
+    stats.unsat.record(10);
+
+    StatisticsSnapshot snapshot = stats.snapshot();
+    assertThat(snapshot.getCounters()).containsEntry("push", 1L);
+    assertThat(snapshot.getLatencies().get("isUnsat").getCount()).isEqualTo(1);
+
+    stats.reset();
+    assertThat(stats.getNumberOfPushQueries()).isEqualTo(0);
+    assertThat(stats.getNumberOfIsUnsatQueries()).isEqualTo(0);
+    assertThat(snapshot.getCounters()).containsEntry("push", 1L);
+  }
+}
@@ -0,0 +1,38 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import com.google.auto.value.AutoValue;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * The latencies of one kind of operation, e.g., of all satisfiability checks.
+ *
+ * <p>Percentiles are approximations that are at most 12.5% larger than the exact value.
+ */
+@AutoValue
+public abstract class LatencySummary {
+
+  static LatencySummary create(
+      long pCount, TimeSpan pSum, TimeSpan pMedian, TimeSpan p99thPercentile, TimeSpan pMax) {
+    return new AutoValue_LatencySummary(pCount, pSum, pMedian, p99thPercentile, pMax);
+  }
+
+  /** Number of finished operations. */
+  public abstract long getCount();
+
+  public abstract TimeSpan getSum();
+
+  /** 50th percentile of the latencies. */
+  public abstract TimeSpan getMedian();
+
+  public abstract TimeSpan get99thPercentile();
+
+  public abstract TimeSpan getMax();
+}
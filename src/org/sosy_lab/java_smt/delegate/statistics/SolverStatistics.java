@@ -8,143 +8,246 @@
 
 package org.sosy_lab.java_smt.delegate.statistics;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import org.sosy_lab.common.time.TimeSpan;
 
+/**
+ * Statistics about the interaction with the solver: counters of operations and latency histograms
+ * of the expensive queries.
+ *
+ * <p>All values are updated without locking, such that measuring does not add contention between
+ * threads. The values of running queries are only counted after the query has finished.
+ */
 public class SolverStatistics {
 
   // prover operations
-  final AtomicInteger provers = new AtomicInteger();
-  final AtomicInteger pop = new AtomicInteger();
-  final AtomicInteger push = new AtomicInteger();
-  final AtomicInteger constraint = new AtomicInteger();
-  final AtomicInteger model = new AtomicInteger();
-  final AtomicInteger unsatCore = new AtomicInteger();
-
-  final TimerPool unsat = new TimerPool();
-  final TimerPool allSat = new TimerPool();
-  final TimerPool interpolation = new TimerPool();
+  final LongAdder provers = new LongAdder();
+  final LongAdder pop = new LongAdder();
+  final LongAdder push = new LongAdder();
+  final LongAdder constraint = new LongAdder();
+  final LongAdder unsatCore = new LongAdder();
+
+  final LatencyHistogram unsat = new LatencyHistogram();
+  final LatencyHistogram model = new LatencyHistogram();
+  final LatencyHistogram allSat = new LatencyHistogram();
+  final LongAdder allSatCubes = new LongAdder();
+  final LatencyHistogram interpolation = new LatencyHistogram();
 
   // manager operations
-  final AtomicInteger visits = new AtomicInteger();
-  final AtomicInteger booleanOperations = new AtomicInteger();
-  final AtomicInteger numericOperations = new AtomicInteger();
-  final AtomicInteger arrayOperations = new AtomicInteger();
-  final AtomicInteger slOperations = new AtomicInteger();
-  final AtomicInteger ufOperations = new AtomicInteger();
-  final AtomicInteger quantifierOperations = new AtomicInteger();
-  final AtomicInteger bvOperations = new AtomicInteger();
-  final AtomicInteger fpOperations = new AtomicInteger();
-  final AtomicInteger typeOperations = new AtomicInteger();
+  final LongAdder visits = new LongAdder();
+  final LongAdder booleanOperations = new LongAdder();
+  final LongAdder numericOperations = new LongAdder();
+  final LongAdder arrayOperations = new LongAdder();
+  final LongAdder slOperations = new LongAdder();
+  final LongAdder ufOperations = new LongAdder();
+  final LongAdder quantifierOperations = new LongAdder();
+  final LongAdder bvOperations = new LongAdder();
+  final LongAdder fpOperations = new LongAdder();
+  final LongAdder typeOperations = new LongAdder();
 
   // model operations
-  final AtomicInteger modelEvaluations = new AtomicInteger();
-  final AtomicInteger modelListings = new AtomicInteger();
+  final LongAdder modelEvaluations = new LongAdder();
+  final LongAdder modelListings = new LongAdder();
+  final LongAdder modelEvaluationCacheLookups = new LongAdder();
+  final LongAdder modelEvaluationCacheHits = new LongAdder();
 
   SolverStatistics() {}
 
+  private ImmutableMap<String, LongAdder> getCounters() {
+    return ImmutableMap.<String, LongAdder>builder()
+        .put("provers", provers)
+        .put("pop", pop)
+        .put("push", push)
+        .put("addConstraint", constraint)
+        .put("unsatCore", unsatCore)
+        .put("allSatCubes", allSatCubes)
+        .put("visits", visits)
+        .put("booleanOperations", booleanOperations)
+        .put("numericOperations", numericOperations)
+        .put("arrayOperations", arrayOperations)
+        .put("slOperations", slOperations)
+        .put("ufOperations", ufOperations)
+        .put("quantifierOperations", quantifierOperations)
+        .put("bvOperations", bvOperations)
+        .put("fpOperations", fpOperations)
+        .put("typeOperations", typeOperations)
+        .put("modelEvaluations", modelEvaluations)
+        .put("modelListings", modelListings)
+        .put("modelEvaluationCacheLookups", modelEvaluationCacheLookups)
+        .put("modelEvaluationCacheHits", modelEvaluationCacheHits)
+        .build();
+  }
+
+  private ImmutableMap<String, LatencyHistogram> getHistograms() {
+    return ImmutableMap.of(
+        "isUnsat", unsat, "model", model, "interpolation", interpolation, "allSat", allSat);
+  }
+
+  /** Returns a copy of the current values. */
+  public StatisticsSnapshot snapshot() {
+    ImmutableMap.Builder<String, Long> counters = ImmutableMap.builder();
+    for (Map.Entry<String, LongAdder> entry : getCounters().entrySet()) {
+      counters.put(entry.getKey(), entry.getValue().sum());
+    }
+    ImmutableMap.Builder<String, LatencySummary> latencies = ImmutableMap.builder();
+    for (Map.Entry<String, LatencyHistogram> entry : getHistograms().entrySet()) {
+      latencies.put(entry.getKey(), entry.getValue().summarize());
+    }
+    return StatisticsSnapshot.create(counters.build(), latencies.build());
+  }
+
+  /**
+   * Reset all values to zero, e.g., to measure the next phase of an analysis separately. The reset
+   * is not atomic, operations that finish in parallel might be partially counted.
+   */
+  public void reset() {
+    getCounters().values().forEach(LongAdder::reset);
+    getHistograms().values().forEach(LatencyHistogram::reset);
+  }
+
+  /** Export a snapshot of the current values. */
+  public void exportTo(StatisticsSink pSink) {
+    pSink.export(snapshot());
+  }
+
   // visible access methods
   public int getNumberOfProverEnvironments() {
-    return provers.get();
+    return Ints.saturatedCast(provers.sum());
   }
 
   public int getNumberOfPopQueries() {
-    return pop.get();
+    return Ints.saturatedCast(pop.sum());
   }
 
   public int getNumberOfPushQueries() {
-    return push.get();
+    return Ints.saturatedCast(push.sum());
   }
 
   public int getNumberOfAddConstraintQueries() {
-    return constraint.get();
+    return Ints.saturatedCast(constraint.sum());
   }
 
   public int getNumberOfModelQueries() {
-    return model.get();
+    return Ints.saturatedCast(model.getCount());
   }
 
   public int getNumberOfUnsatCoreQueries() {
-    return unsatCore.get();
+    return Ints.saturatedCast(unsatCore.sum());
   }
 
   public int getNumberOfIsUnsatQueries() {
-    return unsat.getNumberOfIntervals();
+    return Ints.saturatedCast(unsat.getCount());
   }
 
   public TimeSpan getSumTimeOfIsUnsatQueries() {
-    return unsat.getSumTime();
+    return LatencyHistogram.toTimeSpan(unsat.getSum());
   }
 
   public TimeSpan getMaxTimeOfIsUnsatQueries() {
-    return unsat.getMaxTime();
+    return LatencyHistogram.toTimeSpan(unsat.getMax());
+  }
+
+  public LatencySummary getLatencyOfIsUnsatQueries() {
+    return unsat.summarize();
+  }
+
+  public LatencySummary getLatencyOfModelQueries() {
+    return model.summarize();
   }
 
   public int getNumberOfAllSatQueries() {
-    return allSat.getNumberOfIntervals();
+    return Ints.saturatedCast(allSat.getCount());
   }
 
   public TimeSpan getSumTimeOfAllSatQueries() {
-    return allSat.getSumTime();
+    return LatencyHistogram.toTimeSpan(allSat.getSum());
   }
 
   public TimeSpan getMaxTimeOfAllSatQueries() {
-    return allSat.getMaxTime();
+    return LatencyHistogram.toTimeSpan(allSat.getMax());
+  }
+
+  public LatencySummary getLatencyOfAllSatQueries() {
+    return allSat.summarize();
+  }
+
+  /**
+   * Number of cubes (partial models) reported by all AllSAT queries. Each cube is one iteration of
+   * the AllSAT computation and may cover several models.
+   */
+  public int getNumberOfAllSatCubes() {
+    return Ints.saturatedCast(allSatCubes.sum());
   }
 
   public int getNumberOfInterpolationQueries() {
-    return interpolation.getNumberOfIntervals();
+    return Ints.saturatedCast(interpolation.getCount());
   }
 
   public TimeSpan getSumTimeOfInterpolationQueries() {
-    return interpolation.getSumTime();
+    return LatencyHistogram.toTimeSpan(interpolation.getSum());
   }
 
   public TimeSpan getMaxTimeOfInterpolationQueries() {
-    return interpolation.getMaxTime();
+    return LatencyHistogram.toTimeSpan(interpolation.getMax());
+  }
+
+  public LatencySummary getLatencyOfInterpolationQueries() {
+    return interpolation.summarize();
   }
 
   public int getNumberOfBooleanOperations() {
-    return booleanOperations.get();
+    return Ints.saturatedCast(booleanOperations.sum());
   }
 
   public int getNumberOfVisits() {
-    return visits.get();
+    return Ints.saturatedCast(visits.sum());
   }
 
   public int getNumberOfNumericOperations() {
-    return numericOperations.get();
+    return Ints.saturatedCast(numericOperations.sum());
   }
 
   public int getNumberOfArrayOperations() {
-    return arrayOperations.get();
+    return Ints.saturatedCast(arrayOperations.sum());
   }
 
   public int getNumberOfSLOperations() {
-    return slOperations.get();
+    return Ints.saturatedCast(slOperations.sum());
   }
 
   public int getNumberOfUFOperations() {
-    return ufOperations.get();
+    return Ints.saturatedCast(ufOperations.sum());
   }
 
   public int getNumberOfQuantifierOperations() {
-    return quantifierOperations.get();
+    return Ints.saturatedCast(quantifierOperations.sum());
   }
 
   public int getNumberOfBVOperations() {
-    return bvOperations.get();
+    return Ints.saturatedCast(bvOperations.sum());
   }
 
   public int getNumberOfFPOperations() {
-    return fpOperations.get();
+    return Ints.saturatedCast(fpOperations.sum());
   }
 
   public int getNumberOfModelEvaluationQueries() {
-    return modelEvaluations.get();
+    return Ints.saturatedCast(modelEvaluations.sum());
   }
 
   public int getNumberOfModelListings() {
-    return modelListings.get();
+    return Ints.saturatedCast(modelListings.sum());
+  }
+
+  /**
+   * Fraction of model evaluations that were answered from the evaluation cache of their model, or 0
+   * if there were none. Models are counted when they are closed.
+   */
+  public double getModelEvaluationCacheHitRate() {
+    long lookups = modelEvaluationCacheLookups.sum();
+    return lookups == 0 ? 0 : (double) modelEvaluationCacheHits.sum() / lookups;
   }
 }
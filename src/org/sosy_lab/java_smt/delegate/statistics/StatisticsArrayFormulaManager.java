@@ -31,14 +31,14 @@ class StatisticsArrayFormulaManager implements ArrayFormulaManager {
   @Override
   public <TI extends Formula, TE extends Formula> TE select(
       ArrayFormula<TI, TE> pArray, TI pIndex) {
-    stats.arrayOperations.getAndIncrement();
+    stats.arrayOperations.increment();
     return delegate.select(pArray, pIndex);
   }
 
   @Override
   public <TI extends Formula, TE extends Formula> ArrayFormula<TI, TE> store(
       ArrayFormula<TI, TE> pArray, TI pIndex, TE pValue) {
-    stats.arrayOperations.getAndIncrement();
+    stats.arrayOperations.increment();
     return delegate.store(pArray, pIndex, pValue);
   }
 
@@ -49,21 +49,21 @@ class StatisticsArrayFormulaManager implements ArrayFormulaManager {
           FTI extends FormulaType<TI>,
           FTE extends FormulaType<TE>>
       ArrayFormula<TI, TE> makeArray(String pName, FTI pIndexType, FTE pElementType) {
-    stats.arrayOperations.getAndIncrement();
+    stats.arrayOperations.increment();
     return delegate.makeArray(pName, pIndexType, pElementType);
   }
 
   @Override
   public <TI extends Formula, TE extends Formula> ArrayFormula<TI, TE> makeArray(
       String pName, ArrayFormulaType<TI, TE> pType) {
-    stats.arrayOperations.getAndIncrement();
+    stats.arrayOperations.increment();
     return delegate.makeArray(pName, pType);
   }
 
   @Override
   public <TI extends Formula, TE extends Formula> BooleanFormula equivalence(
       ArrayFormula<TI, TE> pArray1, ArrayFormula<TI, TE> pArray2) {
-    stats.arrayOperations.getAndIncrement();
+    stats.arrayOperations.increment();
     return delegate.equivalence(pArray1, pArray2);
   }
 
@@ -18,79 +18,78 @@ import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.SolverException;
-import org.sosy_lab.java_smt.delegate.statistics.TimerPool.TimerWrapper;
 
 class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
 
   private final BasicProverEnvironment<T> delegate;
   final SolverStatistics stats;
-  final TimerWrapper unsatTimer;
-  private final TimerWrapper allSatTimer;
 
   StatisticsBasicProverEnvironment(BasicProverEnvironment<T> pDelegate, SolverStatistics pStats) {
     delegate = checkNotNull(pDelegate);
     stats = checkNotNull(pStats);
-    unsatTimer = stats.unsat.getNewTimer();
-    allSatTimer = stats.allSat.getNewTimer();
-    stats.provers.getAndIncrement();
+    stats.provers.increment();
   }
 
   @Override
   public void pop() {
-    stats.pop.getAndIncrement();
+    stats.pop.increment();
     delegate.pop();
   }
 
   @Override
   public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
-    stats.constraint.getAndIncrement();
+    stats.constraint.increment();
     return delegate.addConstraint(pConstraint);
   }
 
   @Override
   public void push() {
-    stats.push.getAndIncrement();
+    stats.push.increment();
     delegate.push();
   }
 
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
-    unsatTimer.start();
+    long start = System.nanoTime();
     try {
       return delegate.isUnsat();
     } finally {
-      unsatTimer.stop();
+      stats.unsat.record(System.nanoTime() - start);
     }
   }
 
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
-    unsatTimer.start();
+    long start = System.nanoTime();
     try {
       return delegate.isUnsatWithAssumptions(pAssumptions);
     } finally {
-      unsatTimer.stop();
+      stats.unsat.record(System.nanoTime() - start);
     }
   }
 
   @SuppressWarnings("resource")
   @Override
   public Model getModel() throws SolverException {
-    stats.model.getAndIncrement();
-    return new StatisticsModel(delegate.getModel(), stats);
+    long start = System.nanoTime();
+    try {
+      return new StatisticsModel(delegate.getModel(), stats);
+    } finally {
+      stats.model.record(System.nanoTime() - start);
+    }
   }
 
   @Override
   public List<BooleanFormula> getUnsatCore() {
-    stats.unsatCore.getAndIncrement();
+    stats.unsatCore.increment();
     return delegate.getUnsatCore();
   }
 
   @Override
   public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
       Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
-    stats.unsatCore.getAndIncrement();
+    stats.unsatCore.increment();
     return delegate.unsatCoreOverAssumptions(pAssumptions);
   }
 
@@ -102,11 +101,24 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
   @Override
   public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
       throws InterruptedException, SolverException {
-    allSatTimer.start();
+    long start = System.nanoTime();
     try {
-      return delegate.allSat(pCallback, pImportant);
+      return delegate.allSat(
+          new AllSatCallback<R>() {
+            @Override
+            public void apply(List<BooleanFormula> pModel) {
+              stats.allSatCubes.increment();
+              pCallback.apply(pModel);
+            }
+
+            @Override
+            public R getResult() throws InterruptedException {
+              return pCallback.getResult();
+            }
+          },
+          pImportant);
     } finally {
-      allSatTimer.stop();
+      stats.allSat.record(System.nanoTime() - start);
     }
   }
 }
@@ -29,37 +29,37 @@ class StatisticsBitvectorFormulaManager implements BitvectorFormulaManager {
 
   @Override
   public BitvectorFormula makeBitvector(int pLength, long pI) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.makeBitvector(pLength, pI);
   }
 
   @Override
   public BitvectorFormula makeBitvector(int pLength, BigInteger pI) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.makeBitvector(pLength, pI);
   }
 
   @Override
   public BitvectorFormula makeBitvector(int pLength, IntegerFormula pI) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.makeBitvector(pLength, pI);
   }
 
   @Override
   public IntegerFormula toIntegerFormula(BitvectorFormula pI, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.toIntegerFormula(pI, pSigned);
   }
 
   @Override
   public BitvectorFormula makeVariable(int pLength, String pVar) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.makeVariable(pLength, pVar);
   }
 
   @Override
   public BitvectorFormula makeVariable(BitvectorType pType, String pVar) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.makeVariable(pType, pVar);
   }
 
@@ -70,128 +70,128 @@ class StatisticsBitvectorFormulaManager implements BitvectorFormulaManager {
 
   @Override
   public BitvectorFormula negate(BitvectorFormula pNumber) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.negate(pNumber);
   }
 
   @Override
   public BitvectorFormula add(BitvectorFormula pNumber1, BitvectorFormula pNumber2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.add(pNumber1, pNumber2);
   }
 
   @Override
   public BitvectorFormula subtract(BitvectorFormula pNumber1, BitvectorFormula pNumber2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.subtract(pNumber1, pNumber2);
   }
 
   @Override
   public BitvectorFormula divide(
       BitvectorFormula pNumber1, BitvectorFormula pNumber2, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.divide(pNumber1, pNumber2, pSigned);
   }
 
   @Override
   public BitvectorFormula modulo(
       BitvectorFormula pNumber1, BitvectorFormula pNumber2, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.modulo(pNumber1, pNumber2, pSigned);
   }
 
   @Override
   public BitvectorFormula multiply(BitvectorFormula pNumber1, BitvectorFormula pNumber2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.multiply(pNumber1, pNumber2);
   }
 
   @Override
   public BooleanFormula equal(BitvectorFormula pNumber1, BitvectorFormula pNumber2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.equal(pNumber1, pNumber2);
   }
 
   @Override
   public BooleanFormula greaterThan(
       BitvectorFormula pNumber1, BitvectorFormula pNumber2, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.greaterThan(pNumber1, pNumber2, pSigned);
   }
 
   @Override
   public BooleanFormula greaterOrEquals(
       BitvectorFormula pNumber1, BitvectorFormula pNumber2, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.greaterOrEquals(pNumber1, pNumber2, pSigned);
   }
 
   @Override
   public BooleanFormula lessThan(
       BitvectorFormula pNumber1, BitvectorFormula pNumber2, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.lessThan(pNumber1, pNumber2, pSigned);
   }
 
   @Override
   public BooleanFormula lessOrEquals(
       BitvectorFormula pNumber1, BitvectorFormula pNumber2, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.lessOrEquals(pNumber1, pNumber2, pSigned);
   }
 
   @Override
   public BitvectorFormula not(BitvectorFormula pBits) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.not(pBits);
   }
 
   @Override
   public BitvectorFormula and(BitvectorFormula pBits1, BitvectorFormula pBits2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.and(pBits1, pBits2);
   }
 
   @Override
   public BitvectorFormula or(BitvectorFormula pBits1, BitvectorFormula pBits2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.or(pBits1, pBits2);
   }
 
   @Override
   public BitvectorFormula xor(BitvectorFormula pBits1, BitvectorFormula pBits2) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.xor(pBits1, pBits2);
   }
 
   @Override
   public BitvectorFormula shiftRight(
       BitvectorFormula pNumber, BitvectorFormula pToShift, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.shiftRight(pNumber, pToShift, pSigned);
   }
 
   @Override
   public BitvectorFormula shiftLeft(BitvectorFormula pNumber, BitvectorFormula pToShift) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.shiftLeft(pNumber, pToShift);
   }
 
   @Override
   public BitvectorFormula concat(BitvectorFormula pNumber, BitvectorFormula pAppend) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.concat(pNumber, pAppend);
   }
 
   @Override
   public BitvectorFormula extract(BitvectorFormula pNumber, int pMsb, int pLsb, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.extract(pNumber, pMsb, pLsb, pSigned);
   }
 
   @Override
   public BitvectorFormula extend(BitvectorFormula pNumber, int pExtensionBits, boolean pSigned) {
-    stats.bvOperations.getAndIncrement();
+    stats.bvOperations.increment();
     return delegate.extend(pNumber, pExtensionBits, pSigned);
   }
 }
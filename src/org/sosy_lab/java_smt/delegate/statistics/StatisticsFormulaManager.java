@@ -11,8 +11,11 @@ package org.sosy_lab.java_smt.delegate.statistics;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
 import org.sosy_lab.java_smt.api.ArrayFormulaManager;
@@ -30,6 +33,7 @@ import org.sosy_lab.java_smt.api.RationalFormulaManager;
 import org.sosy_lab.java_smt.api.SLFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.UFManager;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationCache;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
@@ -117,6 +121,16 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.parse(pS);
   }
 
+  @Override
+  public void parse(Reader pInput, Consumer<BooleanFormula> pAssertions) throws IOException {
+    delegate.parse(pInput, pAssertions);
+  }
+
+  @Override
+  public List<BooleanFormula> parse(Path pFile) throws IOException {
+    return delegate.parse(pFile);
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     return new Appenders.AbstractAppender() {
@@ -129,6 +143,11 @@ class StatisticsFormulaManager implements FormulaManager {
     };
   }
 
+  @Override
+  public Appender dumpFormulaWithSharing(BooleanFormula pT) {
+    return delegate.dumpFormulaWithSharing(pT);
+  }
+
   @Override
   public BooleanFormula applyTactic(BooleanFormula pInput, Tactic pTactic)
       throws InterruptedException {
@@ -156,6 +175,12 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.transformRecursively(pF, pFormulaVisitor);
   }
 
+  @Override
+  public <T extends Formula> T transformRecursively(
+      T pF, FormulaTransformationVisitor pFormulaVisitor, FormulaTransformationCache pCache) {
+    return delegate.transformRecursively(pF, pFormulaVisitor, pCache);
+  }
+
   @Override
   public Map<String, Formula> extractVariables(Formula pF) {
     return delegate.extractVariables(pF);
@@ -172,11 +197,24 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.substitute(pF, pFromToMapping);
   }
 
+  @Override
+  public <T extends Formula> T substitute(
+      T pF,
+      Map<? extends Formula, ? extends Formula> pFromToMapping,
+      FormulaTransformationCache pCache) {
+    return delegate.substitute(pF, pFromToMapping, pCache);
+  }
+
   @Override
   public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
     return delegate.translateFrom(pFormula, pOtherContext);
   }
 
+  @Override
+  public <T extends Formula> T translateTermFrom(T pFormula, FormulaManager pOtherContext) {
+    return delegate.translateTermFrom(pFormula, pOtherContext);
+  }
+
   @Override
   public boolean isValidName(String pVariableName) {
     return delegate.isValidName(pVariableName);
@@ -11,7 +11,10 @@ package org.sosy_lab.java_smt.delegate.statistics;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -20,11 +23,13 @@ import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 
 class StatisticsModel implements Model {
 
   private final Model delegate;
   private final SolverStatistics stats;
+  private boolean closed = false;
 
   StatisticsModel(Model pDelegate, SolverStatistics pStats) {
     delegate = checkNotNull(pDelegate);
@@ -33,48 +38,69 @@ class StatisticsModel implements Model {
 
   @Override
   public <T extends Formula> @Nullable T eval(T pFormula) {
-    stats.modelEvaluations.getAndIncrement();
+    stats.modelEvaluations.increment();
     return delegate.eval(pFormula);
   }
 
   @Override
   public @Nullable Object evaluate(Formula pF) {
-    stats.modelEvaluations.getAndIncrement();
+    stats.modelEvaluations.increment();
     return delegate.evaluate(pF);
   }
 
   @Override
   public @Nullable BigInteger evaluate(IntegerFormula pF) {
-    stats.modelEvaluations.getAndIncrement();
+    stats.modelEvaluations.increment();
     return delegate.evaluate(pF);
   }
 
   @Override
   public @Nullable Rational evaluate(RationalFormula pF) {
-    stats.modelEvaluations.getAndIncrement();
+    stats.modelEvaluations.increment();
     return delegate.evaluate(pF);
   }
 
   @Override
   public @Nullable Boolean evaluate(BooleanFormula pF) {
-    stats.modelEvaluations.getAndIncrement();
+    stats.modelEvaluations.increment();
     return delegate.evaluate(pF);
   }
 
   @Override
   public @Nullable BigInteger evaluate(BitvectorFormula pF) {
-    stats.modelEvaluations.getAndIncrement();
+    stats.modelEvaluations.increment();
     return delegate.evaluate(pF);
   }
 
+  @Override
+  public ImmutableMap<Formula, Object> evaluate(Collection<? extends Formula> pFormulas) {
+    stats.modelEvaluations.add(pFormulas.size());
+    return delegate.evaluate(pFormulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
-    stats.modelListings.getAndIncrement();
+    stats.modelListings.increment();
     return delegate.asList();
   }
 
+  @Override
+  public Iterable<ValueAssignment> assignments(Predicate<? super String> pNameFilter) {
+    stats.modelListings.increment();
+    return delegate.assignments(pNameFilter);
+  }
+
   @Override
   public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (delegate instanceof AbstractModel) {
+      AbstractModel<?, ?, ?> model = (AbstractModel<?, ?, ?>) delegate;
+      stats.modelEvaluationCacheLookups.add(model.getEvaluationCacheLookups());
+      stats.modelEvaluationCacheHits.add(model.getEvaluationCacheHits());
+    }
     delegate.close();
   }
 }
@@ -37,11 +37,11 @@ class StatisticsOptimizationProverEnvironment extends StatisticsBasicProverEnvir
 
   @Override
   public OptStatus check() throws InterruptedException, SolverException {
-    unsatTimer.start();
+    long start = System.nanoTime();
     try {
       return delegate.check();
     } finally {
-      unsatTimer.stop();
+      stats.unsat.record(System.nanoTime() - start);
     }
   }
 
@@ -0,0 +1,21 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+/**
+ * Receiver of statistics, e.g., a metrics registry of the application or {@link
+ * JmxStatisticsSink}.
+ *
+ * @see SolverStatistics#exportTo(StatisticsSink)
+ */
+@FunctionalInterface
+public interface StatisticsSink {
+
+  void export(StatisticsSnapshot pSnapshot);
+}
@@ -0,0 +1,33 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable copy of the values of {@link SolverStatistics} at one point in time.
+ *
+ * <p>The keys of both maps are stable names of the operations, e.g., {@code "push"} or {@code
+ * "isUnsat"}, that can be used as metric names.
+ */
+@AutoValue
+public abstract class StatisticsSnapshot {
+
+  static StatisticsSnapshot create(
+      ImmutableMap<String, Long> pCounters, ImmutableMap<String, LatencySummary> pLatencies) {
+    return new AutoValue_StatisticsSnapshot(pCounters, pLatencies);
+  }
+
+  /** Number of operations, e.g., per theory for the formula managers. */
+  public abstract ImmutableMap<String, Long> getCounters();
+
+  /** Latencies of satisfiability checks, model generation, interpolation, and AllSAT queries. */
+  public abstract ImmutableMap<String, LatencySummary> getLatencies();
+}
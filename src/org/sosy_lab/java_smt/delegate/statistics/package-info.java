@@ -8,6 +8,9 @@
 
 /**
  * The classes of this package wrap the whole proving environment and measure all accesses to it.
+ *
+ * <p>The collected {@link SolverStatistics} can be exported to a {@link StatisticsSink}, e.g., via
+ * JMX.
  */
 @com.google.errorprone.annotations.CheckReturnValue
 @javax.annotation.ParametersAreNonnullByDefault
@@ -0,0 +1,76 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * The lock that guards all accesses to a single solver context.
+ *
+ * <p>Operations that modify the context, e.g., creating formulas or solving queries, use the
+ * exclusive lock. Operations that only read existing formulas, e.g., determining the type of a
+ * formula or its variables, use the shared lock. Concurrent reads need to be enabled explicitly
+ * and are only possible if the solver supports them, otherwise the shared lock is the exclusive
+ * lock.
+ *
+ * <p>Both locks are reentrant, and the shared lock can be acquired while holding the exclusive
+ * lock. The opposite direction is not possible and would dead-lock, thus no user-given code (like
+ * a visitor) may be executed while holding the shared lock.
+ */
+final class ContextLock {
+
+  private final Lock exclusiveLock;
+  private final Lock sharedLock;
+
+  ContextLock(boolean pAllowConcurrentReads) {
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    exclusiveLock = lock.writeLock();
+    sharedLock = pAllowConcurrentReads ? lock.readLock() : exclusiveLock;
+  }
+
+  /** Returns whether the shared lock can be held by several threads at once. */
+  boolean allowsConcurrentReads() {
+    return sharedLock != exclusiveLock;
+  }
+
+  /**
+   * Returns whether the solver allows reading formulas (visiting them, determining their type,
+   * etc.) from several threads at once, as long as no thread modifies the context in the meantime.
+   *
+   * <p>The native solvers use reference counting or internal caches even for reading formulas, and
+   * thus do not support this.
+   */
+  static boolean supportsConcurrentReads(Solvers pSolver) {
+    switch (pSolver) {
+      case SMTINTERPOL:
+      case PRINCESS:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  void lock() {
+    exclusiveLock.lock();
+  }
+
+  void unlock() {
+    exclusiveLock.unlock();
+  }
+
+  void lockShared() {
+    sharedLock.lock();
+  }
+
+  void unlockShared() {
+    sharedLock.unlock();
+  }
+}
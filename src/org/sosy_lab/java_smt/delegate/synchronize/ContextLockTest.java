@@ -0,0 +1,97 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ContextLockTest {
+
+  private static final int TIMEOUT_SECONDS = 10;
+
+  /**
+   * Acquire the shared lock in a new thread, signal that it is held, and release it only after the
+   * other latch was counted down.
+   */
+  private static Thread startReader(
+      ContextLock pLock, CountDownLatch pAcquired, CountDownLatch pRelease) {
+    Thread reader =
+        new Thread(
+            () -> {
+              pLock.lockShared();
+              try {
+                pAcquired.countDown();
+                pRelease.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } finally {
+                pLock.unlockShared();
+              }
+            });
+    reader.start();
+    return reader;
+  }
+
+  @Test
+  public void testParallelReaders() throws InterruptedException {
+    ContextLock lock = new ContextLock(true);
+    assertThat(lock.allowsConcurrentReads()).isTrue();
+
+    CountDownLatch acquired = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread first = startReader(lock, acquired, release);
+    Thread second = startReader(lock, acquired, release);
+
+    // both readers hold the shared lock at the same time
+    assertThat(acquired.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+    first.join();
+    second.join();
+  }
+
+  @Test
+  public void testSerializedReaders() throws InterruptedException {
+    ContextLock lock = new ContextLock(false);
+    assertThat(lock.allowsConcurrentReads()).isFalse();
+
+    CountDownLatch firstAcquired = new CountDownLatch(1);
+    CountDownLatch secondAcquired = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread first = startReader(lock, firstAcquired, release);
+    assertThat(firstAcquired.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    Thread second = startReader(lock, secondAcquired, new CountDownLatch(0));
+
+    // the second reader waits until the first one releases the lock
+    assertThat(secondAcquired.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    release.countDown();
+    assertThat(secondAcquired.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    first.join();
+    second.join();
+  }
+
+  @Test
+  public void testWriterExcludesReaders() throws InterruptedException {
+    ContextLock lock = new ContextLock(true);
+
+    CountDownLatch acquired = new CountDownLatch(1);
+    lock.lock();
+    Thread reader;
+    try {
+      reader = startReader(lock, acquired, new CountDownLatch(0));
+      assertThat(acquired.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    } finally {
+      lock.unlock();
+    }
+    assertThat(acquired.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    reader.join();
+  }
+}
@@ -0,0 +1,107 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * The decomposition of a single formula node by the solver, recorded with {@link #RECORDER}.
+ *
+ * <p>This allows to decompose a formula while holding the shared lock of the context, and to apply
+ * a user-given visitor after releasing the lock. The visitor can then create new formulas, which
+ * requires the exclusive lock.
+ */
+abstract class RecordedVisit {
+
+  /** Visitor that records the callback of the solver instead of handling it. */
+  static final FormulaVisitor<RecordedVisit> RECORDER =
+      new FormulaVisitor<>() {
+
+        @Override
+        public RecordedVisit visitFreeVariable(Formula pF, String pName) {
+          return new RecordedVisit(ImmutableList.of()) {
+            @Override
+            <R> R replay(FormulaVisitor<R> pVisitor) {
+              return pVisitor.visitFreeVariable(pF, pName);
+            }
+          };
+        }
+
+        @Override
+        public RecordedVisit visitBoundVariable(Formula pF, int pDeBruijnIdx) {
+          return new RecordedVisit(ImmutableList.of()) {
+            @Override
+            <R> R replay(FormulaVisitor<R> pVisitor) {
+              return pVisitor.visitBoundVariable(pF, pDeBruijnIdx);
+            }
+          };
+        }
+
+        @Override
+        public RecordedVisit visitConstant(Formula pF, Object pValue) {
+          return new RecordedVisit(ImmutableList.of()) {
+            @Override
+            <R> R replay(FormulaVisitor<R> pVisitor) {
+              return pVisitor.visitConstant(pF, pValue);
+            }
+          };
+        }
+
+        @Override
+        public RecordedVisit visitFunction(
+            Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+          // the solver might return a view on its internal data, thus we copy it.
+          ImmutableList<Formula> args = ImmutableList.copyOf(pArgs);
+          return new RecordedVisit(args) {
+            @Override
+            <R> R replay(FormulaVisitor<R> pVisitor) {
+              return pVisitor.visitFunction(pF, args, pFunctionDeclaration);
+            }
+          };
+        }
+
+        @Override
+        public RecordedVisit visitQuantifier(
+            BooleanFormula pF,
+            Quantifier pQuantifier,
+            List<Formula> pBoundVariables,
+            BooleanFormula pBody) {
+          ImmutableList<Formula> boundVariables = ImmutableList.copyOf(pBoundVariables);
+          return new RecordedVisit(ImmutableList.of(pBody)) {
+            @Override
+            <R> R replay(FormulaVisitor<R> pVisitor) {
+              return pVisitor.visitQuantifier(pF, pQuantifier, boundVariables, pBody);
+            }
+          };
+        }
+      };
+
+  private final ImmutableList<Formula> children;
+
+  private RecordedVisit(ImmutableList<Formula> pChildren) {
+    children = pChildren;
+  }
+
+  /**
+   * The children that a recursive traversal would visit next, i.e., the arguments of a function or
+   * the body of a quantifier.
+   */
+  ImmutableList<Formula> getChildren() {
+    return children;
+  }
+
+  /** Apply the visitor to the recorded formula node. */
+  abstract <R> R replay(FormulaVisitor<R> pVisitor);
+}
@@ -0,0 +1,172 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * A bounded pool of solver contexts that are used by provers with a separate context.
+ *
+ * <p>Creating a new context is expensive (native setup, configuration, empty symbol tables). A
+ * context is taken from the pool when a prover is created and returned to the pool when the prover
+ * is closed. The most recently returned context is reused first, contexts that were idle for too
+ * long are closed, and at most a bounded number of idle contexts is kept open.
+ */
+final class SolverContextPool implements AutoCloseable {
+
+  private final Supplier<SolverContext> contextFactory;
+  private final int maxIdleContexts;
+  private final long maxIdleTimeNanos;
+
+  /** Idle contexts, the most recently released one is at the head. */
+  private final Deque<IdleContext> idleContexts = new ArrayDeque<>();
+
+  private boolean closed = false;
+
+  // statistics
+  private int createdContexts = 0;
+  private int reusedContexts = 0;
+  private int evictedContexts = 0;
+
+  private static final class IdleContext {
+    private final SolverContext context;
+    private final long releaseTime;
+
+    private IdleContext(SolverContext pContext, long pReleaseTime) {
+      context = pContext;
+      releaseTime = pReleaseTime;
+    }
+  }
+
+  /**
+   * Create a new pool.
+   *
+   * @param pContextFactory creates a new context if no idle one is available.
+   * @param pMaxIdleContexts maximal number of idle contexts kept open, zero disables pooling.
+   * @param pMaxIdleTimeNanos idle contexts are closed after this time, zero disables eviction.
+   */
+  SolverContextPool(
+      Supplier<SolverContext> pContextFactory, int pMaxIdleContexts, long pMaxIdleTimeNanos) {
+    checkArgument(pMaxIdleContexts >= 0, "negative pool size");
+    checkArgument(pMaxIdleTimeNanos >= 0, "negative idle time");
+    contextFactory = checkNotNull(pContextFactory);
+    maxIdleContexts = pMaxIdleContexts;
+    maxIdleTimeNanos = pMaxIdleTimeNanos;
+  }
+
+  /** Take an idle context from the pool or create a new one. */
+  SolverContext acquire() {
+    List<SolverContext> expired;
+    SolverContext context = null;
+    synchronized (this) {
+      expired = removeExpiredContexts();
+      IdleContext idle = idleContexts.pollFirst();
+      if (idle != null) {
+        context = idle.context;
+        reusedContexts++;
+      } else {
+        createdContexts++;
+      }
+    }
+    closeAll(expired);
+    if (context == null) {
+      context = contextFactory.get();
+    }
+    return context;
+  }
+
+  /** Return a context to the pool. The context is closed if the pool is full or already closed. */
+  void release(SolverContext pContext) {
+    List<SolverContext> toClose;
+    synchronized (this) {
+      toClose = removeExpiredContexts();
+      if (closed || idleContexts.size() >= maxIdleContexts) {
+        toClose.add(pContext);
+      } else {
+        idleContexts.addFirst(new IdleContext(pContext, System.nanoTime()));
+      }
+    }
+    closeAll(toClose);
+  }
+
+  /** Remove all contexts that were idle for too long. Callers need to close them. */
+  private List<SolverContext> removeExpiredContexts() {
+    List<SolverContext> expired = new ArrayList<>();
+    if (maxIdleTimeNanos > 0) {
+      long now = System.nanoTime();
+      // the oldest contexts are at the tail
+      Iterator<IdleContext> it = idleContexts.descendingIterator();
+      while (it.hasNext()) {
+        IdleContext idle = it.next();
+        if (now - idle.releaseTime < maxIdleTimeNanos) {
+          break;
+        }
+        it.remove();
+        expired.add(idle.context);
+        evictedContexts++;
+      }
+    }
+    return expired;
+  }
+
+  private static void closeAll(List<SolverContext> contexts) {
+    for (SolverContext context : contexts) {
+      context.close();
+    }
+  }
+
+  /** Number of contexts that were created, because no idle context was available. */
+  synchronized int getNumberOfCreatedContexts() {
+    return createdContexts;
+  }
+
+  /** Number of requests that were served with an idle context. */
+  synchronized int getNumberOfReusedContexts() {
+    return reusedContexts;
+  }
+
+  /** Number of idle contexts that were closed because they were not used for too long. */
+  synchronized int getNumberOfEvictedContexts() {
+    return evictedContexts;
+  }
+
+  synchronized int getNumberOfIdleContexts() {
+    return idleContexts.size();
+  }
+
+  /** Close all idle contexts. Contexts that are still in use are closed when they are released. */
+  @Override
+  public void close() {
+    List<SolverContext> toClose = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      for (IdleContext idle : idleContexts) {
+        toClose.add(idle.context);
+      }
+      idleContexts.clear();
+    }
+    closeAll(toClose);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "SolverContextPool (created: %d, reused: %d, evicted: %d, idle: %d)",
+        createdContexts, reusedContexts, evictedContexts, idleContexts.size());
+  }
+}
@@ -0,0 +1,89 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+public class SolverContextPoolTest {
+
+  private static SolverContext newContext() {
+    try {
+      return SolverContextFactory.createSolverContext(Solvers.SMTINTERPOL);
+    } catch (InvalidConfigurationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  public void testReuse() {
+    try (SolverContextPool pool = new SolverContextPool(SolverContextPoolTest::newContext, 2, 0)) {
+      SolverContext first = pool.acquire();
+      pool.release(first);
+      SolverContext second = pool.acquire();
+
+      assertThat(second).isSameInstanceAs(first);
+      assertThat(pool.getNumberOfCreatedContexts()).isEqualTo(1);
+      assertThat(pool.getNumberOfReusedContexts()).isEqualTo(1);
+      pool.release(second);
+    }
+  }
+
+  @Test
+  public void testBoundedSize() {
+    try (SolverContextPool pool = new SolverContextPool(SolverContextPoolTest::newContext, 1, 0)) {
+      SolverContext first = pool.acquire();
+      SolverContext second = pool.acquire();
+      pool.release(first);
+      pool.release(second);
+
+      assertThat(pool.getNumberOfCreatedContexts()).isEqualTo(2);
+      assertThat(pool.getNumberOfIdleContexts()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testDisabledPooling() {
+    try (SolverContextPool pool = new SolverContextPool(SolverContextPoolTest::newContext, 0, 0)) {
+      pool.release(pool.acquire());
+      pool.release(pool.acquire());
+
+      assertThat(pool.getNumberOfCreatedContexts()).isEqualTo(2);
+      assertThat(pool.getNumberOfReusedContexts()).isEqualTo(0);
+      assertThat(pool.getNumberOfIdleContexts()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void testIdleEviction() throws InterruptedException {
+    try (SolverContextPool pool = new SolverContextPool(SolverContextPoolTest::newContext, 2, 1)) {
+      pool.release(pool.acquire());
+      Thread.sleep(1);
+      pool.release(pool.acquire());
+
+      assertThat(pool.getNumberOfCreatedContexts()).isEqualTo(2);
+      assertThat(pool.getNumberOfEvictedContexts()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testReleaseAfterClose() {
+    SolverContextPool pool = new SolverContextPool(SolverContextPoolTest::newContext, 2, 0);
+    SolverContext context = pool.acquire();
+    pool.close();
+    pool.release(context);
+
+    assertThat(pool.getNumberOfIdleContexts()).isEqualTo(0);
+  }
+}
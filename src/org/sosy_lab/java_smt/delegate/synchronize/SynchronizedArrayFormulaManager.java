@@ -16,15 +16,14 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 @SuppressWarnings({"ClassTypeParameterName", "MethodTypeParameterName"})
 class SynchronizedArrayFormulaManager implements ArrayFormulaManager {
 
   private final ArrayFormulaManager delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
 
-  SynchronizedArrayFormulaManager(ArrayFormulaManager pDelegate, SolverContext pSync) {
+  SynchronizedArrayFormulaManager(ArrayFormulaManager pDelegate, ContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
@@ -32,16 +31,22 @@ class SynchronizedArrayFormulaManager implements ArrayFormulaManager {
   @Override
   public <TI extends Formula, TE extends Formula> TE select(
       ArrayFormula<TI, TE> pArray, TI pIndex) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.select(pArray, pIndex);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <TI extends Formula, TE extends Formula> ArrayFormula<TI, TE> store(
       ArrayFormula<TI, TE> pArray, TI pIndex, TE pValue) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.store(pArray, pIndex, pValue);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -52,38 +57,53 @@ class SynchronizedArrayFormulaManager implements ArrayFormulaManager {
           FTI extends FormulaType<TI>,
           FTE extends FormulaType<TE>>
       ArrayFormula<TI, TE> makeArray(String pName, FTI pIndexType, FTE pElementType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeArray(pName, pIndexType, pElementType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <TI extends Formula, TE extends Formula> ArrayFormula<TI, TE> makeArray(
       String pName, ArrayFormulaType<TI, TE> pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeArray(pName, pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <TI extends Formula, TE extends Formula> BooleanFormula equivalence(
       ArrayFormula<TI, TE> pArray1, ArrayFormula<TI, TE> pArray2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.equivalence(pArray1, pArray2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <TI extends Formula> FormulaType<TI> getIndexType(ArrayFormula<TI, ?> pArray) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.getIndexType(pArray);
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public <TE extends Formula> FormulaType<TE> getElementType(ArrayFormula<?, TE> pArray) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.getElementType(pArray);
+    } finally {
+      sync.unlockShared();
     }
   }
 }
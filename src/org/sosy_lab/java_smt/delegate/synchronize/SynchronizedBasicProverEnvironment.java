@@ -17,90 +17,119 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Model;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverException;
 
 class SynchronizedBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
 
   private final BasicProverEnvironment<T> delegate;
-  final SolverContext sync;
+  final ContextLock sync;
 
-  SynchronizedBasicProverEnvironment(BasicProverEnvironment<T> pDelegate, SolverContext pSync) {
+  SynchronizedBasicProverEnvironment(BasicProverEnvironment<T> pDelegate, ContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
 
   @Override
   public void pop() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.pop();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.addConstraint(pConstraint);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void push() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.push();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isUnsat();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isUnsatWithAssumptions(pAssumptions);
+    } finally {
+      sync.unlock();
     }
   }
 
   @SuppressWarnings("resource")
   @Override
   public Model getModel() throws SolverException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedModel(delegate.getModel(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public List<BooleanFormula> getUnsatCore() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.getUnsatCore();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
       Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.unsatCoreOverAssumptions(pAssumptions);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
       throws InterruptedException, SolverException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.allSat(pCallback, pImportant);
+    } finally {
+      sync.unlock();
     }
   }
 }
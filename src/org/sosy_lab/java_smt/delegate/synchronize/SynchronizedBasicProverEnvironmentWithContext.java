@@ -27,26 +27,35 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   private final BasicProverEnvironment<T> delegate;
   final FormulaManager manager;
   final FormulaManager otherManager;
-  final SolverContext sync;
+  final ContextLock sync;
+  private final SolverContext otherContext;
+  private final SolverContextPool contextPool;
+  private boolean closed = false;
 
   SynchronizedBasicProverEnvironmentWithContext(
       BasicProverEnvironment<T> pDelegate,
-      SolverContext pSync,
+      ContextLock pSync,
       FormulaManager pManager,
-      FormulaManager pOtherManager) {
+      SolverContext pOtherContext,
+      SolverContextPool pContextPool) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
     manager = checkNotNull(pManager);
-    otherManager = checkNotNull(pOtherManager);
+    otherContext = checkNotNull(pOtherContext);
+    otherManager = otherContext.getFormulaManager();
+    contextPool = checkNotNull(pContextPool);
   }
 
   List<BooleanFormula> translate(
       Collection<BooleanFormula> fs, FormulaManager from, FormulaManager to) {
     ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
-    synchronized (sync) {
+    sync.lock();
+    try {
       for (BooleanFormula f : fs) {
         result.add(to.translateFrom(f, from));
       }
+    } finally {
+      sync.unlock();
     }
     return result.build();
   }
@@ -59,8 +68,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   @Override
   public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
     BooleanFormula constraint;
-    synchronized (sync) {
+    sync.lock();
+    try {
       constraint = otherManager.translateFrom(pConstraint, manager);
+    } finally {
+      sync.unlock();
     }
     return delegate.addConstraint(constraint);
   }
@@ -84,8 +96,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   @SuppressWarnings("resource")
   @Override
   public Model getModel() throws SolverException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedModelWithContext(delegate.getModel(), sync, manager, otherManager);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -108,17 +123,29 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
       delegate.close();
+    } finally {
+      sync.unlock();
     }
+    // the context is not used by this prover anymore and can be reused for another one.
+    contextPool.release(otherContext);
   }
 
   @Override
   public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
       throws InterruptedException, SolverException {
     AllSatCallback<R> callback = new AllSatCallbackWithContext<>(pCallback);
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.allSat(callback, translate(pImportant, manager, otherManager));
+    } finally {
+      sync.unlock();
     }
   }
 
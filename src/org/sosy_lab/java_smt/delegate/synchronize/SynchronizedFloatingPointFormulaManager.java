@@ -20,38 +20,46 @@ import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaManager {
 
   private final FloatingPointFormulaManager delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
 
   SynchronizedFloatingPointFormulaManager(
-      FloatingPointFormulaManager pDelegate, SolverContext pSync) {
+      FloatingPointFormulaManager pDelegate, ContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
 
   @Override
   public FloatingPointFormula makeNumber(double pN, FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNumber(
       double pN, FloatingPointType pType, FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNumber(BigDecimal pN, FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -60,73 +68,103 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       BigDecimal pN,
       FloatingPointType pType,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNumber(String pN, FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNumber(
       String pN, FloatingPointType pType, FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNumber(Rational pN, FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNumber(
       Rational pN, FloatingPointType pType, FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNumber(pN, pType, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeVariable(String pVar, FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeVariable(pVar, pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makePlusInfinity(FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makePlusInfinity(pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeMinusInfinity(FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeMinusInfinity(pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula makeNaN(FloatingPointType pType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeNaN(pType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T castTo(FloatingPointFormula pNumber, FormulaType<T> pTargetType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.castTo(pNumber, pTargetType);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -135,16 +173,22 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       FloatingPointFormula pNumber,
       FormulaType<T> pTargetType,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.castTo(pNumber, pTargetType, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula castFrom(
       Formula pSource, boolean pSigned, FloatingPointType pTargetType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.castFrom(pSource, pSigned, pTargetType);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -154,81 +198,114 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       boolean pSigned,
       FloatingPointType pTargetType,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.castFrom(pSource, pSigned, pTargetType, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula fromIeeeBitvector(
       BitvectorFormula pNumber, FloatingPointType pTargetType) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.fromIeeeBitvector(pNumber, pTargetType);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BitvectorFormula toIeeeBitvector(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.toIeeeBitvector(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula round(
       FloatingPointFormula pFormula, FloatingPointRoundingMode pRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.round(pFormula, pRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula negate(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.negate(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula abs(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.abs(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula max(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.max(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula min(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.min(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula sqrt(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.sqrt(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula sqrt(
       FloatingPointFormula pNumber, FloatingPointRoundingMode pRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.sqrt(pNumber, pRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula add(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.add(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -237,16 +314,22 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       FloatingPointFormula pNumber1,
       FloatingPointFormula pNumber2,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.add(pNumber1, pNumber2, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula subtract(
       FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.subtract(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -255,15 +338,21 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       FloatingPointFormula pNumber1,
       FloatingPointFormula pNumber2,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.subtract(pNumber1, pNumber2, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula divide(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.divide(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -272,16 +361,22 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       FloatingPointFormula pNumber1,
       FloatingPointFormula pNumber2,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.divide(pNumber1, pNumber2, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormula multiply(
       FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.multiply(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -290,94 +385,133 @@ class SynchronizedFloatingPointFormulaManager implements FloatingPointFormulaMan
       FloatingPointFormula pNumber1,
       FloatingPointFormula pNumber2,
       FloatingPointRoundingMode pFloatingPointRoundingMode) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.multiply(pNumber1, pNumber2, pFloatingPointRoundingMode);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula assignment(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.assignment(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula equalWithFPSemantics(
       FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.equalWithFPSemantics(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula greaterThan(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.greaterThan(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula greaterOrEquals(
       FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.greaterOrEquals(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula lessThan(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.lessThan(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula lessOrEquals(FloatingPointFormula pNumber1, FloatingPointFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.lessOrEquals(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula isNaN(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isNaN(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula isInfinity(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isInfinity(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula isZero(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isZero(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula isNormal(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isNormal(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula isSubnormal(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isSubnormal(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula isNegative(FloatingPointFormula pNumber) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isNegative(pNumber);
+    } finally {
+      sync.unlock();
     }
   }
 }
@@ -11,8 +11,15 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
 import org.sosy_lab.java_smt.api.ArrayFormulaManager;
@@ -28,9 +35,9 @@ import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager;
 import org.sosy_lab.java_smt.api.RationalFormulaManager;
 import org.sosy_lab.java_smt.api.SLFormulaManager;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.UFManager;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationCache;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
@@ -38,111 +45,173 @@ import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 class SynchronizedFormulaManager implements FormulaManager {
 
   private final FormulaManager delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
 
-  protected SynchronizedFormulaManager(FormulaManager pDelegate, SolverContext pSync) {
+  protected SynchronizedFormulaManager(FormulaManager pDelegate, ContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
 
   @Override
   public IntegerFormulaManager getIntegerFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedIntegerFormulaManager(delegate.getIntegerFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public RationalFormulaManager getRationalFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedRationalFormulaManager(delegate.getRationalFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormulaManager getBooleanFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedBooleanFormulaManager(delegate.getBooleanFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ArrayFormulaManager getArrayFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedArrayFormulaManager(delegate.getArrayFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BitvectorFormulaManager getBitvectorFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedBitvectorFormulaManager(delegate.getBitvectorFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormulaManager getFloatingPointFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedFloatingPointFormulaManager(
           delegate.getFloatingPointFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public UFManager getUFManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedUFManager(delegate.getUFManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public SLFormulaManager getSLFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedSLFormulaManager(delegate.getSLFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public QuantifiedFormulaManager getQuantifiedFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedQuantifiedFormulaManager(delegate.getQuantifiedFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T makeVariable(FormulaType<T> pFormulaType, String pName) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeVariable(pFormulaType, pName);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T makeApplication(
       FunctionDeclaration<T> pDeclaration, List<? extends Formula> pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeApplication(pDeclaration, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T makeApplication(
       FunctionDeclaration<T> pDeclaration, Formula... pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeApplication(pDeclaration, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.getFormulaType(pFormula);
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public BooleanFormula parse(String pS) throws IllegalArgumentException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.parse(pS);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public void parse(Reader pInput, Consumer<BooleanFormula> pAssertions) throws IOException {
+    sync.lock();
+    try {
+      delegate.parse(pInput, pAssertions);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public List<BooleanFormula> parse(Path pFile) throws IOException {
+    sync.lock();
+    try {
+      return delegate.parse(pFile);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -152,98 +221,230 @@ class SynchronizedFormulaManager implements FormulaManager {
       @Override
       public void appendTo(Appendable out) throws IOException {
         String dump;
-        synchronized (sync) {
+        sync.lock();
+        try {
           dump = delegate.dumpFormula(pT).toString(); // the work is done here
+        } finally {
+          sync.unlock();
         }
         out.append(dump);
       }
     };
   }
 
+  @Override
+  public Appender dumpFormulaWithSharing(BooleanFormula pT) {
+    return new Appenders.AbstractAppender() {
+      @Override
+      public void appendTo(Appendable out) throws IOException {
+        // the output is written directly, thus we keep the lock until it is complete
+        sync.lock();
+        try {
+          delegate.dumpFormulaWithSharing(pT).appendTo(out);
+        } finally {
+          sync.unlock();
+        }
+      }
+    };
+  }
+
   @Override
   public BooleanFormula applyTactic(BooleanFormula pInput, Tactic pTactic)
       throws InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.applyTactic(pInput, pTactic);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T simplify(T pInput) throws InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.simplify(pInput);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <R> R visit(Formula pF, FormulaVisitor<R> pFormulaVisitor) {
-    synchronized (sync) {
+    if (sync.allowsConcurrentReads()) {
+      // the visitor might create new formulas, thus we apply it outside of the shared lock.
+      return record(pF).replay(pFormulaVisitor);
+    }
+    sync.lock();
+    try {
       return delegate.visit(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void visitRecursively(Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
-    synchronized (sync) {
+    if (sync.allowsConcurrentReads()) {
+      visitRecursivelyWithSharedLock(pF, pFormulaVisitor);
+      return;
+    }
+    sync.lock();
+    try {
       delegate.visitRecursively(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  /** Decompose a single formula node while holding the shared lock. */
+  private RecordedVisit record(Formula pF) {
+    sync.lockShared();
+    try {
+      return delegate.visit(pF, RecordedVisit.RECORDER);
+    } finally {
+      sync.unlockShared();
+    }
+  }
+
+  /**
+   * Same traversal as in {@link org.sosy_lab.java_smt.basicimpl.FormulaCreator#visitRecursively},
+   * but each node is decomposed separately, such that the visitor is applied without holding a
+   * lock.
+   */
+  private void visitRecursivelyWithSharedLock(
+      Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
+    Set<Formula> seen = new HashSet<>();
+    Deque<Formula> toVisit = new ArrayDeque<>();
+    seen.add(pF);
+    toVisit.push(pF);
+    while (!toVisit.isEmpty()) {
+      RecordedVisit node = record(toVisit.pop());
+      TraversalProcess process = node.replay(pFormulaVisitor);
+      if (process == TraversalProcess.ABORT) {
+        return;
+      }
+      for (Formula child : node.getChildren()) {
+        if (process.contains(child) && seen.add(child)) {
+          toVisit.push(child);
+        }
+      }
     }
   }
 
   @Override
   public <T extends Formula> T transformRecursively(
       T pF, FormulaTransformationVisitor pFormulaVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.transformRecursively(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public <T extends Formula> T transformRecursively(
+      T pF, FormulaTransformationVisitor pFormulaVisitor, FormulaTransformationCache pCache) {
+    sync.lock();
+    try {
+      return delegate.transformRecursively(pF, pFormulaVisitor, pCache);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public Map<String, Formula> extractVariables(Formula pF) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.extractVariables(pF);
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public Map<String, Formula> extractVariablesAndUFs(Formula pF) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.extractVariablesAndUFs(pF);
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public <T extends Formula> T substitute(
       T pF, Map<? extends Formula, ? extends Formula> pFromToMapping) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.substitute(pF, pFromToMapping);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public <T extends Formula> T substitute(
+      T pF,
+      Map<? extends Formula, ? extends Formula> pFromToMapping,
+      FormulaTransformationCache pCache) {
+    sync.lock();
+    try {
+      return delegate.substitute(pF, pFromToMapping, pCache);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.translateFrom(pFormula, pOtherContext);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public <T extends Formula> T translateTermFrom(T pFormula, FormulaManager pOtherContext) {
+    sync.lock();
+    try {
+      return delegate.translateTermFrom(pFormula, pOtherContext);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public boolean isValidName(String pVariableName) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.isValidName(pVariableName);
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public String escape(String pVariableName) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.escape(pVariableName);
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public String unescape(String pVariableName) {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.unescape(pVariableName);
+    } finally {
+      sync.unlockShared();
     }
   }
 }
@@ -26,10 +26,11 @@ class SynchronizedInterpolatingProverEnvironmentWithContext<T>
 
   SynchronizedInterpolatingProverEnvironmentWithContext(
       InterpolatingProverEnvironment<T> pDelegate,
-      SolverContext pSync,
+      ContextLock pSync,
       FormulaManager pManager,
-      FormulaManager pOtherManager) {
-    super(pDelegate, pSync, pManager, pOtherManager);
+      SolverContext pOtherContext,
+      SolverContextPool pContextPool) {
+    super(pDelegate, pSync, pManager, pOtherContext, pContextPool);
     delegate = checkNotNull(pDelegate);
   }
 
@@ -39,6 +40,12 @@ class SynchronizedInterpolatingProverEnvironmentWithContext<T>
     return manager.translateFrom(delegate.getInterpolant(pFormulasOfA), otherManager);
   }
 
+  @Override
+  public List<BooleanFormula> getInterpolants(List<? extends Collection<T>> pGroupsOfA)
+      throws SolverException, InterruptedException {
+    return translate(delegate.getInterpolants(pGroupsOfA), otherManager, manager);
+  }
+
   @Override
   public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> pPartitionedFormulas)
       throws SolverException, InterruptedException {
@@ -11,7 +11,10 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -20,71 +23,115 @@ import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 class SynchronizedModel implements Model {
 
   private final Model delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
 
-  SynchronizedModel(Model pDelegate, SolverContext pSync) {
+  SynchronizedModel(Model pDelegate, ContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
 
   @Override
   public <T extends Formula> @Nullable T eval(T pFormula) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.eval(pFormula);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable Object evaluate(Formula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable BigInteger evaluate(IntegerFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable Rational evaluate(RationalFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable Boolean evaluate(BooleanFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable BigInteger evaluate(BitvectorFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public ImmutableMap<Formula, Object> evaluate(Collection<? extends Formula> pFormulas) {
+    sync.lock();
+    try {
+      return delegate.evaluate(pFormulas);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.asList();
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  /** The iteration can call the solver, thus we build all matching assignments under the lock. */
+  @Override
+  public Iterable<ValueAssignment> assignments(Predicate<? super String> pNameFilter) {
+    sync.lock();
+    try {
+      return ImmutableList.copyOf(delegate.assignments(pNameFilter));
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 }
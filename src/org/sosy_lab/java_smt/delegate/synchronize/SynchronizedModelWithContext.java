@@ -21,7 +21,6 @@ import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 class SynchronizedModelWithContext implements Model {
 
@@ -29,12 +28,12 @@ class SynchronizedModelWithContext implements Model {
       "translating non-boolean formulae is not supported";
 
   private final Model delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
   private final FormulaManager manager;
   private final FormulaManager otherManager;
 
   SynchronizedModelWithContext(
-      Model pDelegate, SolverContext pSync, FormulaManager pManager, FormulaManager pOtherManager) {
+      Model pDelegate, ContextLock pSync, FormulaManager pManager, FormulaManager pOtherManager) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
     manager = checkNotNull(pManager);
@@ -64,8 +63,11 @@ class SynchronizedModelWithContext implements Model {
   @Override
   public @Nullable Boolean evaluate(BooleanFormula pF) {
     BooleanFormula f;
-    synchronized (sync) {
+    sync.lock();
+    try {
       f = otherManager.translateFrom(pF, manager);
+    } finally {
+      sync.unlock();
     }
     return delegate.evaluate(f);
   }
@@ -101,8 +103,11 @@ class SynchronizedModelWithContext implements Model {
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 }
@@ -17,9 +17,10 @@ class SynchronizedProverEnvironmentWithContext
 
   SynchronizedProverEnvironmentWithContext(
       ProverEnvironment pDelegate,
-      SolverContext pSync,
+      ContextLock pSync,
       FormulaManager pManager,
-      FormulaManager pOtherManager) {
-    super(pDelegate, pSync, pManager, pOtherManager);
+      SolverContext pOtherContext,
+      SolverContextPool pContextPool) {
+    super(pDelegate, pSync, pManager, pOtherContext, pContextPool);
   }
 }
@@ -11,12 +11,17 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.java_smt.SolverContextFactory;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.FormulaManager;
@@ -35,11 +40,37 @@ public class SynchronizedSolverContext implements SolverContext {
               + "This allows more parallelity when solving larger queries.")
   private boolean useSeperateProvers = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Maximal number of idle solver contexts that are kept for reuse "
+              + "when using provers from a seperate context. "
+              + "Zero disables the reuse of contexts.")
+  @IntegerOption(min = 0)
+  private int contextPoolSize = 4;
+
+  @Option(
+      secure = true,
+      description =
+          "Close idle solver contexts for seperate provers after they were not used for this time. "
+              + "Zero disables the eviction of idle contexts.")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
+  private TimeSpan contextPoolIdleTime = TimeSpan.ofSeconds(60);
+
+  @Option(
+      secure = true,
+      description =
+          "Allow read-only operations like visiting formulas from several threads at once. "
+              + "This has only an effect if the solver supports it (SMTInterpol, Princess). "
+              + "By default, all accesses to the solver are serialized.")
+  private boolean allowConcurrentReads = false;
+
   private final SolverContext delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
   private final Configuration config;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
+  private final SolverContextPool contextPool;
 
   public SynchronizedSolverContext(
       Configuration pConfig,
@@ -49,10 +80,15 @@ public class SynchronizedSolverContext implements SolverContext {
       throws InvalidConfigurationException {
     pConfig.inject(this, SynchronizedSolverContext.class);
     delegate = checkNotNull(pDelegate);
-    sync = delegate;
+    sync =
+        new ContextLock(
+            allowConcurrentReads && ContextLock.supportsConcurrentReads(delegate.getSolverName()));
     config = pConfig;
     logger = pLogger;
     shutdownNotifier = pShutdownNotifier;
+    contextPool =
+        new SolverContextPool(
+            this::createOtherContext, contextPoolSize, contextPoolIdleTime.asNanos());
   }
 
   @SuppressWarnings("resource")
@@ -73,23 +109,27 @@ public class SynchronizedSolverContext implements SolverContext {
 
   @Override
   public FormulaManager getFormulaManager() {
-    return new SynchronizedFormulaManager(delegate.getFormulaManager(), delegate);
+    return new SynchronizedFormulaManager(delegate.getFormulaManager(), sync);
   }
 
   @SuppressWarnings("resource")
   @Override
   public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       if (useSeperateProvers) {
-        SolverContext otherContext = createOtherContext();
+        SolverContext otherContext = contextPool.acquire();
         return new SynchronizedProverEnvironmentWithContext(
             otherContext.newProverEnvironment(pOptions),
             sync,
             delegate.getFormulaManager(),
-            otherContext.getFormulaManager());
+            otherContext,
+            contextPool);
       } else {
-        return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), delegate);
+        return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), sync);
       }
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -97,50 +137,70 @@ public class SynchronizedSolverContext implements SolverContext {
   @Override
   public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
       ProverOptions... pOptions) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       if (useSeperateProvers) {
-        SolverContext otherContext = createOtherContext();
+        SolverContext otherContext = contextPool.acquire();
         return new SynchronizedInterpolatingProverEnvironmentWithContext<>(
             otherContext.newProverEnvironmentWithInterpolation(pOptions),
             sync,
             delegate.getFormulaManager(),
-            otherContext.getFormulaManager());
+            otherContext,
+            contextPool);
       } else {
         return new SynchronizedInterpolatingProverEnvironment<>(
-            delegate.newProverEnvironmentWithInterpolation(pOptions), delegate);
+            delegate.newProverEnvironmentWithInterpolation(pOptions), sync);
       }
+    } finally {
+      sync.unlock();
     }
   }
 
   @SuppressWarnings("resource")
   @Override
   public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       // seperate prover environment not available, because we can not translate arbitrary formulae.
       // if (useSeperateProvers) { }
       return new SynchronizedOptimizationProverEnvironment(
-          delegate.newOptimizationProverEnvironment(pOptions), delegate);
+          delegate.newOptimizationProverEnvironment(pOptions), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public String getVersion() {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.getVersion();
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public Solvers getSolverName() {
-    synchronized (sync) {
+    sync.lockShared();
+    try {
       return delegate.getSolverName();
+    } finally {
+      sync.unlockShared();
     }
   }
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
+      if (useSeperateProvers) {
+        logger.log(Level.FINE, contextPool);
+      }
+      contextPool.close();
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 }
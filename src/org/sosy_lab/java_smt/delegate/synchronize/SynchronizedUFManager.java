@@ -14,15 +14,14 @@ import java.util.List;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.UFManager;
 
 class SynchronizedUFManager implements UFManager {
 
   private final UFManager delegate;
-  private final SolverContext sync;
+  private final ContextLock sync;
 
-  SynchronizedUFManager(UFManager pDelegate, SolverContext pSync) {
+  SynchronizedUFManager(UFManager pDelegate, ContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
@@ -30,47 +29,65 @@ class SynchronizedUFManager implements UFManager {
   @Override
   public <T extends Formula> FunctionDeclaration<T> declareUF(
       String pName, FormulaType<T> pReturnType, List<FormulaType<?>> pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.declareUF(pName, pReturnType, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> FunctionDeclaration<T> declareUF(
       String pName, FormulaType<T> pReturnType, FormulaType<?>... pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.declareUF(pName, pReturnType, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T callUF(
       FunctionDeclaration<T> pFuncType, List<? extends Formula> pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.callUF(pFuncType, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T callUF(FunctionDeclaration<T> pFuncType, Formula... pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.callUF(pFuncType, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T declareAndCallUF(
       String pName, FormulaType<T> pReturnType, List<Formula> pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.declareAndCallUF(pName, pReturnType, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T declareAndCallUF(
       String pName, FormulaType<T> pReturnType, Formula... pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.declareAndCallUF(pName, pReturnType, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 }
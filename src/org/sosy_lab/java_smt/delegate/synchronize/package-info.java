@@ -13,6 +13,9 @@
  * <p>This allows us to use a plain sequential solver in a concurrent context, i.e., we can create
  * formulae and solve queries from multiple interleaving threads without any synchronization from
  * the user.
+ *
+ * <p>For solvers that support it, read-only operations like visiting formulas are executed
+ * concurrently, all other operations are serialized.
  */
 @com.google.errorprone.annotations.CheckReturnValue
 @javax.annotation.ParametersAreNonnullByDefault
@@ -0,0 +1,94 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Wraps a basic prover environment and appends all changes of its stack to a trace. */
+class TraceBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
+
+  private final BasicProverEnvironment<T> delegate;
+  final TraceWriter trace;
+
+  TraceBasicProverEnvironment(BasicProverEnvironment<T> pDelegate, TraceWriter pTrace) {
+    delegate = checkNotNull(pDelegate);
+    trace = checkNotNull(pTrace);
+  }
+
+  @Override
+  public void pop() {
+    delegate.pop();
+    trace.pop();
+  }
+
+  @Override
+  public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    trace.addConstraint(pConstraint);
+    return delegate.addConstraint(pConstraint);
+  }
+
+  @Override
+  public void push() {
+    delegate.push();
+    trace.push();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    trace.checkSat(ImmutableList.of());
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    trace.checkSat(pAssumptions);
+    return delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return delegate.getModel();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    trace.checkSat(pAssumptions);
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+    trace.close();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    // AllSAT has no representation in SMT-LIB, the single queries are not traced.
+    return delegate.allSat(pCallback, pImportant);
+  }
+}
@@ -0,0 +1,55 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Interpolation queries are not part of SMT-LIB, only the stack of the prover is traced. */
+class TraceInterpolatingProverEnvironment<T> extends TraceBasicProverEnvironment<T>
+    implements InterpolatingProverEnvironment<T> {
+
+  private final InterpolatingProverEnvironment<T> delegate;
+
+  TraceInterpolatingProverEnvironment(
+      InterpolatingProverEnvironment<T> pDelegate, TraceWriter pTrace) {
+    super(pDelegate, pTrace);
+    delegate = checkNotNull(pDelegate);
+  }
+
+  @Override
+  public BooleanFormula getInterpolant(Collection<T> pFormulasOfA)
+      throws SolverException, InterruptedException {
+    return delegate.getInterpolant(pFormulasOfA);
+  }
+
+  @Override
+  public List<BooleanFormula> getInterpolants(List<? extends Collection<T>> pGroupsOfA)
+      throws SolverException, InterruptedException {
+    return delegate.getInterpolants(pGroupsOfA);
+  }
+
+  @Override
+  public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> pPartitionedFormulas)
+      throws SolverException, InterruptedException {
+    return delegate.getSeqInterpolants(pPartitionedFormulas);
+  }
+
+  @Override
+  public List<BooleanFormula> getTreeInterpolants(
+      List<? extends Collection<T>> pPartitionedFormulas, int[] pStartOfSubTree)
+      throws SolverException, InterruptedException {
+    return delegate.getTreeInterpolants(pPartitionedFormulas, pStartOfSubTree);
+  }
+}
@@ -0,0 +1,59 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Objectives can not be serialized in a solver-independent way, only the stack of the prover and
+ * the checks are traced.
+ */
+class TraceOptimizationProverEnvironment extends TraceBasicProverEnvironment<Void>
+    implements OptimizationProverEnvironment {
+
+  private final OptimizationProverEnvironment delegate;
+
+  TraceOptimizationProverEnvironment(OptimizationProverEnvironment pDelegate, TraceWriter pTrace) {
+    super(pDelegate, pTrace);
+    delegate = checkNotNull(pDelegate);
+  }
+
+  @Override
+  public int maximize(Formula pObjective) {
+    return delegate.maximize(pObjective);
+  }
+
+  @Override
+  public int minimize(Formula pObjective) {
+    return delegate.minimize(pObjective);
+  }
+
+  @Override
+  public OptStatus check() throws InterruptedException, SolverException {
+    trace.checkSat(ImmutableList.of());
+    return delegate.check();
+  }
+
+  @Override
+  public Optional<Rational> upper(int pHandle, Rational pEpsilon) {
+    return delegate.upper(pHandle, pEpsilon);
+  }
+
+  @Override
+  public Optional<Rational> lower(int pHandle, Rational pEpsilon) {
+    return delegate.lower(pHandle, pEpsilon);
+  }
+}
@@ -0,0 +1,114 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.sosy_lab.common.io.PathCounterTemplate;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * {@link SolverContext} that writes one SMT-LIB trace for each prover environment.
+ *
+ * <p>In contrast to dumping the whole assertion stack for each query, the trace only contains the
+ * changes since the last query, such that its size is linear in the number of operations.
+ */
+public final class TraceSolverContext implements SolverContext {
+
+  private final LogManager logger;
+  private final SolverContext delegate;
+  private final PathCounterTemplate logfile;
+  private final boolean compress;
+
+  /** Traces of prover environments that are not yet closed, they are closed with the context. */
+  private final Set<TraceWriter> openTraces = new LinkedHashSet<>();
+
+  /**
+   * Create a context that traces the queries of all prover environments.
+   *
+   * @param pLogfile the template for the names of the trace files, one file per prover.
+   * @param pCompress whether the traces are compressed with gzip.
+   */
+  public TraceSolverContext(
+      LogManager pLogger,
+      SolverContext pDelegate,
+      PathCounterTemplate pLogfile,
+      boolean pCompress) {
+    logger = checkNotNull(pLogger);
+    delegate = checkNotNull(pDelegate);
+    logfile = checkNotNull(pLogfile);
+    compress = pCompress;
+  }
+
+  private TraceWriter newTrace() {
+    Path path = logfile.getFreshPath();
+    if (compress) {
+      path = path.resolveSibling(path.getFileName() + ".gz");
+    }
+    TraceWriter trace =
+        new TraceWriter(delegate.getFormulaManager(), logger, path, compress, openTraces::remove);
+    openTraces.add(trace);
+    return trace;
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return new TraceProverEnvironment(delegate.newProverEnvironment(pOptions), newTrace());
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    return new TraceInterpolatingProverEnvironment<>(
+        delegate.newProverEnvironmentWithInterpolation(pOptions), newTrace());
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    return new TraceOptimizationProverEnvironment(
+        delegate.newOptimizationProverEnvironment(pOptions), newTrace());
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public void close() {
+    // closing removes the trace from the set
+    for (TraceWriter trace : ImmutableList.copyOf(openTraces)) {
+      trace.close();
+    }
+    delegate.close();
+  }
+}
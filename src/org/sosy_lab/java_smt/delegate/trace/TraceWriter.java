@@ -0,0 +1,309 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+
+/**
+ * Appends the SMT-LIB commands of a single prover to a file.
+ *
+ * <p>Formulas are serialized with {@link FormulaManager#dumpFormula}, and only those declarations
+ * are written whose symbol is not yet visible in the current scope. Definitions of a dump (e.g.,
+ * the ".def_N" terms of MathSAT) are only valid for that dump, because each dump starts their
+ * numbering anew. Thus they are inlined as let-bindings into the term of the dump. The file is a
+ * valid script that reproduces the interaction with the prover.
+ *
+ * <p>A failure to write the trace must not affect solving, thus it is logged once and the trace is
+ * disabled afterwards.
+ */
+final class TraceWriter implements Closeable {
+
+  private final FormulaManager mgr;
+  private final LogManager logger;
+  private final Path path;
+  private final Consumer<TraceWriter> onClose;
+  private @Nullable Writer out;
+  private boolean closed = false;
+
+  /** Symbols declared in the current scope. */
+  private final Set<String> declared = new HashSet<>();
+
+  /** Declared symbols per level of the assertion stack, they are removed with the level. */
+  private final Deque<List<String>> declaredPerLevel = new ArrayDeque<>();
+
+  /**
+   * Create a trace in the given file.
+   *
+   * @param pOnClose called once when the trace is closed.
+   */
+  TraceWriter(
+      FormulaManager pMgr,
+      LogManager pLogger,
+      Path pPath,
+      boolean pCompress,
+      Consumer<TraceWriter> pOnClose) {
+    mgr = checkNotNull(pMgr);
+    logger = checkNotNull(pLogger);
+    path = checkNotNull(pPath);
+    onClose = checkNotNull(pOnClose);
+    declaredPerLevel.push(new ArrayList<>());
+    try {
+      MoreFiles.createParentDirectories(path);
+      OutputStream stream = Files.newOutputStream(path);
+      if (pCompress) {
+        // flushing should write complete blocks, such that a partial trace can be decompressed.
+        stream = new GZIPOutputStream(stream, true);
+      }
+      out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      handleException(e);
+    }
+  }
+
+  void push() {
+    declaredPerLevel.push(new ArrayList<>());
+    write("(push 1)\n");
+  }
+
+  void pop() {
+    checkState(declaredPerLevel.size() > 1, "pop without matching push");
+    declared.removeAll(declaredPerLevel.pop());
+    write("(pop 1)\n");
+  }
+
+  void addConstraint(BooleanFormula pConstraint) {
+    if (out != null) {
+      write("(assert " + declare(pConstraint) + ")\n");
+    }
+  }
+
+  /** Write the query and flush, such that the trace is complete even if the solver crashes. */
+  void checkSat(Collection<BooleanFormula> pAssumptions) {
+    if (out == null) {
+      return;
+    }
+    if (pAssumptions.isEmpty()) {
+      write("(check-sat)\n");
+    } else {
+      StringBuilder command = new StringBuilder("(check-sat-assuming (");
+      String separator = "";
+      for (BooleanFormula assumption : pAssumptions) {
+        command.append(separator).append(declare(assumption));
+        separator = " ";
+      }
+      write(command.append("))\n").toString());
+    }
+    flush();
+  }
+
+  /**
+   * Write all missing declarations of the formula and return its term. The dump of the formula is
+   * split into its top-level commands, which are either declarations, definitions, or assertions.
+   * Definitions without parameters are turned into let-bindings around the term.
+   */
+  private String declare(BooleanFormula pFormula) {
+    List<String> terms = new ArrayList<>();
+    List<List<String>> definitions = new ArrayList<>();
+    for (String command : splitCommands(mgr.dumpFormula(pFormula).toString())) {
+      if (command.startsWith("(assert")) {
+        terms.add(command.substring("(assert".length(), command.length() - 1).trim());
+      } else if (isDeclaration(command)) {
+        List<String> arguments = splitArguments(command);
+        if (isLocalDefinition(arguments)) {
+          definitions.add(arguments);
+        } else if (arguments.size() > 1 && declared.add(arguments.get(1))) {
+          declaredPerLevel.element().add(arguments.get(1));
+          write(command + "\n");
+        }
+      }
+    }
+
+    String term;
+    if (terms.size() == 1) {
+      term = terms.get(0);
+    } else if (terms.isEmpty()) {
+      term = "true";
+    } else {
+      term = "(and " + String.join(" ", terms) + ")";
+    }
+    // later definitions may refer to earlier ones, thus the first definition is the outermost let.
+    for (List<String> definition : Lists.reverse(definitions)) {
+      term = String.format("(let ((%s %s)) %s)", definition.get(1), definition.get(4), term);
+    }
+    return term;
+  }
+
+  private static boolean isDeclaration(String pCommand) {
+    return pCommand.startsWith("(declare-") || pCommand.startsWith("(define-");
+  }
+
+  /** Check for a command "(define-fun name () sort term)". */
+  private static boolean isLocalDefinition(List<String> pArguments) {
+    return pArguments.size() == 5
+        && pArguments.get(0).equals("define-fun")
+        && pArguments.get(2).replaceAll("\\s", "").equals("()");
+  }
+
+  /**
+   * Split a command into its name and arguments, each of them is either an atom or an S-expression.
+   */
+  private static ImmutableList<String> splitArguments(String pCommand) {
+    ImmutableList.Builder<String> arguments = ImmutableList.builder();
+    String text = pCommand.substring(1, pCommand.length() - 1);
+    int i = 0;
+    while (i < text.length()) {
+      if (Character.isWhitespace(text.charAt(i))) {
+        i++;
+      } else {
+        int end = endOfExpression(text, i);
+        arguments.add(text.substring(i, end));
+        i = end;
+      }
+    }
+    return arguments.build();
+  }
+
+  /** Return the end of the atom or S-expression that starts at the given position. */
+  private static int endOfExpression(String pText, int pStart) {
+    int depth = 0;
+    for (int i = pStart; i < pText.length(); i++) {
+      char c = pText.charAt(i);
+      if (c == '|' || c == '"') {
+        int end = pText.indexOf(c, i + 1);
+        i = end < 0 ? pText.length() : end;
+      } else if (c == '(') {
+        if (depth == 0 && i > pStart) {
+          return i;
+        }
+        depth++;
+      } else if (c == ')') {
+        if (depth == 0) {
+          return i;
+        }
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      } else if (depth == 0 && Character.isWhitespace(c)) {
+        return i;
+      }
+    }
+    return pText.length();
+  }
+
+  /**
+   * Split SMT-LIB text into its top-level S-expressions, ignoring comments. Quoted symbols and
+   * strings may contain parentheses.
+   */
+  static ImmutableList<String> splitCommands(String pText) {
+    ImmutableList.Builder<String> commands = ImmutableList.builder();
+    int depth = 0;
+    int start = -1;
+    for (int i = 0; i < pText.length(); i++) {
+      char c = pText.charAt(i);
+      if (c == '|' || c == '"') {
+        int end = pText.indexOf(c, i + 1);
+        // a string literal contains "" as escaped quote, which is handled as two strings.
+        i = end < 0 ? pText.length() : end;
+      } else if (c == ';' && depth == 0) {
+        int end = pText.indexOf('\n', i);
+        i = end < 0 ? pText.length() : end;
+      } else if (c == '(') {
+        if (depth == 0) {
+          start = i;
+        }
+        depth++;
+      } else if (c == ')') {
+        depth--;
+        if (depth == 0) {
+          commands.add(pText.substring(start, i + 1));
+        }
+      }
+    }
+    return commands.build();
+  }
+
+  private void write(String pText) {
+    if (out != null) {
+      try {
+        out.write(pText);
+      } catch (IOException e) {
+        handleException(e);
+      }
+    }
+  }
+
+  private void flush() {
+    if (out != null) {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        handleException(e);
+      }
+    }
+  }
+
+  private void handleException(IOException e) {
+    if (out != null) {
+      try {
+        out.close();
+      } catch (IOException e2) {
+        e.addSuppressed(e2);
+      }
+      out = null;
+    }
+    logger.logUserException(Level.WARNING, e, "Cannot write query trace " + path);
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (out != null) {
+      Writer writer = out;
+      out = null;
+      try {
+        writer.close();
+      } catch (IOException e) {
+        handleException(e);
+      }
+    }
+    onClose.accept(this);
+  }
+}
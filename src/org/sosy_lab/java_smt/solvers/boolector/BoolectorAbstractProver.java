@@ -9,6 +9,8 @@
 package org.sosy_lab.java_smt.solvers.boolector;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -156,6 +158,11 @@ abstract class BoolectorAbstractProver<T> extends AbstractProverWithAllSat<T> {
     return result;
   }
 
+  @Override
+  protected List<BooleanFormula> getAssertedConstraints() {
+    return Lists.transform(ImmutableList.copyOf(getAssertedTerms()), creator::encapsulateBoolean);
+  }
+
   /**
    * Simply returns true if the prover is closed. False otherwise.
    *
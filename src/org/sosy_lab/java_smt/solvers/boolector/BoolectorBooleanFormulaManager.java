@@ -8,6 +8,7 @@
 
 package org.sosy_lab.java_smt.solvers.boolector;
 
+import static org.sosy_lab.java_smt.solvers.boolector.BoolectorFormulaManager.getBtorTerm;
 import static org.sosy_lab.java_smt.solvers.boolector.BtorJNI.boolector_and;
 import static org.sosy_lab.java_smt.solvers.boolector.BtorJNI.boolector_cond;
 import static org.sosy_lab.java_smt.solvers.boolector.BtorJNI.boolector_false;
@@ -18,7 +19,10 @@ import static org.sosy_lab.java_smt.solvers.boolector.BtorJNI.boolector_true;
 import static org.sosy_lab.java_smt.solvers.boolector.BtorJNI.boolector_xor;
 
 import com.google.common.primitives.Longs;
+import java.util.Collection;
+import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.basicimpl.AbstractBooleanFormulaManager;
+import org.sosy_lab.java_smt.basicimpl.BalancedReduction;
 
 public class BoolectorBooleanFormulaManager
     extends AbstractBooleanFormulaManager<Long, Long, Long, Long> {
@@ -60,6 +64,28 @@ public class BoolectorBooleanFormulaManager
     return boolector_or(btor, pParam1, pParam2);
   }
 
+  @Override
+  protected Long andFormulas(Collection<BooleanFormula> pBits) {
+    // Boolector simplifies constant operands itself, we build a balanced tree of the terms.
+    return BalancedReduction.reduce(
+        getBtorTerms(pBits), pBits.size(), (a, b) -> boolector_and(btor, a, b));
+  }
+
+  @Override
+  protected Long orFormulas(Collection<BooleanFormula> pBits) {
+    return BalancedReduction.reduce(
+        getBtorTerms(pBits), pBits.size(), (a, b) -> boolector_or(btor, a, b));
+  }
+
+  private static long[] getBtorTerms(Collection<BooleanFormula> pBits) {
+    long[] terms = new long[pBits.size()];
+    int i = 0;
+    for (BooleanFormula bit : pBits) {
+      terms[i++] = getBtorTerm(bit);
+    }
+    return terms;
+  }
+
   @Override
   public Long xor(Long pParam1, Long pParam2) {
     return boolector_xor(btor, pParam1, pParam2);
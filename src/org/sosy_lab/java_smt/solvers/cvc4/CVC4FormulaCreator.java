@@ -441,6 +441,14 @@ public class CVC4FormulaCreator extends FormulaCreator<Expr, Type, ExprManager,
     return exp;
   }
 
+  /** Convert without formatting and parsing a string if the number fits into a machine word. */
+  private static BigInteger toBigInteger(Integer pValue) {
+    if (pValue.fitsSignedLong()) {
+      return BigInteger.valueOf(pValue.getLong());
+    }
+    return new BigInteger(pValue.toString());
+  }
+
   @Override
   public Object convertValue(Expr pF) {
     throw new UnsupportedOperationException(
@@ -454,13 +462,12 @@ public class CVC4FormulaCreator extends FormulaCreator<Expr, Type, ExprManager,
       return value.getConstBoolean();
 
     } else if (value.getType().isInteger() && type.isInteger()) {
-      return new BigInteger(value.getConstRational().toString());
+      return toBigInteger(value.getConstRational().getNumerator());
 
     } else if (value.getType().isReal() && type.isReal()) {
       Rational rat = value.getConstRational();
       return org.sosy_lab.common.rationals.Rational.of(
-          new BigInteger(rat.getNumerator().toString()),
-          new BigInteger(rat.getDenominator().toString()));
+          toBigInteger(rat.getNumerator()), toBigInteger(rat.getDenominator()));
 
     } else if (value.getType().isBitVector()) {
       Integer bv = value.getConstBitVector().getValue();
@@ -146,6 +146,18 @@ abstract class CVC4NumeralFormulaManager<
     return exprManager.mkExpr(Kind.PLUS, pParam1, pParam2);
   }
 
+  @Override
+  protected Expr sumImpl(List<Expr> operands) {
+    if (operands.isEmpty()) {
+      return super.sumImpl(operands);
+    }
+    // the leftmost summand zero determines the type of the sum, as in the default implementation
+    vectorExpr summands = new vectorExpr();
+    summands.add(makeNumberImpl(0));
+    operands.forEach(summands::add);
+    return exprManager.mkExpr(Kind.PLUS, summands);
+  }
+
   @Override
   protected Expr subtract(Expr pParam1, Expr pParam2) {
     return exprManager.mkExpr(Kind.MINUS, pParam1, pParam2);
@@ -10,6 +10,8 @@ package org.sosy_lab.java_smt.solvers.cvc4;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import edu.stanford.CVC4.Expr;
 import edu.stanford.CVC4.ExprManager;
 import edu.stanford.CVC4.ExprManagerMapCollection;
@@ -90,10 +92,13 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
   // CVC4 does not support separation logic in incremental mode.
   private final boolean incremental;
 
+  private final int randomSeed;
+  private final BooleanFormulaManager bmgr;
+
   protected CVC4TheoremProver(
       CVC4FormulaCreator pFormulaCreator,
       ShutdownNotifier pShutdownNotifier,
-      int randomSeed,
+      int pRandomSeed,
       Set<ProverOptions> pOptions,
       BooleanFormulaManager pBmgr) {
     super(pOptions, pBmgr, pShutdownNotifier);
@@ -101,12 +106,14 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     creator = pFormulaCreator;
     smtEngine = new SmtEngine(exprManager);
     incremental = !enableSL;
+    randomSeed = pRandomSeed;
+    bmgr = pBmgr;
     assertedFormulas.push(new ArrayList<>()); // create initial level
 
-    setOptions(randomSeed, pOptions);
+    setOptions(pRandomSeed, pOptions);
   }
 
-  private void setOptions(int randomSeed, Set<ProverOptions> pOptions) {
+  private void setOptions(int pRandomSeed, Set<ProverOptions> pOptions) {
     smtEngine.setOption("incremental", new SExpr(incremental));
     if (pOptions.contains(ProverOptions.GENERATE_MODELS)) {
       smtEngine.setOption("produce-models", new SExpr(true));
@@ -118,7 +125,7 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     smtEngine.setOption("dump-models", new SExpr(true));
     // smtEngine.setOption("produce-unsat-cores", new SExpr(true));
     smtEngine.setOption("output-language", new SExpr("smt2"));
-    smtEngine.setOption("random-seed", new SExpr(randomSeed));
+    smtEngine.setOption("random-seed", new SExpr(pRandomSeed));
   }
 
   protected void setOptionForIncremental() {
@@ -291,6 +298,17 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     return result;
   }
 
+  @Override
+  protected CVC4TheoremProver newImplicantChecker() {
+    return new CVC4TheoremProver(creator, shutdownNotifier, randomSeed, ImmutableSet.of(), bmgr);
+  }
+
+  @Override
+  protected List<BooleanFormula> getAssertedConstraints() {
+    return Lists.transform(
+        ImmutableList.copyOf(getAssertedExpressions()), creator::encapsulateBoolean);
+  }
+
   @Override
   public void close() {
     if (!closed) {
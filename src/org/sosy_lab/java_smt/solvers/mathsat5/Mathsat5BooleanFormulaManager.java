@@ -8,6 +8,7 @@
 
 package org.sosy_lab.java_smt.solvers.mathsat5;
 
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5FormulaManager.getMsatTerm;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_is_bool_type;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_make_and;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_make_false;
@@ -20,7 +21,10 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_is_false;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_is_true;
 
+import java.util.Collection;
+import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.basicimpl.AbstractBooleanFormulaManager;
+import org.sosy_lab.java_smt.basicimpl.BalancedReduction;
 
 class Mathsat5BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long, Long, Long> {
 
@@ -99,6 +103,43 @@ class Mathsat5BooleanFormulaManager extends AbstractBooleanFormulaManager<Long,
     return msat_make_or(mathsatEnv, pBits1, pBits2);
   }
 
+  @Override
+  protected Long andFormulas(Collection<BooleanFormula> pBits) {
+    // MathSAT has no n-ary conjunction, we build a balanced tree without boxing the terms.
+    long[] terms = getMsatTerm(pBits);
+    int count = 0;
+    for (long term : terms) {
+      if (msat_term_is_false(mathsatEnv, term)) {
+        return term;
+      }
+      if (!msat_term_is_true(mathsatEnv, term)) {
+        terms[count++] = term;
+      }
+    }
+    if (count == 0) {
+      return msat_make_true(mathsatEnv);
+    }
+    return BalancedReduction.reduce(terms, count, (a, b) -> msat_make_and(mathsatEnv, a, b));
+  }
+
+  @Override
+  protected Long orFormulas(Collection<BooleanFormula> pBits) {
+    long[] terms = getMsatTerm(pBits);
+    int count = 0;
+    for (long term : terms) {
+      if (msat_term_is_true(mathsatEnv, term)) {
+        return term;
+      }
+      if (!msat_term_is_false(mathsatEnv, term)) {
+        terms[count++] = term;
+      }
+    }
+    if (count == 0) {
+      return msat_make_false(mathsatEnv);
+    }
+    return BalancedReduction.reduce(terms, count, (a, b) -> msat_make_or(mathsatEnv, a, b));
+  }
+
   @Override
   public Long xor(Long pBits1, Long pBits2) {
     return not(msat_make_iff(mathsatEnv, pBits1, pBits2));
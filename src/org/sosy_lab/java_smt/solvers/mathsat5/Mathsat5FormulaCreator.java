@@ -122,6 +122,7 @@ import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
@@ -195,6 +196,10 @@ class Mathsat5FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   private FormulaType<?> getFormulaTypeFromTermType(Long type) {
+    return getCachedFormulaType(type, this::computeFormulaTypeFromTermType);
+  }
+
+  private FormulaType<?> computeFormulaTypeFromTermType(Long type) {
     long env = getEnv();
     if (msat_is_bool_type(env, type)) {
       return FormulaType.BooleanType;
@@ -321,27 +326,28 @@ class Mathsat5FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
       }
 
       ImmutableList.Builder<Formula> args = ImmutableList.builder();
-      ImmutableList.Builder<FormulaType<?>> argTypes = ImmutableList.builder();
       for (int i = 0; i < arity; i++) {
         // argumentType can be sub-type of parameterType, e.g., int < rational
         long arg = msat_term_get_arg(f, i);
         FormulaType<?> argumentType = getFormulaType(arg);
         args.add(encapsulate(argumentType, arg));
-        long argType = msat_decl_get_arg_type(declaration, i);
-        FormulaType<?> parameterType = getFormulaTypeFromTermType(argType);
-        argTypes.add(parameterType);
       }
 
       return visitor.visitFunction(
           formula,
           args.build(),
-          FunctionDeclarationImpl.of(
-              name,
-              getDeclarationKind(f),
-              argTypes.build(),
-              getFormulaType(f),
-              msat_term_get_decl(f)));
+          getCachedDeclaration(declaration, decl -> createDeclaration(f, decl, name, arity)));
+    }
+  }
+
+  /** Create the declaration for the given term, which depends only on its function symbol. */
+  private FunctionDeclaration<?> createDeclaration(long pF, long pDecl, String pName, int pArity) {
+    ImmutableList.Builder<FormulaType<?>> argTypes = ImmutableList.builder();
+    for (int i = 0; i < pArity; i++) {
+      argTypes.add(getFormulaTypeFromTermType(msat_decl_get_arg_type(pDecl, i)));
     }
+    return FunctionDeclarationImpl.of(
+        pName, getDeclarationKind(pF), argTypes.build(), getFormulaType(pF), pDecl);
   }
 
   String getName(long term) {
@@ -14,7 +14,6 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_simp
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_to_smtlib2;
 
 import com.google.common.base.Splitter;
-import com.google.common.collect.Collections2;
 import com.google.common.primitives.Longs;
 import java.io.IOException;
 import java.util.Collection;
@@ -56,7 +55,13 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
   }
 
   static long[] getMsatTerm(Collection<? extends Formula> pFormulas) {
-    return Longs.toArray(Collections2.transform(pFormulas, Mathsat5FormulaManager::getMsatTerm));
+    // no Longs.toArray, to avoid boxing the terms.
+    long[] terms = new long[pFormulas.size()];
+    int i = 0;
+    for (Formula formula : pFormulas) {
+      terms[i++] = getMsatTerm(formula);
+    }
+    return terms;
   }
 
   @Override
@@ -20,10 +20,12 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_make
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_make_true;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_is_number;
 
+import com.google.common.primitives.Longs;
 import java.math.BigInteger;
 import java.util.List;
 import org.sosy_lab.java_smt.api.NumeralFormula;
 import org.sosy_lab.java_smt.basicimpl.AbstractNumeralFormulaManager;
+import org.sosy_lab.java_smt.basicimpl.BalancedReduction;
 
 @SuppressWarnings("ClassTypeParameterName")
 abstract class Mathsat5NumeralFormulaManager<
@@ -55,6 +57,9 @@ abstract class Mathsat5NumeralFormulaManager<
 
   @Override
   protected Long makeNumberImpl(BigInteger pI) {
+    if (pI.bitLength() < Long.SIZE) {
+      return makeNumberImpl(pI.longValue());
+    }
     return msat_make_number(mathsatEnv, pI.toString());
   }
 
@@ -98,13 +103,20 @@ abstract class Mathsat5NumeralFormulaManager<
   @Override
   protected Long distinctImpl(List<Long> pNumbers) {
     // MathSat does not directly support this method, we need to build the whole term.
-    long r = msat_make_true(mathsatEnv);
-    for (int i = 0; i < pNumbers.size(); i++) {
+    // The pairwise disequalities are combined in a balanced tree.
+    long[] numbers = Longs.toArray(pNumbers);
+    long[] disequalities = new long[numbers.length * (numbers.length - 1) / 2];
+    int count = 0;
+    for (int i = 0; i < numbers.length; i++) {
       for (int j = 0; j < i; j++) {
-        r = msat_make_and(mathsatEnv, r, makeNot(equal(pNumbers.get(i), pNumbers.get(j))));
+        disequalities[count++] = makeNot(equal(numbers[i], numbers[j]));
       }
     }
-    return r;
+    if (count == 0) {
+      return msat_make_true(mathsatEnv);
+    }
+    return BalancedReduction.reduce(
+        disequalities, count, (a, b) -> msat_make_and(mathsatEnv, a, b));
   }
 
   @Override
@@ -13,15 +13,24 @@ import static scala.collection.JavaConverters.asJava;
 import static scala.collection.JavaConverters.asScala;
 
 import ap.SimpleAPI;
+import ap.parser.FunctionCollector$;
+import ap.parser.IAtom;
 import ap.parser.IExpression;
 import ap.parser.IFormula;
 import ap.parser.IFunction;
 import ap.parser.ITerm;
+import ap.parser.IVariable;
+import ap.parser.SymbolCollector$;
+import ap.terfor.ConstantTerm;
+import ap.terfor.preds.Predicate;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,6 +40,7 @@ import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.basicimpl.AbstractProverWithAllSat;
 import scala.Enumeration.Value;
+import scala.Tuple3;
 
 @SuppressWarnings("ClassTypeParameterName")
 abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E> {
@@ -40,6 +50,9 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
   protected final Deque<List<AF>> assertedFormulas = new ArrayDeque<>(); // all terms on all levels
   private final Deque<Level> trackingStack = new ArrayDeque<>(); // symbols on all levels
 
+  /** Symbols declared in this prover, they are registered when an asserted formula uses them. */
+  private final Set<Object> registeredSymbols = new HashSet<>();
+
   private final PrincessFormulaCreator creator;
   protected boolean wasLastSatCheckSat = false; // and stack is not changed
 
@@ -80,6 +93,7 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
   protected void addConstraint0(IFormula t) {
     Preconditions.checkState(!closed);
     wasLastSatCheckSat = false;
+    registerSymbols(t);
     api.addAssertion(api.abbrevSharedExpressions(t, creator.getEnv().getMinAtomsForAbbreviation()));
   }
 
@@ -160,6 +174,21 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
 
   protected abstract Iterable<IExpression> getAssertedFormulas();
 
+  @Override
+  protected PrincessTheoremProver newImplicantChecker() {
+    return (PrincessTheoremProver)
+        creator.getEnv().getNewProver(false, mgr, creator, ImmutableSet.of());
+  }
+
+  @Override
+  protected List<BooleanFormula> getAssertedConstraints() {
+    final List<BooleanFormula> result = new ArrayList<>();
+    for (IExpression formula : getAssertedFormulas()) {
+      result.add(mgr.encapsulateBooleanFormula(formula));
+    }
+    return result;
+  }
+
   @Override
   public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
       Collection<BooleanFormula> assumptions) {
@@ -197,8 +226,36 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
     return result;
   }
 
+  /**
+   * Declare all symbols of the formula in this prover that are not yet known to it. We use
+   * Princess' own collectors here, they are much cheaper than our generic formula visitor.
+   */
+  private void registerSymbols(IFormula pFormula) {
+    PrincessEnvironment env = creator.getEnv();
+    Tuple3<
+            scala.collection.Set<IVariable>,
+            scala.collection.Set<ConstantTerm>,
+            scala.collection.Set<Predicate>>
+        symbols = SymbolCollector$.MODULE$.varsConstsPreds(pFormula);
+    for (ConstantTerm constant : asJava(symbols._2())) {
+      if (registeredSymbols.add(constant)) {
+        addSymbol(IExpression.i(constant));
+      }
+    }
+    for (Predicate predicate : asJava(symbols._3())) {
+      if (predicate.arity() == 0 && registeredSymbols.add(predicate)) {
+        addSymbol(new IAtom(predicate, asScala(ImmutableList.<ITerm>of()).toSeq()));
+      }
+    }
+    for (IFunction function : asJava(FunctionCollector$.MODULE$.apply(pFormula))) {
+      if (env.isDeclaredFunction(function) && registeredSymbols.add(function)) {
+        addSymbol(function);
+      }
+    }
+  }
+
   /** add external definition: boolean variable. */
-  void addSymbol(IFormula f) {
+  private void addSymbol(IFormula f) {
     Preconditions.checkState(!closed);
     api.addBooleanVariable(f);
     if (!trackingStack.isEmpty()) {
@@ -207,7 +264,7 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
   }
 
   /** add external definition: integer variable. */
-  void addSymbol(ITerm f) {
+  private void addSymbol(ITerm f) {
     Preconditions.checkState(!closed);
     api.addConstant(f);
     if (!trackingStack.isEmpty()) {
@@ -216,7 +273,7 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
   }
 
   /** add external definition: uninterpreted function. */
-  void addSymbol(IFunction f) {
+  private void addSymbol(IFunction f) {
     Preconditions.checkState(!closed);
     api.addFunction(f);
     if (!trackingStack.isEmpty()) {
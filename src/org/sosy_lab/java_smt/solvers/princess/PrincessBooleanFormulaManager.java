@@ -116,13 +116,19 @@ class PrincessBooleanFormulaManager
     return simplify(new IBinFormula(IBinJunctor.Or(), (IFormula) t1, (IFormula) t2));
   }
 
-  /** simplification to avoid identical subgraphs: (a&b)&(a&c) --> a&(b&c), etc. */
+  /**
+   * simplification to avoid identical subgraphs: (a&b)&(a&c) --> a&(b&c), etc.
+   *
+   * <p>We only apply this for equal operators. Factoring out with the distributive law, e.g.,
+   * (a|b)&(a|c) --> a|(b&c), would change the Boolean structure, e.g., of a formula in CNF.
+   */
   private IFormula simplify(IFormula f) {
     if (f instanceof IBinFormula) {
       final IBinFormula bin = (IBinFormula) f;
       if (bin.f1() instanceof IBinFormula
           && bin.f2() instanceof IBinFormula
-          && ((IBinFormula) bin.f1()).j().equals(((IBinFormula) bin.f2()).j())) {
+          && bin.j().equals(((IBinFormula) bin.f1()).j())
+          && bin.j().equals(((IBinFormula) bin.f2()).j())) {
         Enumeration.Value operator = ((IBinFormula) f).j();
         Enumeration.Value innerOperator = ((IBinFormula) bin.f1()).j();
 
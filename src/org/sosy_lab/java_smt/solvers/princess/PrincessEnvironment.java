@@ -91,6 +91,13 @@ class PrincessEnvironment {
   private PathCounterTemplate logAllQueriesAsScalaFile =
       PathCounterTemplate.ofFormatString("princess-query-%03d-");
 
+  @Option(
+      secure = true,
+      description =
+          "Share structurally equal terms via a weak hash-consing table. This saves memory if the"
+              + " same terms are built repeatedly, but costs a structural hash for each new term.")
+  private boolean internTerms = false;
+
   /**
    * cache for variables, because they do not implement equals() and hashCode(), so we need to have
    * the same objects.
@@ -107,8 +114,9 @@ class PrincessEnvironment {
 
   /**
    * The wrapped API is the first created API. It will never be used outside of this class and never
-   * be closed. If a variable is declared, it is declared in the first api, then copied into all
-   * registered APIs. Each API has its own stack for formulas.
+   * be closed. If a variable is declared, it is declared in the first api. The caches above are the
+   * shared symbol index, from which each prover registers a symbol only when an asserted formula
+   * mentions it. Each API has its own stack for formulas.
    */
   private final SimpleAPI api;
 
@@ -132,7 +140,8 @@ class PrincessEnvironment {
 
   /**
    * This method returns a new prover, that is registered in this environment. All variables are
-   * shared in all registered APIs.
+   * shared in all registered APIs, but they are declared in a prover only when needed. Thus
+   * creating a prover does not depend on the number of symbols.
    */
   PrincessAbstractProver<?, ?> getNewProver(
       boolean useForInterpolation,
@@ -143,11 +152,6 @@ class PrincessEnvironment {
     SimpleAPI newApi =
         getNewApi(useForInterpolation || pOptions.contains(ProverOptions.GENERATE_UNSAT_CORE));
 
-    // add all symbols, that are available until now
-    boolVariablesCache.values().forEach(newApi::addBooleanVariable);
-    sortedVariablesCache.values().forEach(newApi::addConstant);
-    functionsCache.values().forEach(newApi::addFunction);
-
     PrincessAbstractProver<?, ?> prover;
     if (useForInterpolation) {
       prover = new PrincessInterpolatingProver(mgr, creator, newApi, shutdownNotifier, pOptions);
@@ -217,6 +221,10 @@ class PrincessEnvironment {
     return minAtomsForAbbreviation;
   }
 
+  boolean isInternTerms() {
+    return internTerms;
+  }
+
   void unregisterStack(PrincessAbstractProver<?, ?> stack) {
     assert registeredProvers.contains(stack) : "cannot unregister stack, it is not registered";
     registeredProvers.remove(stack);
@@ -249,14 +257,11 @@ class PrincessEnvironment {
     for (IExpression var : declaredFunctions.build()) {
       if (var instanceof IConstant) {
         sortedVariablesCache.put(var.toString(), (ITerm) var);
-        addSymbol((IConstant) var);
       } else if (var instanceof IAtom) {
         boolVariablesCache.put(((IAtom) var).pred().name(), (IFormula) var);
-        addSymbol((IAtom) var);
       } else if (var instanceof IFunApp) {
         IFunction fun = ((IFunApp) var).fun();
         functionsCache.put(fun.name(), fun);
-        addFunction(fun);
       }
     }
     return formula;
@@ -396,7 +401,6 @@ class PrincessEnvironment {
         return boolVariablesCache.get(varname);
       } else {
         IFormula var = api.createBooleanVariable(varname);
-        addSymbol(var);
         boolVariablesCache.put(varname, var);
         return var;
       }
@@ -405,7 +409,6 @@ class PrincessEnvironment {
         return sortedVariablesCache.get(varname);
       } else {
         ITerm var = api.createConstant(varname, type);
-        addSymbol(var);
         sortedVariablesCache.put(varname, var);
         return var;
       }
@@ -431,7 +434,6 @@ class PrincessEnvironment {
               returnType,
               false,
               SimpleAPI.FunctionalityMode$.MODULE$.Full());
-      addFunction(funcDecl);
       functionsCache.put(name, funcDecl);
       return funcDecl;
     }
@@ -460,21 +462,11 @@ class PrincessEnvironment {
     return api.simplify(formula);
   }
 
-  private void addSymbol(IFormula symbol) {
-    for (PrincessAbstractProver<?, ?> prover : registeredProvers) {
-      prover.addSymbol(symbol);
-    }
-  }
-
-  private void addSymbol(ITerm symbol) {
-    for (PrincessAbstractProver<?, ?> prover : registeredProvers) {
-      prover.addSymbol(symbol);
-    }
-  }
-
-  private void addFunction(IFunction funcDecl) {
-    for (PrincessAbstractProver<?, ?> prover : registeredProvers) {
-      prover.addSymbol(funcDecl);
-    }
+  /**
+   * Returns whether the function is an uninterpreted function declared in this environment, in
+   * contrast to a function of a theory like arrays.
+   */
+  boolean isDeclaredFunction(IFunction pFunction) {
+    return functionsCache.get(pFunction.name()) == pFunction;
   }
 }
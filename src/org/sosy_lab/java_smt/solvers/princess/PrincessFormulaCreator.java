@@ -47,6 +47,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -58,6 +60,7 @@ import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
 import org.sosy_lab.java_smt.basicimpl.FunctionDeclarationImpl;
+import org.sosy_lab.java_smt.basicimpl.TermInterner;
 import org.sosy_lab.java_smt.solvers.princess.PrincessFunctionDeclaration.PrincessByExampleDeclaration;
 import org.sosy_lab.java_smt.solvers.princess.PrincessFunctionDeclaration.PrincessEquationDeclaration;
 import org.sosy_lab.java_smt.solvers.princess.PrincessFunctionDeclaration.PrincessIFunctionDeclaration;
@@ -104,8 +107,22 @@ class PrincessFormulaCreator
     theoryFunctionKind.put(GroebnerMultiplication$.MODULE$.mul(), FunctionDeclarationKind.MUL);
   }
 
+  /** Hash-consing table for all terms that are wrapped into formulas, if enabled. */
+  private final @Nullable TermInterner<IExpression> interner;
+
   PrincessFormulaCreator(PrincessEnvironment pEnv) {
     super(pEnv, PrincessEnvironment.BOOL_SORT, PrincessEnvironment.INTEGER_SORT, null);
+    interner = pEnv.isInternTerms() ? new TermInterner<>() : null;
+  }
+
+  @Override
+  protected IExpression intern(IExpression pTerm) {
+    return interner == null ? pTerm : interner.intern(pTerm);
+  }
+
+  /** Returns the statistics of the hash-consing table, if terms are interned. */
+  Optional<TermInterner<IExpression>> getInterner() {
+    return Optional.ofNullable(interner);
   }
 
   @Override
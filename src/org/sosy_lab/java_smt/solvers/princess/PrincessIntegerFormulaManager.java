@@ -35,6 +35,9 @@ class PrincessIntegerFormulaManager
 
   @Override
   protected ITerm makeNumberImpl(BigInteger pI) {
+    if (pI.bitLength() < Long.SIZE) {
+      return makeNumberImpl(pI.longValue());
+    }
     return new IIntLit(IdealInt.apply(pI.toString()));
   }
 
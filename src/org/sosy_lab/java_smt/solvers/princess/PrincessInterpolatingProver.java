@@ -29,6 +29,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.UniqueIdGenerator;
@@ -36,6 +37,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.InterpolationGroups;
 import scala.collection.Seq;
 import scala.collection.mutable.ArrayBuffer;
 
@@ -87,20 +89,36 @@ class PrincessInterpolatingProver extends PrincessAbstractProver<Integer, Intege
 
   @Override
   public BooleanFormula getInterpolant(Collection<Integer> pTermNamesOfA) throws SolverException {
+    return Iterables.getOnlyElement(getInterpolants(ImmutableList.of(pTermNamesOfA)));
+  }
+
+  @Override
+  public List<BooleanFormula> getInterpolants(List<? extends Collection<Integer>> pGroupsOfA)
+      throws SolverException {
     Preconditions.checkState(!closed);
-    Set<Integer> indexesOfA = ImmutableSet.copyOf(pTermNamesOfA);
+    Optional<List<Set<Integer>>> sequence =
+        InterpolationGroups.toSequence(pGroupsOfA, annotatedTerms.keySet());
+    if (sequence.isPresent()) {
+      // nested groups are answered by a single call
+      return getSeqInterpolants(sequence.get());
+    }
 
-    // calc difference: termNamesOfB := assertedFormulas - termNamesOfA
-    Set<Integer> indexesOfB =
-        annotatedTerms.keySet().stream()
-            .filter(f -> !indexesOfA.contains(f))
-            .collect(ImmutableSet.toImmutableSet());
+    List<BooleanFormula> result = new ArrayList<>(pGroupsOfA.size());
+    for (Collection<Integer> termNamesOfA : pGroupsOfA) {
+      Set<Integer> indexesOfA = ImmutableSet.copyOf(termNamesOfA);
 
-    // get interpolant of groups
-    List<BooleanFormula> itp = getSeqInterpolants(ImmutableList.of(indexesOfA, indexesOfB));
-    assert itp.size() == 1; // 2 groups -> 1 interpolant
+      // calc difference: termNamesOfB := assertedFormulas - termNamesOfA
+      Set<Integer> indexesOfB =
+          annotatedTerms.keySet().stream()
+              .filter(f -> !indexesOfA.contains(f))
+              .collect(ImmutableSet.toImmutableSet());
 
-    return itp.get(0);
+      // get interpolant of groups
+      List<BooleanFormula> itp = getSeqInterpolants(ImmutableList.of(indexesOfA, indexesOfB));
+      assert itp.size() == 1; // 2 groups -> 1 interpolant
+      result.add(itp.get(0));
+    }
+    return result;
   }
 
   @Override
@@ -9,11 +9,13 @@
 package org.sosy_lab.java_smt.solvers.princess;
 
 import java.util.Set;
+import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.PathCounterTemplate;
+import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
@@ -28,15 +30,19 @@ public final class PrincessSolverContext extends AbstractSolverContext {
 
   private final PrincessFormulaManager manager;
   private final PrincessFormulaCreator creator;
+  private final LogManager logger;
 
-  private PrincessSolverContext(PrincessFormulaManager manager, PrincessFormulaCreator creator) {
+  private PrincessSolverContext(
+      PrincessFormulaManager manager, PrincessFormulaCreator creator, LogManager logger) {
     super(manager);
     this.manager = manager;
     this.creator = creator;
+    this.logger = logger;
   }
 
   public static SolverContext create(
       Configuration config,
+      LogManager pLogger,
       ShutdownNotifier pShutdownNotifier,
       @Nullable PathCounterTemplate pLogfileTemplate,
       int pRandomSeed,
@@ -64,7 +70,7 @@ public final class PrincessSolverContext extends AbstractSolverContext {
             bitvectorTheory,
             arrayTheory,
             quantifierTheory);
-    return new PrincessSolverContext(manager, creator);
+    return new PrincessSolverContext(manager, creator, pLogger);
   }
 
   @SuppressWarnings("resource")
@@ -105,6 +111,9 @@ public final class PrincessSolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    creator
+        .getInterner()
+        .ifPresent(interner -> logger.log(Level.FINE, "Princess hash-consing:", interner));
     creator.getEnv().close();
   }
 
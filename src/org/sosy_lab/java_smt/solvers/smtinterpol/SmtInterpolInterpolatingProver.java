@@ -17,11 +17,13 @@ import de.uni_freiburg.informatik.ultimate.logic.Term;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.InterpolationGroups;
 
 class SmtInterpolInterpolatingProver extends SmtInterpolAbstractProver<String, String>
     implements InterpolatingProverEnvironment<String> {
@@ -76,6 +78,19 @@ class SmtInterpolInterpolatingProver extends SmtInterpolAbstractProver<String, S
         getSeqInterpolants(ImmutableList.of(termNamesOfA, termNamesOfB)));
   }
 
+  @Override
+  public List<BooleanFormula> getInterpolants(List<? extends Collection<String>> pGroupsOfA)
+      throws SolverException, InterruptedException {
+    Preconditions.checkState(!isClosed());
+    Optional<List<Set<String>>> sequence =
+        InterpolationGroups.toSequence(pGroupsOfA, annotatedTerms.keySet());
+    if (sequence.isPresent()) {
+      // nested groups are answered by a single call
+      return getSeqInterpolants(sequence.get());
+    }
+    return InterpolatingProverEnvironment.super.getInterpolants(pGroupsOfA);
+  }
+
   @Override
   public List<BooleanFormula> getTreeInterpolants(
       List<? extends Collection<String>> partitionedTermNames, int[] startOfSubTree)
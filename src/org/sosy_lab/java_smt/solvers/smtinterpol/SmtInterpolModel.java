@@ -8,8 +8,10 @@
 
 package org.sosy_lab.java_smt.solvers.smtinterpol;
 
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import de.uni_freiburg.informatik.ultimate.logic.ApplicationTerm;
 import de.uni_freiburg.informatik.ultimate.logic.FunctionSymbol;
 import de.uni_freiburg.informatik.ultimate.logic.Model;
@@ -20,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel.CachingAbstractModel;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
 
@@ -38,22 +41,33 @@ class SmtInterpolModel extends CachingAbstractModel<Term, Sort, SmtInterpolEnvir
     ImmutableSet.Builder<ValueAssignment> assignments = ImmutableSet.builder();
 
     for (FunctionSymbol symbol : model.getDefinedFunctions()) {
-      final String name = unescape(symbol.getApplicationString());
-      if (symbol.getParameterSorts().length == 0) { // simple variable or array
-        Term variable = creator.getEnv().term(name);
-        if (symbol.getReturnSort().isArraySort()) {
-          assignments.addAll(getArrayAssignment(name, variable, variable, ImmutableList.of()));
-        } else {
-          assignments.add(getAssignment(name, (ApplicationTerm) variable));
-        }
-      } else { // uninterpreted function
-        assignments.addAll(getUFAssignments(symbol));
-      }
+      assignments.addAll(getAssignments(symbol));
     }
 
     return assignments.build().asList();
   }
 
+  @Override
+  protected Iterable<ValueAssignment> lazyAssignments(Predicate<? super String> pNameFilter) {
+    return FluentIterable.from(model.getDefinedFunctions())
+        .filter(symbol -> pNameFilter.test(unescape(symbol.getApplicationString())))
+        .transformAndConcat(this::getAssignments);
+  }
+
+  private Collection<ValueAssignment> getAssignments(FunctionSymbol symbol) {
+    final String name = unescape(symbol.getApplicationString());
+    if (symbol.getParameterSorts().length == 0) { // simple variable or array
+      Term variable = creator.getEnv().term(name);
+      if (symbol.getReturnSort().isArraySort()) {
+        return getArrayAssignment(name, variable, variable, ImmutableList.of());
+      } else {
+        return ImmutableList.of(getAssignment(name, (ApplicationTerm) variable));
+      }
+    } else { // uninterpreted function
+      return getUFAssignments(symbol);
+    }
+  }
+
   private static String unescape(String s) {
     return s.startsWith("|") ? s.substring(1, s.length() - 1) : s;
   }
@@ -157,4 +171,10 @@ class SmtInterpolModel extends CachingAbstractModel<Term, Sort, SmtInterpolEnvir
   protected Term evalImpl(Term formula) {
     return model.evaluate(formula);
   }
+
+  @Override
+  protected List<Term> evalAllImpl(List<Term> formulas) {
+    Map<Term, Term> evaluations = model.evaluate(formulas.toArray(new Term[0]));
+    return Lists.transform(formulas, evaluations::get);
+  }
 }
@@ -117,7 +117,6 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_of
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_to_string;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_xor;
 
-import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
@@ -722,8 +721,20 @@ public class Yices2FormulaCreator extends FormulaCreator<Integer, Integer, Long,
     if (yices_term_constructor(pF) == YICES_BV_CONST) {
       int[] littleEndianBV = yices_bv_const_value(pF, yices_term_bitsize(pF));
       Preconditions.checkArgument(littleEndianBV.length != 0, "BV was empty");
-      String bigEndianBV = Joiner.on("").join(Lists.reverse(Ints.asList(littleEndianBV)));
-      return new BigInteger(bigEndianBV, 2);
+      if (littleEndianBV.length < Long.SIZE) {
+        long value = 0;
+        for (int i = littleEndianBV.length - 1; i >= 0; i--) {
+          value = (value << 1) | littleEndianBV[i];
+        }
+        return BigInteger.valueOf(value);
+      }
+      BigInteger value = BigInteger.ZERO;
+      for (int i = 0; i < littleEndianBV.length; i++) {
+        if (littleEndianBV[i] != 0) {
+          value = value.setBit(i);
+        }
+      }
+      return value;
     } else {
       throw new IllegalArgumentException(
           String.format("Term: '%s' is not a bitvector constant", yices_term_to_string(pF)));
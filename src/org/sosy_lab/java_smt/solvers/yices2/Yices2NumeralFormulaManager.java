@@ -23,6 +23,7 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_neg;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_parse_float;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_parse_rational;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_sub;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_sum;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_constructor;
 
 import com.google.common.primitives.Ints;
@@ -54,6 +55,9 @@ abstract class Yices2NumeralFormulaManager<
 
   @Override
   public Integer makeNumberImpl(BigInteger pI) {
+    if (pI.bitLength() < Long.SIZE) {
+      return makeNumberImpl(pI.longValue());
+    }
     return makeNumberImpl(pI.toString());
   }
 
@@ -102,6 +106,14 @@ abstract class Yices2NumeralFormulaManager<
     return yices_arith_eq_atom(pParam1, pParam2);
   }
 
+  @Override
+  protected Integer sumImpl(List<Integer> operands) {
+    if (operands.isEmpty()) {
+      return makeNumberImpl(0);
+    }
+    return yices_sum(operands.size(), Ints.toArray(operands));
+  }
+
   @Override
   public Integer distinctImpl(List<Integer> pNumbers) {
     int[] numberTerms = Ints.toArray(pNumbers);
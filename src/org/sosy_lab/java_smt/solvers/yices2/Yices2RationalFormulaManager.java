@@ -9,8 +9,10 @@
 package org.sosy_lab.java_smt.solvers.yices2;
 
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_division;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_rational64;
 
 import java.math.BigDecimal;
+import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.NumeralFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.RationalFormulaManager;
@@ -29,6 +31,14 @@ public class Yices2RationalFormulaManager
     return getFormulaCreator().getRationalType();
   }
 
+  @Override
+  public Integer makeNumberImpl(Rational pNumber) {
+    if (pNumber.getNum().bitLength() < Long.SIZE && pNumber.getDen().bitLength() < Long.SIZE) {
+      return yices_rational64(pNumber.getNum().longValue(), pNumber.getDen().longValue());
+    }
+    return super.makeNumberImpl(pNumber);
+  }
+
   @Override
   protected Integer makeNumberImpl(double pNumber) {
     return makeNumberImpl(Double.toString(pNumber));
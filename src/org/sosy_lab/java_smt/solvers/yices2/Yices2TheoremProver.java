@@ -24,6 +24,7 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_push;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_set_config;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Ints;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -63,6 +64,7 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
   protected final Yices2FormulaCreator creator;
   protected final long curEnv;
   protected final long curCfg;
+  private final BooleanFormulaManager bmgr;
 
   private final Deque<Set<Integer>> constraintStack = new ArrayDeque<>();
 
@@ -75,6 +77,7 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
       ShutdownNotifier pShutdownNotifier) {
     super(pOptions, pBmgr, pShutdownNotifier);
     this.creator = creator;
+    bmgr = pBmgr;
     curCfg = yices_new_config();
     yices_set_config(curCfg, "solver-type", "dpllt");
     yices_set_config(curCfg, "mode", "push-pop");
@@ -168,6 +171,16 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
     return getModelWithoutChecks();
   }
 
+  @Override
+  protected Yices2TheoremProver newImplicantChecker() {
+    return new Yices2TheoremProver(creator, ImmutableSet.of(), bmgr, shutdownNotifier);
+  }
+
+  @Override
+  protected List<BooleanFormula> getAssertedConstraints() {
+    return encapsulate(getAllConstraints());
+  }
+
   private List<BooleanFormula> encapsulate(int[] terms) {
     List<BooleanFormula> result = new ArrayList<>(terms.length);
     for (int t : terms) {
@@ -9,6 +9,7 @@
 package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.MoreFiles;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.microsoft.z3.Native;
@@ -39,6 +40,7 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
   private final Z3FormulaManager mgr;
 
   protected final long z3solver;
+  private final long z3params;
 
   private int level = 0;
 
@@ -49,7 +51,7 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
 
   Z3AbstractProver(
       Z3FormulaCreator pCreator,
-      long z3params,
+      long pZ3params,
       Z3FormulaManager pMgr,
       Set<ProverOptions> pOptions,
       @Nullable PathCounterTemplate pLogfile) {
@@ -59,8 +61,9 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
     z3solver = Native.mkSolver(z3context);
     logfile = pLogfile;
     mgr = pMgr;
+    z3params = pZ3params;
     Native.solverIncRef(z3context, z3solver);
-    Native.solverSetParams(z3context, z3solver, z3params);
+    Native.solverSetParams(z3context, z3solver, pZ3params);
     storedConstraints =
         pOptions.contains(ProverOptions.GENERATE_UNSAT_CORE) ? new HashMap<>() : null;
   }
@@ -135,6 +138,33 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
     return Z3Model.create(z3context, getZ3Model(), creator);
   }
 
+  @Override
+  protected @Nullable Z3TheoremProver newImplicantChecker() {
+    if (storedConstraints != null) {
+      // tracked constraints are not returned as plain assertions
+      return null;
+    }
+    return new Z3TheoremProver(creator, mgr, z3params, ImmutableSet.of(), null);
+  }
+
+  @Override
+  protected List<BooleanFormula> getAssertedConstraints() {
+    List<BooleanFormula> assertions = new ArrayList<>();
+    long assertionVector = getZ3Assertions();
+    Native.astVectorIncRef(z3context, assertionVector);
+    for (int i = 0; i < Native.astVectorSize(z3context, assertionVector); i++) {
+      assertions.add(
+          creator.encapsulateBoolean(Native.astVectorGet(z3context, assertionVector, i)));
+    }
+    Native.astVectorDecRef(z3context, assertionVector);
+    return assertions;
+  }
+
+  /** Returns a vector of all formulas asserted on the stack. */
+  protected long getZ3Assertions() {
+    return Native.solverGetAssertions(z3context, z3solver);
+  }
+
   protected long getZ3Model() {
     return Native.solverGetModel(z3context, z3solver);
   }
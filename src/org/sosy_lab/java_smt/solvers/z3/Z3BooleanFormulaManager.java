@@ -8,6 +8,7 @@
 
 package org.sosy_lab.java_smt.solvers.z3;
 
+import com.google.common.primitives.Longs;
 import com.microsoft.z3.Native;
 import java.util.Collection;
 import java.util.stream.Collector;
@@ -18,11 +19,13 @@ import org.sosy_lab.java_smt.basicimpl.AbstractBooleanFormulaManager;
 class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long, Long, Long> {
 
   private final long z3context;
+  private final Z3FormulaCreator creator;
   private final Long z3true;
   private final Long z3false;
 
   Z3BooleanFormulaManager(Z3FormulaCreator creator) {
     super(creator);
+    this.creator = creator;
     z3context = creator.getEnv();
     z3true = Native.mkTrue(z3context);
     Native.incRef(z3context, z3true);
@@ -80,14 +83,24 @@ class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long,
 
   @Override
   protected Long orImpl(Collection<Long> params) {
+    return or(Longs.toArray(params));
+  }
+
+  @Override
+  protected Long orFormulas(Collection<BooleanFormula> pBits) {
+    return or(creator.extractInfos(pBits));
+  }
+
+  /** Create a disjunction of the operands, the array is modified. */
+  private long or(long[] operands) {
     // Z3 does not do any simplifications, so we filter "false" and short-circuit on "true".
-    final long[] operands = new long[params.size()]; // over-approximate size
+    // Z3 shares equal terms, thus comparing the pointers is sufficient.
     int count = 0;
-    for (final Long operand : params) {
-      if (isTrue(operand)) {
+    for (final long operand : operands) {
+      if (operand == z3true) {
         return operand;
       }
-      if (!isFalse(operand)) {
+      if (operand != z3false) {
         operands[count] = operand;
         count++;
       }
@@ -109,14 +122,24 @@ class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long,
 
   @Override
   protected Long andImpl(Collection<Long> params) {
+    return and(Longs.toArray(params));
+  }
+
+  @Override
+  protected Long andFormulas(Collection<BooleanFormula> pBits) {
+    return and(creator.extractInfos(pBits));
+  }
+
+  /** Create a conjunction of the operands, the array is modified. */
+  private long and(long[] operands) {
     // Z3 does not do any simplifications, so we filter "true" and short-circuit on "false".
-    final long[] operands = new long[params.size()]; // over-approximate size
+    // Z3 shares equal terms, thus comparing the pointers is sufficient.
     int count = 0;
-    for (final Long operand : params) {
-      if (isFalse(operand)) {
+    for (final long operand : operands) {
+      if (operand == z3false) {
         return operand;
       }
-      if (!isTrue(operand)) {
+      if (operand != z3true) {
         operands[count] = operand;
         count++;
       }
@@ -153,12 +176,13 @@ class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long,
 
   @Override
   protected boolean isTrue(Long pParam) {
-    return Native.isEqAst(z3context, pParam, z3true);
+    // Z3 shares equal terms, thus comparing the pointers is sufficient.
+    return pParam.longValue() == z3true;
   }
 
   @Override
   protected boolean isFalse(Long pParam) {
-    return Native.isEqAst(z3context, pParam, z3false);
+    return pParam.longValue() == z3false;
   }
 
   @Override
@@ -27,6 +27,7 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.List;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -44,6 +45,7 @@ import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -145,6 +147,17 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
         "Cannot get the formula info of type " + pT.getClass().getSimpleName() + " in the Solver!");
   }
 
+  /** Unwrap all formulas, without boxing their handles like {@link #extractInfo(Formula)}. */
+  long[] extractInfos(Collection<? extends Formula> pFormulas) {
+    long[] terms = new long[pFormulas.size()];
+    int i = 0;
+    for (Formula formula : pFormulas) {
+      checkArgument(formula instanceof Z3Formula, "Formula %s is not from Z3", formula);
+      terms[i++] = ((Z3Formula) formula).getFormulaInfo();
+    }
+    return terms;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
@@ -153,6 +166,17 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   public FormulaType<?> getFormulaTypeFromSort(Long pSort) {
+    return getCachedFormulaType(
+        pSort,
+        sort -> {
+          FormulaType<?> type = computeFormulaTypeFromSort(sort);
+          // the sort is a key of the cache, thus Z3 must not free it.
+          Native.incRef(environment, Native.sortToAst(environment, sort));
+          return type;
+        });
+  }
+
+  private FormulaType<?> computeFormulaTypeFromSort(Long pSort) {
     long z3context = getEnv();
     Z3_sort_kind sortKind = Z3_sort_kind.fromInt(Native.getSortKind(z3context, pSort));
     switch (sortKind) {
@@ -327,9 +351,11 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   private String getAppName(long f) {
-    long funcDecl = Native.getAppDecl(environment, f);
-    long symbol = Native.getDeclName(environment, funcDecl);
-    return symbolToString(symbol);
+    return getDeclName(Native.getAppDecl(environment, f));
+  }
+
+  private String getDeclName(long pDecl) {
+    return symbolToString(Native.getDeclName(environment, pDecl));
   }
 
   @Override
@@ -362,22 +388,31 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
         }
 
         ImmutableList.Builder<Formula> args = ImmutableList.builder();
-        ImmutableList.Builder<FormulaType<?>> argTypes = ImmutableList.builder();
+        ImmutableList.Builder<FormulaType<?>> argTypesBuilder = ImmutableList.builder();
         for (int i = 0; i < arity; i++) {
           long arg = Native.getAppArg(environment, f, i);
           FormulaType<?> argumentType = getFormulaType(arg);
           args.add(encapsulate(argumentType, arg));
-          argTypes.add(argumentType);
+          argTypesBuilder.add(argumentType);
+        }
+        ImmutableList<FormulaType<?>> argTypes = argTypesBuilder.build();
+        long decl = Native.getAppDecl(environment, f);
+        FunctionDeclaration<?> declaration;
+        if (Native.getDomainSize(environment, decl) == arity) {
+          // the declaration determines the argument types, unless it is applied to more arguments
+          // than declared, which happens for associative operators like AND and PLUS.
+          declaration =
+              getCachedDeclaration(
+                  decl,
+                  d -> {
+                    // the declaration is a key of the cache, thus Z3 must not free it.
+                    Native.incRef(environment, Native.funcDeclToAst(environment, d));
+                    return createDeclaration(d, argTypes, getFormulaType(f));
+                  });
+        } else {
+          declaration = createDeclaration(decl, argTypes, getFormulaType(f));
         }
-        return visitor.visitFunction(
-            formula,
-            args.build(),
-            FunctionDeclarationImpl.of(
-                getAppName(f),
-                getDeclarationKind(f),
-                argTypes.build(),
-                getFormulaType(f),
-                Native.getAppDecl(environment, f)));
+        return visitor.visitFunction(formula, args.build(), declaration);
       case Z3_VAR_AST:
         int deBruijnIdx = Native.getIndexValue(environment, f);
         return visitor.visitBoundVariable(formula, deBruijnIdx);
@@ -422,15 +457,21 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     return boundVars;
   }
 
-  private FunctionDeclarationKind getDeclarationKind(long f) {
-    assert Native.getArity(environment, Native.getAppDecl(environment, f)) > 0
+  private FunctionDeclaration<?> createDeclaration(
+      long pDecl, List<FormulaType<?>> pArgTypes, FormulaType<?> pReturnType) {
+    String name = getDeclName(pDecl);
+    return FunctionDeclarationImpl.of(
+        name, getDeclarationKind(pDecl, name), pArgTypes, pReturnType, pDecl);
+  }
+
+  private FunctionDeclarationKind getDeclarationKind(long pDecl, String pName) {
+    assert Native.getArity(environment, pDecl) > 0
         : "Variables should be handled in other branch.";
-    if (getAppName(f).equals("div0")) {
+    if (pName.equals("div0")) {
       // Z3 segfaults in getDeclKind for this term (cf. https://github.com/Z3Prover/z3/issues/669)
       return FunctionDeclarationKind.OTHER;
     }
-    Z3_decl_kind decl =
-        Z3_decl_kind.fromInt(Native.getDeclKind(environment, Native.getAppDecl(environment, f)));
+    Z3_decl_kind decl = Z3_decl_kind.fromInt(Native.getDeclKind(environment, pDecl));
     switch (decl) {
       case Z3_OP_AND:
         return FunctionDeclarationKind.AND;
@@ -599,8 +640,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
       case Z3_OP_FPA_TO_FP:
         Z3_sort_kind sortKind =
             Z3_sort_kind.fromInt(
-                Native.getSortKind(
-                    environment, Native.getSort(environment, Native.getAppArg(environment, f, 1))));
+                Native.getSortKind(environment, Native.getDomain(environment, pDecl, 1)));
         if (Z3_sort_kind.Z3_BV_SORT == sortKind) {
           return FunctionDeclarationKind.BV_SCASTTO_FP;
         } else {
@@ -657,12 +697,10 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
       FormulaType<?> type = getFormulaType(value);
       if (type.isBooleanType()) {
         return isOP(environment, value, Z3_decl_kind.Z3_OP_TRUE.toInt());
-      } else if (type.isIntegerType()) {
-        return new BigInteger(Native.getNumeralString(environment, value));
+      } else if (type.isIntegerType() || type.isBitvectorType()) {
+        return convertIntegerValue(value);
       } else if (type.isRationalType()) {
-        return Rational.ofString(Native.getNumeralString(environment, value));
-      } else if (type.isBitvectorType()) {
-        return new BigInteger(Native.getNumeralString(environment, value));
+        return convertRationalValue(value);
       } else if (type.isFloatingPointType()) {
 
         // Converting to Rational first.
@@ -678,6 +716,25 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     }
   }
 
+  /** Read the numeral with a native getter if it fits into a machine word. */
+  private BigInteger convertIntegerValue(long pValue) {
+    Native.LongPtr result = new Native.LongPtr();
+    if (Native.getNumeralInt64(environment, pValue, result)) {
+      return BigInteger.valueOf(result.value);
+    }
+    return new BigInteger(Native.getNumeralString(environment, pValue));
+  }
+
+  /** Read the numeral with a native getter if numerator and denominator fit into machine words. */
+  private Rational convertRationalValue(long pValue) {
+    Native.LongPtr num = new Native.LongPtr();
+    Native.LongPtr den = new Native.LongPtr();
+    if (Native.getNumeralSmall(environment, pValue, num, den)) {
+      return Rational.ofLongs(num.value, den.value);
+    }
+    return Rational.ofString(Native.getNumeralString(environment, pValue));
+  }
+
   @Override
   public Long declareUFImpl(String pName, Long returnType, List<Long> pArgTypes) {
     long symbol = Native.mkStringSymbol(environment, pName);
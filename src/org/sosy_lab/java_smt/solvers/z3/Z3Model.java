@@ -10,6 +10,8 @@ package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Native.LongPtr;
@@ -20,6 +22,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel.CachingAbstractModel;
 
@@ -46,29 +49,54 @@ final class Z3Model extends CachingAbstractModel<Long, Long, Long> {
 
   @Override
   protected ImmutableList<ValueAssignment> toList() {
+    return ImmutableList.copyOf(lazyAssignments(name -> true));
+  }
+
+  /** Converts the interpretation of a symbol only if the iteration reaches it. */
+  @Override
+  protected Iterable<ValueAssignment> lazyAssignments(Predicate<? super String> pNameFilter) {
     Preconditions.checkState(!closed);
-    ImmutableList.Builder<ValueAssignment> out = ImmutableList.builder();
 
     // Iterate through constants.
-    for (int constIdx = 0; constIdx < Native.modelGetNumConsts(z3context, model); constIdx++) {
-      long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
-      Native.incRef(z3context, keyDecl);
-      out.addAll(getConstAssignments(keyDecl));
+    FluentIterable<ValueAssignment> constants =
+        FluentIterable.from(ContiguousSet.closedOpen(0, Native.modelGetNumConsts(z3context, model)))
+            .transformAndConcat(constIdx -> getMatchingConstAssignments(constIdx, pNameFilter));
+
+    // Iterate through function applications.
+    FluentIterable<ValueAssignment> functions =
+        FluentIterable.from(ContiguousSet.closedOpen(0, Native.modelGetNumFuncs(z3context, model)))
+            .transformAndConcat(funcIdx -> getMatchingFunctionAssignments(funcIdx, pNameFilter));
+
+    return constants.append(functions);
+  }
+
+  private Collection<ValueAssignment> getMatchingConstAssignments(
+      int constIdx, Predicate<? super String> pNameFilter) {
+    Preconditions.checkState(!closed);
+    long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
+    Native.incRef(z3context, keyDecl);
+    try {
+      String name = z3creator.symbolToString(Native.getDeclName(z3context, keyDecl));
+      return pNameFilter.test(name) ? getConstAssignments(keyDecl) : ImmutableList.of();
+    } finally {
       Native.decRef(z3context, keyDecl);
     }
+  }
 
-    // Iterate through function applications.
-    for (int funcIdx = 0; funcIdx < Native.modelGetNumFuncs(z3context, model); funcIdx++) {
-      long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
-      Native.incRef(z3context, funcDecl);
-      if (!isInternalSymbol(funcDecl)) {
-        String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
-        out.addAll(getFunctionAssignments(funcDecl, funcDecl, functionName));
+  private Collection<ValueAssignment> getMatchingFunctionAssignments(
+      int funcIdx, Predicate<? super String> pNameFilter) {
+    Preconditions.checkState(!closed);
+    long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
+    Native.incRef(z3context, funcDecl);
+    try {
+      String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
+      if (!pNameFilter.test(functionName) || isInternalSymbol(funcDecl)) {
+        return ImmutableList.of();
       }
+      return getFunctionAssignments(funcDecl, funcDecl, functionName);
+    } finally {
       Native.decRef(z3context, funcDecl);
     }
-
-    return out.build();
   }
 
   /**
@@ -371,11 +399,22 @@ final class Z3Model extends CachingAbstractModel<Long, Long, Long> {
   @Override
   public void close() {
     if (!closed) {
+      clearEvaluationCache();
       Native.modelDecRef(z3context, model);
       closed = true;
     }
   }
 
+  @Override
+  protected void retainTerm(Long pTerm) {
+    Native.incRef(z3context, pTerm);
+  }
+
+  @Override
+  protected void releaseTerm(Long pTerm) {
+    Native.decRef(z3context, pTerm);
+  }
+
   @Override
   protected Long evalImpl(Long formula) {
     LongPtr resultPtr = new LongPtr();
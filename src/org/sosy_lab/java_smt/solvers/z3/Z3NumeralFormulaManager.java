@@ -43,6 +43,9 @@ abstract class Z3NumeralFormulaManager<
 
   @Override
   protected Long makeNumberImpl(BigInteger pI) {
+    if (pI.bitLength() < Long.SIZE) {
+      return makeNumberImpl(pI.longValue());
+    }
     return makeNumberImpl(pI.toString());
   }
 
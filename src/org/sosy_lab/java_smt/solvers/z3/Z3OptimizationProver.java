@@ -173,6 +173,11 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
     return Native.optimizeGetModel(z3context, z3optSolver);
   }
 
+  @Override
+  protected long getZ3Assertions() {
+    return Native.optimizeGetAssertions(z3context, z3optSolver);
+  }
+
   @Override
   protected void assertContraint(long negatedModel) {
     Native.optimizeAssert(z3context, z3optSolver, negatedModel);
@@ -33,6 +33,7 @@ import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationCache;
 
 @RunWith(Parameterized.class)
 public class FormulaManagerTest extends SolverBasedTest0 {
@@ -144,6 +145,35 @@ public class FormulaManagerTest extends SolverBasedTest0 {
     assertThatFormula(out2).isEquivalentTo(out);
   }
 
+  @Test
+  public void testSubstitutionWithCache() throws SolverException, InterruptedException {
+    // Boolector does not support substitution
+    assume().that(solverToUse()).isNotEqualTo(Solvers.BOOLECTOR);
+    BooleanFormula shared =
+        bmgr.or(
+            bmgr.and(bmgr.makeVariable("a"), bmgr.makeVariable("b")),
+            bmgr.and(bmgr.makeVariable("c"), bmgr.makeVariable("d")));
+    ImmutableMap<BooleanFormula, BooleanFormula> substitution =
+        ImmutableMap.of(
+            bmgr.makeVariable("a"), bmgr.makeVariable("a1"),
+            bmgr.makeVariable("b"), bmgr.makeVariable("b1"));
+    FormulaTransformationCache cache = new FormulaTransformationCache();
+
+    BooleanFormula out = mgr.substitute(shared, substitution, cache);
+    assertThat(cache.getHitCount()).isEqualTo(0);
+    assertThatFormula(out)
+        .isEquivalentTo(
+            bmgr.or(
+                bmgr.and(bmgr.makeVariable("a1"), bmgr.makeVariable("b1")),
+                bmgr.and(bmgr.makeVariable("c"), bmgr.makeVariable("d"))));
+
+    // the shared subformula is not transformed again
+    BooleanFormula out2 =
+        mgr.substitute(bmgr.and(shared, bmgr.makeVariable("a")), substitution, cache);
+    assertThat(cache.getHitCount()).isGreaterThan(0);
+    assertThatFormula(out2).isEquivalentTo(bmgr.and(out, bmgr.makeVariable("a1")));
+  }
+
   @Test
   public void formulaEqualsAndHashCode() {
     // Solvers without integers (Boolector) get their own test below
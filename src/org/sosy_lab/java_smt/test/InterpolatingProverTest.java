@@ -299,6 +299,53 @@ public class InterpolatingProverTest extends SolverBasedTest0 {
     checkItpSequence(stack, ImmutableList.of(B, C, D, A, A, A, D), itps6);
   }
 
+  @Test
+  public <T> void batchInterpolation() throws SolverException, InterruptedException {
+    InterpolatingProverEnvironment<T> stack = newEnvironmentForTest();
+    requireIntegers();
+
+    int i = index.getFreshId();
+
+    IntegerFormula zero = imgr.makeNumber(0);
+    IntegerFormula one = imgr.makeNumber(1);
+
+    IntegerFormula a = imgr.makeVariable("a" + i);
+    IntegerFormula b = imgr.makeVariable("b" + i);
+    IntegerFormula c = imgr.makeVariable("c" + i);
+
+    // build formula:  1 = A = B = C = 0
+    BooleanFormula A = imgr.equal(one, a);
+    BooleanFormula B = imgr.equal(a, b);
+    BooleanFormula C = imgr.equal(b, c);
+    BooleanFormula D = imgr.equal(c, zero);
+
+    T TA = stack.push(A);
+    T TB = stack.push(B);
+    T TC = stack.push(C);
+    T TD = stack.push(D);
+
+    assertThat(stack).isUnsatisfiable();
+
+    // nested groups, i.e., the prefixes of a path
+    List<BooleanFormula> itps1 =
+        stack.getInterpolants(
+            ImmutableList.of(
+                ImmutableSet.of(TA), ImmutableSet.of(TA, TB), ImmutableSet.of(TA, TB, TC)));
+    // groups that are not nested
+    List<BooleanFormula> itps2 =
+        stack.getInterpolants(ImmutableList.of(ImmutableSet.of(TB, TD), ImmutableSet.of(TC)));
+
+    stack.pop(); // clear stack, such that we can re-use the solver
+    stack.pop();
+    stack.pop();
+    stack.pop();
+
+    checkItpSequence(stack, ImmutableList.of(A, B, C, D), itps1);
+    assertThat(itps2).hasSize(2);
+    checkItpSequence(stack, ImmutableList.of(bmgr.and(B, D), bmgr.and(A, C)), itps2.subList(0, 1));
+    checkItpSequence(stack, ImmutableList.of(C, bmgr.and(A, B, D)), itps2.subList(1, 2));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   @SuppressWarnings("CheckReturnValue")
   public <T> void sequentialInterpolationWithoutPartition()
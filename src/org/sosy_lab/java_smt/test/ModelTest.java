@@ -49,6 +49,7 @@ import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 
 /** Test that values from models are appropriately parsed. */
 @RunWith(Parameterized.class)
@@ -179,6 +180,93 @@ public class ModelTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testFilteredAssignmentsAndBatchEvaluation()
+      throws SolverException, InterruptedException {
+    BooleanFormula a1 = bmgr.makeVariable("a1");
+    BooleanFormula a2 = bmgr.makeVariable("a2");
+    BooleanFormula b1 = bmgr.makeVariable("b1");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(a1, bmgr.not(a2), b1));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        List<String> names = new ArrayList<>();
+        for (ValueAssignment assignment : m.assignments(name -> name.startsWith("a"))) {
+          names.add(assignment.getName());
+        }
+        assertThat(names).containsExactly("a1", "a2");
+
+        assertThat(m.evaluate(ImmutableList.of(a1, a2, b1, a1)))
+            .containsExactly(a1, true, a2, false, b1, true);
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluationCache() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(a, bmgr.not(b)));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        assume().that(m).isInstanceOf(AbstractModel.class);
+        AbstractModel<?, ?, ?> model = (AbstractModel<?, ?, ?>) m;
+
+        assertThat(m.evaluate(a)).isTrue();
+        assertThat(m.evaluate(a)).isTrue();
+        assertThat(m.evaluate(ImmutableList.of(a, b))).containsExactly(a, true, b, false);
+        assertThat(model.getEvaluationCacheLookups()).isEqualTo(4);
+        assertThat(model.getEvaluationCacheHits()).isEqualTo(2);
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluationCacheWithIntegers() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula sum = imgr.add(x, imgr.makeNumber(1));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(imgr.equal(x, imgr.makeNumber(4)));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        // each evaluation returns a new formula, which must stay valid on its own
+        for (int i = 0; i < 3; i++) {
+          assertThat(m.eval(sum)).isEqualTo(imgr.makeNumber(5));
+          assertThat(m.evaluate(sum)).isEqualTo(BigInteger.valueOf(5));
+          assertThat(m.evaluate(x)).isEqualTo(BigInteger.valueOf(4));
+          assertThat(m.eval(x)).isEqualTo(imgr.makeNumber(4));
+        }
+        assertThat(m.evaluate(ImmutableList.of(x, sum)))
+            .containsExactly(x, BigInteger.valueOf(4), sum, BigInteger.valueOf(5));
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluationCacheWithBitvectors() throws SolverException, InterruptedException {
+    requireBitvectors();
+    BitvectorFormula x = bvmgr.makeVariable(8, "x");
+    BitvectorFormula sum = bvmgr.add(x, bvmgr.makeBitvector(8, 1));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bvmgr.equal(x, bvmgr.makeBitvector(8, 4)));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        for (int i = 0; i < 3; i++) {
+          assertThat(m.evaluate(sum)).isEqualTo(BigInteger.valueOf(5));
+          assertThat(m.eval(sum)).isEqualTo(bvmgr.makeBitvector(8, 5));
+          assertThat(m.eval(x)).isEqualTo(bvmgr.makeBitvector(8, 4));
+          assertThat(m.evaluate(x)).isEqualTo(BigInteger.valueOf(4));
+        }
+      }
+    }
+  }
+
   @Test
   public void testGetUFs() throws SolverException, InterruptedException {
     // Boolector does not support integers
@@ -68,6 +68,29 @@ public class ProverEnvironmentTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void symbolsDeclaredAfterProverCreationTest()
+      throws SolverException, InterruptedException {
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.push();
+      BooleanFormula c = bmgr.makeVariable("c");
+      pe.addConstraint(bmgr.and(b, c));
+      assertThat(pe.isUnsat()).isFalse();
+      pe.pop();
+
+      // symbols stay usable after the level where they were first used is removed.
+      BooleanFormula d = bmgr.makeVariable("d");
+      pe.addConstraint(bmgr.and(c, d));
+      pe.push();
+      pe.addConstraint(bmgr.or(bmgr.not(c), bmgr.not(d)));
+      assertThat(pe.isUnsat()).isTrue();
+      pe.pop();
+      assertThat(pe.isUnsat()).isFalse();
+    }
+  }
+
   @Test
   public void assumptionsWithModelTest() throws SolverException, InterruptedException {
     assume()
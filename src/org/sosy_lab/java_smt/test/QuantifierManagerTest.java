@@ -35,6 +35,7 @@ import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 
 @SuppressFBWarnings(value = "DLS_DEAD_LOCAL_STORE", justification = "test code")
 @RunWith(Parameterized.class)
@@ -326,6 +327,61 @@ public class QuantifierManagerTest extends SolverBasedTest0 {
     assertThat(out).isEqualTo(imgr.equal(x, imgr.makeNumber(7)));
   }
 
+  @Test
+  public void testQELightSubstitution() throws SolverException, InterruptedException {
+    requireIntegers();
+    requireVisitor();
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    BooleanFormula xEq7 = imgr.equal(x, imgr.makeNumber(7));
+
+    // exists y, z : (y=4 && z=y+3 && x=z)
+    BooleanFormula exists =
+        qmgr.exists(
+            ImmutableList.of(y),
+            qmgr.exists(
+                ImmutableList.of(z),
+                bmgr.and(
+                    imgr.equal(y, imgr.makeNumber(4)),
+                    imgr.equal(z, imgr.add(y, imgr.makeNumber(3))),
+                    imgr.equal(x, z))));
+    BooleanFormula out = mgr.applyTactic(exists, Tactic.QE_LIGHT);
+    assertThat(containsQuantifier(out)).isFalse();
+    assertThatFormula(out).isEquivalentTo(xEq7);
+
+    // forall y : (y!=4 || x=y+3)
+    BooleanFormula forall =
+        qmgr.forall(
+            y,
+            bmgr.or(
+                bmgr.not(imgr.equal(y, imgr.makeNumber(4))),
+                imgr.equal(x, imgr.add(y, imgr.makeNumber(3)))));
+    assertThatFormula(mgr.applyTactic(forall, Tactic.QE_LIGHT)).isEquivalentTo(xEq7);
+  }
+
+  private boolean containsQuantifier(Formula pFormula) {
+    AtomicBoolean found = new AtomicBoolean(false);
+    mgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<TraversalProcess>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitQuantifier(
+              BooleanFormula f,
+              Quantifier quantifier,
+              List<Formula> boundVariables,
+              BooleanFormula body) {
+            found.set(true);
+            return TraversalProcess.ABORT;
+          }
+        });
+    return found.get();
+  }
+
   @Test
   public void testIntrospectionForall() {
     // Boolector has no working quantifier at the moment. They will be implemented later
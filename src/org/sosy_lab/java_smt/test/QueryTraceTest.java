@@ -0,0 +1,168 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Tests for the incremental SMT-LIB trace that is written with option solver.logMode=STREAM. */
+@RunWith(Parameterized.class)
+public class QueryTraceTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter public Solvers solver;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    FileTypeConverter fileTypeConverter;
+    try {
+      fileTypeConverter = FileTypeConverter.create(Configuration.defaultConfiguration());
+    } catch (InvalidConfigurationException e) {
+      throw new AssertionError(e);
+    }
+    return super.createTestConfigBuilder()
+        .addConverter(FileOption.class, fileTypeConverter)
+        .setOption("solver.logAllQueries", "true")
+        .setOption("solver.logMode", "STREAM")
+        .setOption("solver.logfile", new File(folder.getRoot(), "trace.%03d.smt2").getPath());
+  }
+
+  private List<String> readTrace() throws IOException {
+    File[] files = folder.getRoot().listFiles();
+    assertThat(files).hasLength(1);
+    return Files.readAllLines(files[0].toPath(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testIncrementalTrace() throws SolverException, InterruptedException, IOException {
+    assume()
+        .withMessage("Solver %s does not dump formulas in valid SMT-LIB", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.BOOLECTOR);
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.or(a, b));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.push(bmgr.not(a));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.pop();
+      prover.push(bmgr.and(bmgr.not(a), bmgr.not(b)));
+      assertThat(prover.isUnsat()).isTrue();
+    }
+
+    List<String> trace = readTrace();
+    assertThat(Iterables.filter(trace, line -> line.startsWith("(declare-"))).hasSize(2);
+    assertThat(Iterables.filter(trace, line -> line.startsWith("(assert"))).hasSize(3);
+    assertThat(Iterables.filter(trace, line -> line.equals("(push 1)"))).hasSize(3);
+    assertThat(Iterables.filter(trace, line -> line.equals("(pop 1)"))).hasSize(1);
+    assertThat(Iterables.filter(trace, line -> line.equals("(check-sat)"))).hasSize(3);
+    assertThat(Iterables.getLast(trace)).isEqualTo("(check-sat)");
+  }
+
+  @Test
+  public void testTraceIsEquisatisfiable()
+      throws SolverException, InterruptedException, IOException {
+    assume()
+        .withMessage("Solver %s does not dump formulas in valid SMT-LIB", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.BOOLECTOR);
+    requireParser();
+
+    // shared subterms are dumped as separate definitions by some solvers, e.g., MathSAT
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula ab = bmgr.or(a, b);
+    BooleanFormula notAc = bmgr.or(bmgr.not(a), c);
+    List<BooleanFormula> constraints =
+        ImmutableList.of(
+            bmgr.and(ab, bmgr.or(ab, c)),
+            bmgr.and(notAc, bmgr.or(notAc, b)),
+            bmgr.and(bmgr.not(b), bmgr.not(c)));
+    List<Boolean> results = new ArrayList<>();
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      for (BooleanFormula constraint : constraints) {
+        prover.push(constraint);
+        results.add(prover.isUnsat());
+      }
+    }
+    assertThat(results).containsExactly(false, false, true).inOrder();
+
+    File[] files = folder.getRoot().listFiles();
+    assertThat(files).hasLength(1);
+    List<BooleanFormula> parsed = mgr.parse(files[0].toPath());
+    assertThat(parsed).hasSize(constraints.size());
+    for (int i = 0; i < parsed.size(); i++) {
+      BooleanFormula prefix = bmgr.and(parsed.subList(0, i + 1));
+      if (results.get(i)) {
+        assertThatFormula(prefix).isUnsatisfiable();
+      } else {
+        assertThatFormula(prefix).isSatisfiable();
+      }
+    }
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testTraceIsWrittenWhenContextIsClosed() throws IOException, InterruptedException {
+    assume()
+        .withMessage("Solver %s does not dump formulas in valid SMT-LIB", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.BOOLECTOR);
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    ProverEnvironment prover = context.newProverEnvironment();
+    prover.push(a);
+
+    // the prover is not closed, but closing the context writes the trace
+    context.close();
+
+    List<String> trace = readTrace();
+    assertThat(Iterables.filter(trace, line -> line.equals("(push 1)"))).hasSize(1);
+    assertThat(Iterables.filter(trace, line -> line.startsWith("(assert"))).hasSize(1);
+  }
+}
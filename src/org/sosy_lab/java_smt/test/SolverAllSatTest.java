@@ -13,8 +13,12 @@ import static com.google.common.truth.Truth.assert_;
 import static com.google.common.truth.TruthJUnit.assume;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -185,4 +189,41 @@ public class SolverAllSatTest extends SolverBasedTest0 {
             ImmutableList.of(ImmutableList.of(v1, v2), ImmutableList.of(v1, bmgr.not(v2))),
             ImmutableList.of(ImmutableList.of(v1, bmgr.not(v2)), ImmutableList.of(v1, v2)));
   }
+
+  @Test
+  public void allSatTest_irrelevantPredicates() throws SolverException, InterruptedException {
+    BooleanFormula v1 = bmgr.makeVariable("b1");
+    List<BooleanFormula> irrelevant = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      irrelevant.add(bmgr.makeVariable("c" + i));
+    }
+
+    env.push(v1);
+
+    TestAllSatCallback callback = new TestAllSatCallback();
+    List<BooleanFormula> important =
+        ImmutableList.<BooleanFormula>builder().add(v1).addAll(irrelevant).build();
+
+    assertThat(env.allSat(callback, important)).isEqualTo(EXPECTED_RESULT);
+
+    // Cubes may be partial, but they need to cover exactly all models.
+    Set<Set<BooleanFormula>> models = new HashSet<>();
+    for (List<BooleanFormula> cube : callback.models) {
+      assertThat(cube).contains(v1);
+      List<Set<BooleanFormula>> choices = new ArrayList<>();
+      for (BooleanFormula predicate : irrelevant) {
+        if (cube.contains(predicate)) {
+          choices.add(ImmutableSet.of(predicate));
+        } else if (cube.contains(bmgr.not(predicate))) {
+          choices.add(ImmutableSet.of(bmgr.not(predicate)));
+        } else {
+          choices.add(ImmutableSet.of(predicate, bmgr.not(predicate)));
+        }
+      }
+      for (List<BooleanFormula> model : Sets.cartesianProduct(choices)) {
+        models.add(ImmutableSet.copyOf(model));
+      }
+    }
+    assertThat(models).hasSize(1 << irrelevant.size());
+  }
 }
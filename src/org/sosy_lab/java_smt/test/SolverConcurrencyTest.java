@@ -43,6 +43,7 @@ import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.Model;
@@ -52,6 +53,8 @@ import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 
 @SuppressWarnings("resource")
 @RunWith(Parameterized.class)
@@ -271,6 +274,81 @@ public class SolverConcurrencyTest {
     closeSolver(context);
   }
 
+  /**
+   * Test visiting the formulas of one synchronized context from several threads, while the
+   * visitors create new formulas in the same context.
+   */
+  @Test
+  public void testConcurrentVisitsInSynchronizedContext() throws InvalidConfigurationException {
+    SolverContext context = initSolver("solver.synchronize", "true");
+    FormulaManager mgr = context.getFormulaManager();
+    BooleanFormulaManager bmgr = mgr.getBooleanFormulaManager();
+    List<BooleanFormula> vars = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      vars.add(bmgr.makeVariable("v" + i));
+    }
+    BooleanFormula formula = bmgr.and(bmgr.or(vars), bmgr.xor(vars.get(0), vars.get(1)));
+
+    assertConcurrency(
+        "testConcurrentVisitsInSynchronizedContext",
+        () -> {
+          for (int i = 0; i < 100; i++) {
+            assertThat(mgr.extractVariables(formula)).hasSize(vars.size());
+            List<BooleanFormula> negated = new ArrayList<>();
+            mgr.visitRecursively(
+                formula,
+                new DefaultFormulaVisitor<>() {
+                  @Override
+                  protected TraversalProcess visitDefault(Formula f) {
+                    return TraversalProcess.CONTINUE;
+                  }
+
+                  @Override
+                  public TraversalProcess visitFreeVariable(Formula f, String name) {
+                    negated.add(bmgr.not((BooleanFormula) f));
+                    return TraversalProcess.CONTINUE;
+                  }
+                });
+            assertThat(negated).hasSize(vars.size());
+          }
+        });
+    closeSolver(context);
+  }
+
+  /**
+   * Test reading the formulas of one synchronized context from several threads, with concurrent
+   * reads enabled. The readers share the lock of the context and run in parallel.
+   */
+  @Test
+  public void testConcurrentReadsInSynchronizedContext() throws InvalidConfigurationException {
+    assume()
+        .withMessage("Solver does not support concurrent reads")
+        .that(solver)
+        .isAnyOf(Solvers.SMTINTERPOL, Solvers.PRINCESS);
+    SolverContext context =
+        initSolver(
+            "solver.synchronize", "true", "solver.synchronized.allowConcurrentReads", "true");
+    FormulaManager mgr = context.getFormulaManager();
+    BooleanFormulaManager bmgr = mgr.getBooleanFormulaManager();
+    List<BooleanFormula> vars = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      vars.add(bmgr.makeVariable("v" + i));
+    }
+    BooleanFormula formula = bmgr.and(bmgr.or(vars), bmgr.xor(vars.get(0), vars.get(1)));
+
+    assertConcurrency(
+        "testConcurrentReadsInSynchronizedContext",
+        () -> {
+          for (int i = 0; i < 100; i++) {
+            assertThat(mgr.extractVariables(formula)).hasSize(vars.size());
+            assertThat(mgr.getFormulaType(formula).isBooleanType()).isTrue();
+            assertThat(bmgr.isTrue(formula)).isFalse();
+            assertThat(bmgr.toConjunctionArgs(formula, false)).hasSize(2);
+          }
+        });
+    closeSolver(context);
+  }
+
   /**
    * Uses HardBitvectorFormulaGenerator for longer test-cases to assess concurrency problems. Length
    * is very solver depended, so make sure you choose a appropriate number for the used solver. Make
@@ -18,6 +18,10 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multiset;
 import com.google.common.truth.TruthJUnit;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -296,6 +300,37 @@ public class SolverFormulaIOTest extends SolverBasedTest0 {
     compareParseWithOrgParseFirst(MATHSAT_DUMP3, this::functionExprGen);
   }
 
+  @Test
+  public void parseScriptWithSeveralAssertionsTest()
+      throws SolverException, InterruptedException, IOException {
+    requireParser();
+    requireIntegers();
+    String script =
+        "(set-logic QF_UFLIA)\n"
+            + "(declare-fun a () Int)\n"
+            + "(declare-fun b () Int)\n"
+            + "(declare-fun f (Int) Int)\n"
+            + "(assert (= (f a) b))\n"
+            + "(push 1)\n"
+            + "(assert (< a b)) ; comment\n"
+            + "(check-sat)\n"
+            + "(pop 1)\n"
+            + "(assert (= a 1))\n"
+            + "(exit)\n";
+
+    List<BooleanFormula> assertions = new ArrayList<>();
+    mgr.parse(new StringReader(script), assertions::add);
+
+    IntegerFormula a = imgr.makeVariable("a");
+    IntegerFormula b = imgr.makeVariable("b");
+    FunctionDeclaration<IntegerFormula> f =
+        fmgr.declareUF("f", FormulaType.IntegerType, FormulaType.IntegerType);
+    assertThat(assertions).hasSize(3);
+    assertThatFormula(assertions.get(0)).isEquivalentTo(imgr.equal(fmgr.callUF(f, a), b));
+    assertThatFormula(assertions.get(1)).isEquivalentTo(imgr.lessThan(a, b));
+    assertThatFormula(assertions.get(2)).isEquivalentTo(imgr.equal(a, imgr.makeNumber(1)));
+  }
+
   @Test
   public void redundancyTest() {
     assume()
@@ -321,6 +356,65 @@ public class SolverFormulaIOTest extends SolverBasedTest0 {
         .isTrue();
   }
 
+  @Test
+  public void sharedDumpTest() throws SolverException, InterruptedException {
+    requireIntegers();
+    BooleanFormula formula = redundancyExprGen();
+    String formDump = mgr.dumpFormulaWithSharing(formula).toString();
+
+    assertThat(formDump).contains("(declare-fun a () Int)");
+    assertThat(formDump).contains("(declare-fun q () Bool)");
+    checkThatFunOnlyDeclaredOnce(formDump);
+    checkThatAssertIsInLastLine(formDump);
+    int count = Iterables.size(Splitter.on(">=").split(formDump)) - 1;
+    int count2 = Iterables.size(Splitter.on("<=").split(formDump)) - 1;
+    assertWithMessage(formDump + " does not contain <= or >= only once.")
+        .that(count == 1 || count2 == 1)
+        .isTrue();
+
+    requireParser();
+    assertThatFormula(mgr.parse(formDump)).isEquivalentTo(formula);
+  }
+
+  @Test
+  public void sharedDumpOfDeepFormulaTest() throws SolverException, InterruptedException {
+    // Boolector will fail this anyway since bools are bitvecs for btor
+    TruthJUnit.assume().that(solver).isNotEqualTo(Solvers.BOOLECTOR);
+    // each level uses the previous level twice, a dump as tree has exponential size
+    BooleanFormula formula = bmgr.makeVariable("x");
+    for (int i = 0; i < 50; i++) {
+      BooleanFormula choice = bmgr.makeVariable("c" + i);
+      formula = bmgr.and(bmgr.or(formula, choice), bmgr.or(bmgr.not(choice), formula));
+    }
+    String formDump = mgr.dumpFormulaWithSharing(formula).toString();
+
+    assertThat(formDump.length()).isLessThan(100_000);
+    checkThatFunOnlyDeclaredOnce(formDump);
+    checkThatAssertIsInLastLine(formDump);
+
+    requireParser();
+    assertThatFormula(mgr.parse(formDump)).isEquivalentTo(formula);
+  }
+
+  @Test
+  public void sharedDumpWithDefinitionNamesTest() throws SolverException, InterruptedException {
+    TruthJUnit.assume().that(solver).isNotEqualTo(Solvers.BOOLECTOR);
+    // the variables use the names of the definitions for shared subterms
+    BooleanFormula x = bmgr.makeVariable("__def_0");
+    BooleanFormula y = bmgr.makeVariable("__def_1");
+    BooleanFormula shared = bmgr.or(x, y);
+    BooleanFormula formula = bmgr.and(bmgr.or(shared, y), bmgr.or(bmgr.not(shared), x));
+    String formDump = mgr.dumpFormulaWithSharing(formula).toString();
+
+    assertThat(formDump).doesNotContain("(define-fun __def_0 ");
+    assertThat(formDump).doesNotContain("(define-fun __def_1 ");
+    checkThatFunOnlyDeclaredOnce(formDump);
+    checkThatAssertIsInLastLine(formDump);
+
+    requireParser();
+    assertThatFormula(mgr.parse(formDump)).isEquivalentTo(formula);
+  }
+
   @Test
   public void funDeclareTest() {
     requireIntegers();
@@ -173,6 +173,36 @@ public class SolverFormulaWithAssumptionsTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  @SuppressWarnings("CheckReturnValue")
+  public <T> void assumptionsWithCommonPrefixTest()
+      throws SolverException, InterruptedException, InvalidConfigurationException {
+    requireInterpolation();
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+
+    try (InterpolatingProverEnvironment<T> env = newEnvironmentForTest()) {
+      env.push(bmgr.or(bmgr.not(a), bmgr.not(c)));
+
+      // consecutive queries share a prefix of their assumptions, or extend the previous ones.
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(a, b))).isFalse();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(a, b, c))).isTrue();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(a, b))).isFalse();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(a, c))).isTrue();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(b, c))).isFalse();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of())).isFalse();
+
+      // the assumptions are removed before the stack is modified.
+      env.push(c);
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(b))).isFalse();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(b, a))).isTrue();
+      env.pop();
+      assertThat(env.isUnsatWithAssumptions(ImmutableList.of(b, a))).isFalse();
+    }
+  }
+
   @Test
   @SuppressWarnings("CheckReturnValue")
   public void assumptionsTest1() throws SolverException, InterruptedException {
@@ -14,7 +14,6 @@ import static org.sosy_lab.java_smt.api.FormulaType.BooleanType;
 import static org.sosy_lab.java_smt.api.FormulaType.IntegerType;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.truth.TruthJUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +33,7 @@ import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.TseitinCNFConverter;
 
 @RunWith(Parameterized.class)
 @SuppressWarnings("LocalVariableName")
@@ -84,7 +84,7 @@ public class SolverTacticsTest extends SolverBasedTest0 {
 
   @Test
   public void cnfTacticDefaultTest1() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
     BooleanFormula a = bmgr.makeVariable("a");
     BooleanFormula b = bmgr.makeVariable("b");
     BooleanFormula equiv_a_b = bmgr.equivalence(a, b);
@@ -105,7 +105,7 @@ public class SolverTacticsTest extends SolverBasedTest0 {
 
   @Test
   public void cnfTacticDefaultTest2() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
     BooleanFormula a = bmgr.makeVariable("a");
     BooleanFormula b = bmgr.makeVariable("b");
     BooleanFormula c = bmgr.makeVariable("c");
@@ -128,7 +128,7 @@ public class SolverTacticsTest extends SolverBasedTest0 {
 
   @Test
   public void cnfTacticDefaultTest3() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
     BooleanFormula x = bmgr.makeVariable("x");
     BooleanFormula y = bmgr.makeVariable("y");
     BooleanFormula z = bmgr.makeVariable("z");
@@ -148,6 +148,58 @@ public class SolverTacticsTest extends SolverBasedTest0 {
     assertThat(checker.isInCNF()).isTrue();
   }
 
+  @Test
+  public void cnfConverterPolarityReductionTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula d = bmgr.makeVariable("d");
+    // the conjunctions are shared and occur with both polarities because of the equivalence.
+    BooleanFormula ab = bmgr.and(a, b);
+    BooleanFormula cd = bmgr.and(c, d);
+    BooleanFormula f =
+        bmgr.and(bmgr.or(ab, cd), bmgr.equivalence(bmgr.or(ab, c), bmgr.not(cd)), bmgr.or(a, d));
+
+    List<List<BooleanFormula>> reduced = new ArrayList<>();
+    new TseitinCNFConverter(mgr, true).convert(f, reduced::add);
+    List<List<BooleanFormula>> full = new ArrayList<>();
+    new TseitinCNFConverter(mgr, false).convert(f, full::add);
+    assertThat(reduced.size()).isLessThan(full.size());
+
+    for (List<List<BooleanFormula>> clauses : ImmutableList.of(reduced, full)) {
+      List<BooleanFormula> conjuncts = new ArrayList<>();
+      for (List<BooleanFormula> clause : clauses) {
+        conjuncts.add(bmgr.or(clause));
+      }
+      BooleanFormula cnf = bmgr.and(conjuncts);
+      assertThatFormula(cnf).isEquisatisfiableTo(f);
+      // every model of the CNF is a model of the original formula.
+      assertThatFormula(cnf).implies(f);
+      CNFChecker checker = new CNFChecker(mgr);
+      checker.visit(cnf);
+      assertThat(checker.isInCNF()).isTrue();
+    }
+  }
+
+  @Test
+  public void cnfConverterFreshNamesTest() throws SolverException, InterruptedException {
+    requireVisitor();
+    // the input uses the name that the first auxiliary variable would get. If the auxiliary
+    // variable for (a & b) were x, its definition x => a would contradict x & !a.
+    BooleanFormula x = bmgr.makeVariable(TseitinCNFConverter.AUX_VARIABLE_PREFIX + "0");
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula f = bmgr.and(x, bmgr.or(bmgr.and(a, b), c), bmgr.not(a));
+    assertThatFormula(f).isSatisfiable();
+
+    BooleanFormula cnf = new TseitinCNFConverter(mgr, true).toCNF(f);
+    assertThatFormula(cnf).isSatisfiable();
+    // every model of the CNF is a model of the original formula.
+    assertThatFormula(cnf).implies(f);
+  }
+
   @Test
   public void ufEliminationSimpleTest() throws SolverException, InterruptedException {
     requireIntegers();
@@ -248,12 +300,19 @@ public class SolverTacticsTest extends SolverBasedTest0 {
     boolean containsMoreAnd = false;
     boolean started = false;
 
+    /**
+     * Whether the current formula is an operand of the top-level conjunction. Some solvers (e.g.,
+     * Princess) only have binary conjunctions, thus the top-level conjunction can be nested.
+     */
+    boolean inTopLevelAnd = false;
+
     protected CNFChecker(FormulaManager pFmgr) {
       bfmgr = pFmgr.getBooleanFormulaManager();
     }
 
     Void visit(BooleanFormula f) {
       // TODO rewrite using RecursiveBooleanFormulaVisitor should make this class easier
+      inTopLevelAnd = false;
       return bfmgr.visit(f, this);
     }
 
@@ -287,13 +346,17 @@ public class SolverTacticsTest extends SolverBasedTest0 {
 
     @Override
     public Void visitAnd(List<BooleanFormula> pOperands) {
-      if (!started) {
+      boolean isTopLevel = !started || inTopLevelAnd;
+      if (isTopLevel) {
         started = true;
         startsWithAnd = true;
       } else {
         containsMoreAnd = true;
       }
-      pOperands.forEach(this::visit);
+      for (BooleanFormula operand : pOperands) {
+        inTopLevelAnd = isTopLevel;
+        bfmgr.visit(operand, this);
+      }
       return null;
     }
 
@@ -11,6 +11,9 @@ package org.sosy_lab.java_smt.test;
 import static com.google.common.truth.TruthJUnit.assume;
 import static org.sosy_lab.java_smt.test.BooleanFormulaSubject.assertUsing;
 
+import com.google.common.collect.ImmutableList;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -24,6 +27,8 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.java_smt.SolverContextFactory;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.FormulaManager;
@@ -129,6 +134,78 @@ public class TranslateFormulaTest {
     assertUsing(to).that(createTestFormula(managerTo)).isEquivalentTo(parsed);
   }
 
+  @Test
+  public void testTranslatingWithoutParser() throws SolverException, InterruptedException {
+    assume()
+        .withMessage("Solver %s does not support integer theory", translateTo)
+        .that(translateTo)
+        .isNotEqualTo(Solvers.BOOLECTOR);
+
+    // the structural translation does not need a parser in the target solver
+    BooleanFormula input = createTestFormula(managerFrom);
+    BooleanFormula translated = managerTo.translateFrom(input, withoutSerialization(managerFrom));
+
+    assertUsing(to).that(createTestFormula(managerTo)).isEquivalentTo(translated);
+  }
+
+  @Test
+  public void testTranslatingDistinctWithoutParser()
+      throws SolverException, InterruptedException {
+    assume()
+        .withMessage("Solver %s does not support parsing formulae", translateFrom)
+        .that(translateFrom)
+        .isNoneOf(Solvers.CVC4, Solvers.BOOLECTOR, Solvers.YICES2);
+    assume()
+        .withMessage("Solver does not support bitvectors")
+        .that(ImmutableList.of(translateFrom, translateTo))
+        .doesNotContain(Solvers.SMTINTERPOL);
+
+    // distinct over other types than numerals has no counterpart in the API
+    BooleanFormula input =
+        managerFrom.parse(
+            "(declare-fun a () Bool)(declare-fun b () Bool)"
+                + "(declare-fun x () (_ BitVec 8))(declare-fun y () (_ BitVec 8))"
+                + "(declare-fun z () (_ BitVec 8))"
+                + "(assert (and (distinct a b) (distinct x y z)))");
+    BooleanFormula translated = managerTo.translateFrom(input, withoutSerialization(managerFrom));
+
+    assertUsing(to).that(createDistinctFormula(managerTo)).isEquivalentTo(translated);
+  }
+
+  /**
+   * Returns a view of the manager that fails when formulas are serialized, such that a translation
+   * from this manager can not fall back to dumping and parsing.
+   */
+  private static FormulaManager withoutSerialization(FormulaManager mgr) {
+    return (FormulaManager)
+        Proxy.newProxyInstance(
+            FormulaManager.class.getClassLoader(),
+            new Class<?>[] {FormulaManager.class},
+            (proxy, method, args) -> {
+              if (method.getName().startsWith("dumpFormula")) {
+                throw new AssertionError("translation must not serialize formulas");
+              }
+              try {
+                return method.invoke(mgr, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  private BooleanFormula createDistinctFormula(FormulaManager mgr) {
+    BooleanFormulaManager bfmgr = mgr.getBooleanFormulaManager();
+    BitvectorFormulaManager bvmgr = mgr.getBitvectorFormulaManager();
+    BitvectorFormula x = bvmgr.makeVariable(8, "x");
+    BitvectorFormula y = bvmgr.makeVariable(8, "y");
+    BitvectorFormula z = bvmgr.makeVariable(8, "z");
+    return bfmgr.and(
+        bfmgr.xor(bfmgr.makeVariable("a"), bfmgr.makeVariable("b")),
+        bfmgr.not(bvmgr.equal(x, y)),
+        bfmgr.not(bvmgr.equal(x, z)),
+        bfmgr.not(bvmgr.equal(y, z)));
+  }
+
   private BooleanFormula createTestFormula(FormulaManager mgr) {
     requireIntegers();
 